@@ -0,0 +1,119 @@
+package benchmark;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import model.Card;
+import model.Player;
+import model.SanguineModel;
+import strategy.Move;
+import strategy.MoveGenerator;
+
+/**
+ * Builds the decks and mid-game positions the benchmarks run against.
+ * Everything is drawn from a fixed seed, so every run and every fork
+ * measures the same positions.
+ */
+final class BenchmarkFixtures {
+  static final long SEED = 0x5A4E_6E1DL;
+
+  private BenchmarkFixtures() {
+  }
+
+  /**
+   * Parses a board size such as "5x7".
+   *
+   * @param size rows, an 'x', then columns
+   * @return the rows and columns
+   */
+  static int[] parseSize(String size) {
+    int split = size.indexOf('x');
+    return new int[] {Integer.parseInt(size.substring(0, split)),
+        Integer.parseInt(size.substring(split + 1))};
+  }
+
+  /**
+   * Creates a deck of random cards with cost 1 to 3, value 1 to 5 and a
+   * random influence grid that never covers the center.
+   *
+   * @param size   number of cards
+   * @param random source of the cards
+   * @return the deck
+   */
+  static List<Card> deck(int size, Random random) {
+    List<Card> deck = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      boolean[][] influence = new boolean[5][5];
+      for (int r = 0; r < 5; r++) {
+        for (int c = 0; c < 5; c++) {
+          influence[r][c] = (r != 2 || c != 2) && random.nextInt(4) == 0;
+        }
+      }
+      deck.add(new Card("Card" + i, 1 + random.nextInt(3), 1 + random.nextInt(5), influence));
+    }
+    return deck;
+  }
+
+  /**
+   * Creates a game about half way through: each player starts with the
+   * given hand size and a deck as large as the board, and random legal
+   * moves are played until half the cells have been taken and the player
+   * to move has a legal move. Moves are journaled, so if both players pass
+   * first the game is backed up to the last position where the player to
+   * move had one.
+   *
+   * @param rows     number of rows
+   * @param cols     number of columns
+   * @param handSize cards in each player's hand
+   * @return the model
+   */
+  static SanguineModel midGame(int rows, int cols, int handSize) {
+    Random random = new Random(SEED ^ (rows * 31L + cols) ^ ((long) handSize << 32));
+    int cards = handSize + rows * cols;
+    List<Card> redCards = deck(cards, random);
+    List<Card> blueCards = deck(cards, random);
+    Player red = new Player(Color.RED, redCards.subList(0, handSize),
+        redCards.subList(handSize, cards));
+    Player blue = new Player(Color.BLUE, blueCards.subList(0, handSize),
+        blueCards.subList(handSize, cards));
+    SanguineModel model = new SanguineModel(red, blue, rows, cols);
+
+    MoveGenerator generator = new MoveGenerator();
+    int passes = 0;
+    for (int placed = 0; passes < 2; ) {
+      int moves = generator.generate(model);
+      if (placed >= rows * cols / 2 && moves > 0) {
+        break;
+      }
+      if (moves == 0) {
+        model.applyPass();
+        passes++;
+        continue;
+      }
+      int move = generator.get(random.nextInt(generator.size()));
+      model.applyMove(Move.packedRow(move), Move.packedCol(move), Move.packedCard(move));
+      passes = 0;
+      placed++;
+    }
+    // If the game got stuck, back up to the last position with a move
+    while (generator.generate(model) == 0) {
+      model.undoMove();
+    }
+    return model;
+  }
+
+  /**
+   * Picks one legal move of the current player, or null if it has none.
+   *
+   * @param model the game model
+   * @return the move
+   */
+  static Move anyLegalMove(SanguineModel model) {
+    MoveGenerator generator = new MoveGenerator();
+    if (generator.generate(model) == 0) {
+      return null;
+    }
+    return Move.fromPacked(generator.get(generator.size() / 2));
+  }
+}
@@ -0,0 +1,41 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, which adds the allocation rate
+ * (gc.alloc.rate.norm is bytes per operation) next to throughput and
+ * average time.
+ *
+ * <p>The sources in jmh/java need JMH (jmh-core and
+ * jmh-generator-annprocess) and the main classes on the classpath. From a
+ * benchmarks jar the same run is
+ * {@code java -jar benchmarks.jar -prof gc}; pass a class name such as
+ * {@code StrategyBenchmark} or {@code -p board=25x25} to narrow it.
+ */
+public final class BenchmarkRunner {
+  private BenchmarkRunner() {
+  }
+
+  /**
+   * Runs the benchmarks whose names match the arguments, or all of them.
+   *
+   * @param args benchmark name patterns
+   * @throws RunnerException if JMH fails
+   */
+  public static void main(String[] args) throws RunnerException {
+    OptionsBuilder builder = new OptionsBuilder();
+    if (args.length == 0) {
+      builder.include("benchmark\\.");
+    }
+    for (String pattern : args) {
+      builder.include(pattern);
+    }
+    Options options = builder.addProfiler(GCProfiler.class).build();
+    new Runner(options).run();
+  }
+}
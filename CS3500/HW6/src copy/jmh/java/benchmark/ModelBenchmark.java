@@ -0,0 +1,114 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+import model.Card;
+import model.Cell;
+import model.SanguineModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import strategy.Move;
+
+/**
+ * Benchmarks the model operations the strategies call most: placing a
+ * card, copying the board and reading scores, on mid-game positions.
+ *
+ * <p>placeCard changes the model, so it is measured on a fresh copy each
+ * time; subtract copyModel from it to get the cost of the placement alone.
+ * applyAndUndo measures a placement without any copy.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ModelBenchmark {
+  @Param({"3x5", "5x7", "9x9", "15x15", "25x25"})
+  public String board;
+
+  @Param({"5", "10"})
+  public int handSize;
+
+  private SanguineModel model;
+  private Card card;
+  private Move move;
+
+  /**
+   * Builds the position and picks the move to place.
+   */
+  @Setup
+  public void setUp() {
+    int[] size = BenchmarkFixtures.parseSize(board);
+    model = BenchmarkFixtures.midGame(size[0], size[1], handSize);
+    move = BenchmarkFixtures.anyLegalMove(model);
+    if (move == null) {
+      throw new IllegalStateException("Fixture has no legal move for " + board);
+    }
+    card = model.getCurrentPlayerHand().get(move.getCardIndex());
+  }
+
+  /**
+   * Copies the whole model, the baseline for placeCard.
+   *
+   * @return the copy
+   */
+  @Benchmark
+  public SanguineModel copyModel() {
+    return model.copyModel();
+  }
+
+  /**
+   * Places a card on a copy of the model.
+   *
+   * @return the changed copy
+   */
+  @Benchmark
+  public SanguineModel placeCard() {
+    SanguineModel copy = model.copyModel();
+    copy.placeCard(move.getRow(), move.getCol(), card);
+    return copy;
+  }
+
+  /**
+   * Plays a card from the hand and takes it back.
+   *
+   * @return the position key afterwards, so the work is not removed
+   */
+  @Benchmark
+  public long applyAndUndo() {
+    model.applyMove(move.getRow(), move.getCol(), move.getCardIndex());
+    model.undoMove();
+    return model.getPositionKey();
+  }
+
+  /**
+   * Copies the board cells.
+   *
+   * @return the copied board
+   */
+  @Benchmark
+  public Cell<Card>[][] copyBoard() {
+    return model.copyBoard();
+  }
+
+  /**
+   * Reads both players' scores.
+   *
+   * @param blackhole sink for the scores
+   */
+  @Benchmark
+  public void getPlayerScore(Blackhole blackhole) {
+    blackhole.consume(model.getPlayerScore(model.getRedPlayer()));
+    blackhole.consume(model.getPlayerScore(model.getBluePlayer()));
+  }
+}
@@ -0,0 +1,84 @@
+package benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import model.SanguineModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import strategy.CompositeStrategy;
+import strategy.ControllBoardStrategy;
+import strategy.FillFirstStrategy;
+import strategy.MaximizeRowScoreStrategy;
+import strategy.MiniMaxStrategy;
+import strategy.Move;
+import strategy.SanguineStrategyInterface;
+
+/**
+ * Benchmarks chooseMoves of each simple strategy on mid-game positions.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StrategyBenchmark {
+  @Param({"3x5", "5x7", "9x9", "15x15", "25x25"})
+  public String board;
+
+  @Param({"5", "10"})
+  public int handSize;
+
+  @Param({"FillFirst", "MaxRowScore", "ControlBoard", "MiniMax", "Composite"})
+  public String strategyName;
+
+  private SanguineModel model;
+  private SanguineStrategyInterface strategy;
+
+  /**
+   * Builds the position and the strategy.
+   */
+  @Setup
+  public void setUp() {
+    int[] size = BenchmarkFixtures.parseSize(board);
+    model = BenchmarkFixtures.midGame(size[0], size[1], handSize);
+    strategy = create(strategyName);
+  }
+
+  private static SanguineStrategyInterface create(String name) {
+    switch (name) {
+      case "FillFirst":
+        return new FillFirstStrategy();
+      case "MaxRowScore":
+        return new MaximizeRowScoreStrategy();
+      case "ControlBoard":
+        return new ControllBoardStrategy();
+      case "MiniMax":
+        return new MiniMaxStrategy(new FillFirstStrategy());
+      case "Composite":
+        return new CompositeStrategy(new MaximizeRowScoreStrategy(),
+            new ControllBoardStrategy(), new FillFirstStrategy());
+      default:
+        throw new IllegalArgumentException("Unknown strategy: " + name);
+    }
+  }
+
+  /**
+   * Chooses the current player's moves.
+   *
+   * @return the moves
+   */
+  @Benchmark
+  public List<Move> chooseMoves() {
+    return strategy.chooseMoves(model, model.getCurrentPlayer());
+  }
+}
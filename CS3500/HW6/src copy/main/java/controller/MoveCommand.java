@@ -0,0 +1,111 @@
+package controller;
+
+/**
+ * A move typed by a player: either {@code pass} or
+ * {@code <card_index> <row> <col>}. The console game and the session
+ * server both read moves with parse, so they accept the same input.
+ */
+public final class MoveCommand {
+  private static final MoveCommand PASS = new MoveCommand(-1, -1, -1);
+
+  private final int cardIndex;
+  private final int row;
+  private final int col;
+
+  private MoveCommand(int cardIndex, int row, int col) {
+    this.cardIndex = cardIndex;
+    this.row = row;
+    this.col = col;
+  }
+
+  /**
+   * Parses a line of input. Surrounding whitespace is ignored, as is the
+   * case of {@code pass}.
+   *
+   * @param line the input
+   * @return the command
+   * @throws IllegalArgumentException if the line is not a move, with a
+   *                                  message that can be shown to the
+   *                                  player
+   */
+  public static MoveCommand parse(String line) {
+    if (line == null) {
+      throw new IllegalArgumentException(
+          "Invalid input! Please use format: <card_index> <row> <col>");
+    }
+    String input = line.trim();
+    if (input.equalsIgnoreCase("pass")) {
+      return PASS;
+    }
+    // Start and end of each word, stopping once there are too many
+    int[] bounds = new int[8];
+    int count = 0;
+    int pos = 0;
+    while (pos < input.length() && count < 4) {
+      int end = pos;
+      while (end < input.length() && !Character.isWhitespace(input.charAt(end))) {
+        end++;
+      }
+      bounds[count * 2] = pos;
+      bounds[count * 2 + 1] = end;
+      count++;
+      while (end < input.length() && Character.isWhitespace(input.charAt(end))) {
+        end++;
+      }
+      pos = end;
+    }
+    if (count != 3) {
+      throw new IllegalArgumentException(
+          "Invalid input! Please use format: <card_index> <row> <col>");
+    }
+    int[] numbers = new int[3];
+    for (int i = 0; i < 3; i++) {
+      numbers[i] = parseNumber(input, bounds[i * 2], bounds[i * 2 + 1]);
+    }
+    return new MoveCommand(numbers[0], numbers[1], numbers[2]);
+  }
+
+  private static int parseNumber(String input, int start, int end) {
+    try {
+      return Integer.parseInt(input, start, end, 10);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid input! Please enter numbers only.");
+    }
+  }
+
+  /**
+   * Checks whether the command is a pass.
+   *
+   * @return true if the player passes
+   */
+  public boolean isPass() {
+    return this == PASS;
+  }
+
+  /**
+   * Gets the index of the card in the player's hand.
+   *
+   * @return the card index, or -1 for a pass
+   */
+  public int getCardIndex() {
+    return cardIndex;
+  }
+
+  /**
+   * Gets the row to play in.
+   *
+   * @return the row, or -1 for a pass
+   */
+  public int getRow() {
+    return row;
+  }
+
+  /**
+   * Gets the column to play in.
+   *
+   * @return the column, or -1 for a pass
+   */
+  public int getCol() {
+    return col;
+  }
+}
@@ -0,0 +1,109 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Passes model events to another listener on a separate thread through a
+ * bounded queue, so a slow listener does not hold up the game until the
+ * queue fills. When it is full the model waits for room, so no batch is
+ * ever lost. Batches are delivered in the order the moves were made.
+ *
+ * <p>Once closed, batches are dropped rather than queued, since nothing
+ * would take them off the queue. Closing does not unregister the listener,
+ * so also remove it from the model with removeModelListener.
+ */
+public final class AsyncModelListener implements ModelListener, AutoCloseable {
+  // Queued by close; compared by identity
+  private static final List<ModelEvent> STOP = new ArrayList<>(0);
+
+  private final ModelListener delegate;
+  private final BlockingQueue<List<ModelEvent>> queue;
+  private final Thread worker;
+  // Guards closed, so no batch is queued behind STOP
+  private final Object lock = new Object();
+  private boolean closed;
+
+  /**
+   * Starts delivering to a listener.
+   *
+   * @param delegate the listener to deliver to
+   * @param capacity the most batches waiting at once
+   * @throws IllegalArgumentException if the listener is null or the
+   *                                  capacity is not positive
+   */
+  public AsyncModelListener(ModelListener delegate, int capacity) {
+    if (delegate == null || capacity < 1) {
+      throw new IllegalArgumentException("Invalid listener or capacity");
+    }
+    this.delegate = delegate;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.worker = new Thread(this::deliver, "sanguine-events");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Queues the batch, waiting for room if the queue is full, or drops it
+   * if the listener has been closed.
+   */
+  @Override
+  public void modelChanged(List<ModelEvent> events) {
+    try {
+      synchronized (lock) {
+        if (!closed) {
+          queue.put(events);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while queueing events", e);
+    }
+  }
+
+  private void deliver() {
+    try {
+      while (true) {
+        List<ModelEvent> events = queue.take();
+        if (events == STOP) {
+          return;
+        }
+        try {
+          delegate.modelChanged(events);
+        } catch (RuntimeException e) {
+          // Report it, but keep delivering the batches after it
+          worker.getUncaughtExceptionHandler().uncaughtException(worker, e);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Delivers the batches already queued, then stops the delivery thread.
+   * Closing again has no effect.
+   *
+   * @throws IllegalStateException if interrupted while waiting
+   */
+  @Override
+  public void close() {
+    try {
+      synchronized (lock) {
+        if (closed) {
+          return;
+        }
+        closed = true;
+        queue.put(STOP);
+      }
+      worker.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while closing", e);
+    }
+  }
+}
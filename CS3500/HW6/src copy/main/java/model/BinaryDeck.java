@@ -0,0 +1,227 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A card pool in the compiled binary deck format, memory-mapped so cards
+ * are read straight from the file with no parsing.
+ *
+ * <p>The file is a 16 byte header (magic, version, card count and offset
+ * of the name table), then one 16 byte record per card (influence mask,
+ * cost, value, and offset and length of the name), then the UTF-8 names.
+ * Bit (i * 5 + j) of the influence mask is cell [i][j] of the grid, as in
+ * Card.getInfluenceMask. All values are big-endian.
+ *
+ * <p>A BinaryDeck only reads the mapping, so it can be shared between
+ * threads.
+ */
+public final class BinaryDeck {
+  static final int MAGIC = 0x53474443;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 16;
+  static final int RECORD_SIZE = 16;
+
+  private final ByteBuffer buffer;
+  private final int count;
+
+  private BinaryDeck(ByteBuffer buffer, int count) {
+    this.buffer = buffer;
+    this.count = count;
+  }
+
+  /**
+   * Maps a compiled deck file.
+   *
+   * @param path the file
+   * @return the deck
+   * @throws IOException if the file cannot be read or is not a compiled
+   *                     deck
+   */
+  public static BinaryDeck open(Path path) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Not a compiled deck: " + path);
+      }
+      // The mapping stays valid after the channel is closed
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    buffer.order(ByteOrder.BIG_ENDIAN);
+    int count = buffer.getInt(8);
+    int names = buffer.getInt(12);
+    if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || count < 0
+        || names != HEADER_SIZE + (long) count * RECORD_SIZE || names > buffer.capacity()) {
+      throw new IOException("Not a compiled deck: " + path);
+    }
+    return new BinaryDeck(buffer, count);
+  }
+
+  /**
+   * Compiles cards into a deck file, replacing the file if it exists.
+   *
+   * @param cards the cards, in the order they are stored
+   * @param path  the file to write
+   * @throws IOException if the file cannot be written
+   * @throws IllegalArgumentException if a card's cost or value does not
+   *                                  fit in a record
+   */
+  public static void write(List<Card> cards, Path path) throws IOException {
+    byte[][] names = new byte[cards.size()][];
+    long nameBytes = 0;
+    for (int i = 0; i < cards.size(); i++) {
+      Card card = cards.get(i);
+      if (card.getCost() < Short.MIN_VALUE || card.getCost() > Short.MAX_VALUE
+          || card.getValue() < Short.MIN_VALUE || card.getValue() > Short.MAX_VALUE) {
+        throw new IllegalArgumentException("Card does not fit a record: " + card.getName());
+      }
+      names[i] = card.getName() == null ? new byte[0]
+          : card.getName().getBytes(StandardCharsets.UTF_8);
+      nameBytes += names[i].length;
+    }
+    long nameTable = HEADER_SIZE + (long) cards.size() * RECORD_SIZE;
+    if (nameTable + nameBytes > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Too many cards for one deck file");
+    }
+
+    ByteBuffer out = ByteBuffer.allocate((int) (nameTable + nameBytes));
+    out.putInt(MAGIC).putInt(VERSION).putInt(cards.size()).putInt((int) nameTable);
+    int nameOffset = (int) nameTable;
+    for (int i = 0; i < cards.size(); i++) {
+      Card card = cards.get(i);
+      out.putInt(card.getInfluenceMask())
+          .putShort((short) card.getCost())
+          .putShort((short) card.getValue())
+          .putInt(nameOffset)
+          .putInt(names[i].length);
+      nameOffset += names[i].length;
+    }
+    for (byte[] name : names) {
+      out.put(name);
+    }
+    out.flip();
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      while (out.hasRemaining()) {
+        channel.write(out);
+      }
+    }
+  }
+
+  /**
+   * Number of cards in the pool.
+   *
+   * @return the card count
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Gets a card's cost.
+   *
+   * @param index the card index
+   * @return the cost
+   */
+  public int getCost(int index) {
+    return buffer.getShort(record(index) + 4);
+  }
+
+  /**
+   * Gets a card's value.
+   *
+   * @param index the card index
+   * @return the value
+   */
+  public int getValue(int index) {
+    return buffer.getShort(record(index) + 6);
+  }
+
+  /**
+   * Gets a card's influence mask.
+   *
+   * @param index the card index
+   * @return the mask, as returned by Card.getInfluenceMask
+   */
+  public int getInfluenceMask(int index) {
+    return buffer.getInt(record(index));
+  }
+
+  /**
+   * Gets a card's name.
+   *
+   * @param index the card index
+   * @return the name
+   * @throws IOException if the record places the name outside the file
+   */
+  public String getName(int index) throws IOException {
+    int record = record(index);
+    int offset = buffer.getInt(record + 8);
+    int length = buffer.getInt(record + 12);
+    if (offset < HEADER_SIZE || length < 0 || offset > buffer.limit() - length) {
+      throw new IOException("Name of card " + index + " (offset " + offset + ", length "
+          + length + ") is outside the " + buffer.limit() + " byte deck file");
+    }
+    byte[] name = new byte[length];
+    buffer.get(offset, name);
+    return new String(name, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Builds the Card stored at an index.
+   *
+   * @param index the card index
+   * @return the card
+   * @throws IOException if the card's name is outside the file
+   */
+  public Card getCard(int index) throws IOException {
+    int mask = getInfluenceMask(index);
+    boolean[][] influence = new boolean[5][5];
+    for (int bit = 0; bit < 25; bit++) {
+      influence[bit / 5][bit % 5] = (mask & (1 << bit)) != 0;
+    }
+    return new Card(getName(index), getCost(index), getValue(index), influence);
+  }
+
+  /**
+   * Picks distinct cards at random, in random order.
+   *
+   * @param deckSize number of cards to pick
+   * @param random   source of the picks
+   * @return the cards
+   * @throws IllegalArgumentException if the pool has fewer cards
+   * @throws IOException if a picked card's name is outside the file
+   */
+  public List<Card> sample(int deckSize, Random random) throws IOException {
+    if (deckSize < 0 || deckSize > count) {
+      throw new IllegalArgumentException("Pool has only " + count + " cards");
+    }
+    // Partial Fisher-Yates over the indexes, touching only the swapped ones
+    HashMap<Integer, Integer> swapped = new HashMap<>();
+    List<Card> deck = new ArrayList<>(deckSize);
+    for (int i = 0; i < deckSize; i++) {
+      int j = i + random.nextInt(count - i);
+      int picked = swapped.getOrDefault(j, j);
+      swapped.put(j, swapped.getOrDefault(i, i));
+      deck.add(getCard(picked));
+    }
+    return deck;
+  }
+
+  private int record(int index) {
+    if (index < 0 || index >= count) {
+      throw new IndexOutOfBoundsException("Invalid card index: " + index);
+    }
+    return HEADER_SIZE + index * RECORD_SIZE;
+  }
+}
@@ -9,6 +9,10 @@ public class Card implements CardInterface {
   private int cost;
   private int value;
   private boolean[][] influence;
+  // Influence compiled when the card is created: bit (i * 5 + j) of the
+  // mask is set when influence[i][j] is, and offsets lists the set bits
+  private final int influenceMask;
+  private final int[] influenceOffsets;
 
   /**
    * sets up single card.
@@ -23,6 +27,32 @@ public class Card implements CardInterface {
     this.cost = cost;
     this.value = value;
     this.influence = influence;
+    this.influenceMask = compileMask(influence);
+    this.influenceOffsets = new int[Integer.bitCount(influenceMask)];
+    int next = 0;
+    for (int bit = 0; bit < 25; bit++) {
+      if ((influenceMask & (1 << bit)) != 0) {
+        influenceOffsets[next++] = bit;
+      }
+    }
+  }
+
+  private static int compileMask(boolean[][] influence) {
+    int mask = 0;
+    if (influence == null) {
+      return mask;
+    }
+    for (int i = 0; i < Math.min(5, influence.length); i++) {
+      if (influence[i] == null) {
+        continue;
+      }
+      for (int j = 0; j < Math.min(5, influence[i].length); j++) {
+        if (influence[i][j]) {
+          mask |= 1 << (i * 5 + j);
+        }
+      }
+    }
+    return mask;
   }
 
   @Override
@@ -48,6 +78,27 @@ public class Card implements CardInterface {
     return influence;
   }
 
+  /**
+   * Influence grid as a 25-bit mask, bit (i * 5 + j) for grid entry [i][j].
+   * The card itself is at bit 12.
+   *
+   * @return the influence mask
+   */
+  public int getInfluenceMask() {
+    return influenceMask;
+  }
+
+  /**
+   * Bits set in the influence mask, in increasing order. Entry k is the
+   * cell (k / 5 - 2) rows and (k % 5 - 2) columns away from the card.
+   * The array is shared and must not be modified.
+   *
+   * @return the influence offsets
+   */
+  public int[] getInfluenceOffsets() {
+    return influenceOffsets;
+  }
+
   @Override
   public int getCost() {
     return cost;
@@ -0,0 +1,181 @@
+package model;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads deck files and caches the parsed cards, so a file shared by both
+ * players, or by every game of a tournament, is read and parsed once.
+ *
+ * <p>A deck file holds cards one after another: a line with the name,
+ * cost and value separated by spaces, then five lines of five characters
+ * giving the influence grid, where 'I' marks an influenced cell and 'X'
+ * or 'C' (the card itself) do not. Cached cards are shared between
+ * callers and must not be changed. An entry is read again when the
+ * file's modification time or size changes.
+ */
+public final class DeckLoader {
+  private static final int GRID = 5;
+  private static final ConcurrentHashMap<Path, Entry> CACHE = new ConcurrentHashMap<>();
+
+  private DeckLoader() {
+  }
+
+  private static final class Entry {
+    private final FileTime modified;
+    private final long size;
+    private final List<Card> cards;
+
+    private Entry(FileTime modified, long size, List<Card> cards) {
+      this.modified = modified;
+      this.size = size;
+      this.cards = cards;
+    }
+  }
+
+  /**
+   * Gets the cards of a deck file in file order, parsing it only if it is
+   * not cached or has changed since it was cached.
+   *
+   * @param path the deck file
+   * @return the cards, an unmodifiable list shared by all callers
+   * @throws IOException if the file cannot be read or parsed
+   * @throws IllegalArgumentException if the file does not exist
+   */
+  public static List<Card> load(Path path) throws IOException {
+    Path key = path.toAbsolutePath().normalize();
+    FileTime modified;
+    long size;
+    try {
+      modified = Files.getLastModifiedTime(key);
+      size = Files.size(key);
+    } catch (NoSuchFileException e) {
+      throw new IllegalArgumentException("Deck File Not Found");
+    }
+    Entry cached = CACHE.get(key);
+    if (cached != null && cached.modified.equals(modified) && cached.size == size) {
+      return cached.cards;
+    }
+    List<Card> cards = parse(Files.readAllBytes(key));
+    CACHE.put(key, new Entry(modified, size, cards));
+    return cards;
+  }
+
+  /**
+   * Creates a random order of the cards of a deck.
+   *
+   * @param size   number of cards
+   * @param random source of the order
+   * @return the card indexes, shuffled
+   */
+  public static int[] shuffledOrder(int size, Random random) {
+    int[] order = new int[size];
+    for (int i = 0; i < size; i++) {
+      order[i] = i;
+    }
+    for (int i = size - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int swap = order[i];
+      order[i] = order[j];
+      order[j] = swap;
+    }
+    return order;
+  }
+
+  /**
+   * Parses the bytes of a deck file.
+   *
+   * @param bytes the file contents
+   * @return the cards, unmodifiable
+   * @throws IOException if the contents are not a valid deck
+   */
+  static List<Card> parse(byte[] bytes) throws IOException {
+    List<Card> cards = new ArrayList<>();
+    int pos = 0;
+    while (true) {
+      pos = skipBlankLines(bytes, pos);
+      if (pos == bytes.length) {
+        return List.copyOf(cards);
+      }
+      int end = lineEnd(bytes, pos);
+      int nameEnd = indexOf(bytes, pos, end, (byte) ' ');
+      int costEnd = indexOf(bytes, nameEnd + 1, end, (byte) ' ');
+      if (nameEnd == end || costEnd == end) {
+        throw new IOException("Error reading config file");
+      }
+      String name = new String(bytes, pos, nameEnd - pos, StandardCharsets.UTF_8);
+      int cost = parseInt(bytes, nameEnd + 1, costEnd);
+      int value = parseInt(bytes, costEnd + 1, trimEnd(bytes, costEnd + 1, end));
+      pos = nextLine(bytes, end);
+
+      boolean[][] influence = new boolean[GRID][GRID];
+      for (int row = 0; row < GRID; row++) {
+        if (pos == bytes.length) {
+          throw new IOException("Error reading config file");
+        }
+        end = lineEnd(bytes, pos);
+        for (int col = 0; col < GRID && pos + col < end; col++) {
+          influence[row][col] = bytes[pos + col] == 'I';
+        }
+        pos = nextLine(bytes, end);
+      }
+      cards.add(new Card(name, cost, value, influence));
+    }
+  }
+
+  private static int skipBlankLines(byte[] bytes, int pos) {
+    while (pos < bytes.length && (bytes[pos] == '\n' || bytes[pos] == '\r')) {
+      pos++;
+    }
+    return pos;
+  }
+
+  private static int lineEnd(byte[] bytes, int pos) {
+    while (pos < bytes.length && bytes[pos] != '\n') {
+      pos++;
+    }
+    return pos;
+  }
+
+  private static int nextLine(byte[] bytes, int end) {
+    return end < bytes.length ? end + 1 : end;
+  }
+
+  private static int trimEnd(byte[] bytes, int start, int end) {
+    while (end > start && (bytes[end - 1] == '\r' || bytes[end - 1] == ' ')) {
+      end--;
+    }
+    return end;
+  }
+
+  private static int indexOf(byte[] bytes, int from, int end, byte target) {
+    while (from < end && bytes[from] != target) {
+      from++;
+    }
+    return from;
+  }
+
+  private static int parseInt(byte[] bytes, int from, int end) throws IOException {
+    if (from >= end) {
+      throw new IOException("Error reading config file");
+    }
+    int result = 0;
+    boolean negative = bytes[from] == '-';
+    for (int i = negative ? from + 1 : from; i < end; i++) {
+      int digit = bytes[i] - '0';
+      if (digit < 0 || digit > 9) {
+        throw new IOException("Error reading config file");
+      }
+      result = result * 10 + digit;
+    }
+    return negative ? -result : result;
+  }
+}
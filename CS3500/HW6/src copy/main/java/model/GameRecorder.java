@@ -0,0 +1,304 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Records a game into a compact binary stream as it is played, for
+ * archiving and replaying with GameReplayer. Moves are made through the
+ * recorder, which makes them on the model and logs them.
+ *
+ * <p>A record starts with a header: magic, version, the deck seed, the
+ * deck identity (a hash of the cards and the deck file name), the number
+ * of cards in the deck, the board size, the checkpoint interval, and the
+ * order of each player's deck at the start, as indexes into the deck.
+ * Then come records, each starting with a tag byte:
+ * <ul>
+ *   <li>PASS: a pass, one byte;</li>
+ *   <li>MOVE: the card index in the hand, row and column, usually four
+ *       bytes;</li>
+ *   <li>CHECKPOINT: the length of the body, then the number of moves so
+ *       far, the player to move, each player's hand and deck size, and
+ *       every cell as a byte of pawns and owner followed by its card if it
+ *       has one;</li>
+ *   <li>GAME_OVER: the end of the game, one byte. Nothing may follow
+ *       it.</li>
+ * </ul>
+ * A checkpoint of the starting position follows the header, and another is
+ * written after every checkpoint interval moves. All numbers after the
+ * magic, version, seed and deck hash are unsigned varints; fixed-size
+ * fields are big-endian.
+ *
+ * <p>A record cut off by a crash is still readable up to its last
+ * complete move; it has no GAME_OVER, so it replays as an unfinished game.
+ */
+public final class GameRecorder implements Closeable {
+  static final int MAGIC = 0x53475243;
+  static final int VERSION = 1;
+  static final int PASS = 0;
+  static final int MOVE = 1;
+  static final int CHECKPOINT = 2;
+  static final int GAME_OVER = 3;
+  // Set in a checkpoint cell byte when a card index follows
+  static final int HAS_CARD = 0x10;
+
+  private final OutputStream out;
+  private final SanguineModel model;
+  private final IdentityHashMap<Card, Integer> cardIndexes = new IdentityHashMap<>();
+  private final int checkpointInterval;
+  private byte[] buffer = new byte[64];
+  private int length;
+  private int moves;
+  private boolean ended;
+
+  /**
+   * Starts recording a game from the model's current position and writes
+   * the header and the first checkpoint.
+   *
+   * @param out                where to write the record; closed by close
+   * @param model              the game, which must only be changed
+   *                           through this recorder from now on
+   * @param deck               the cards of the deck file, in file order;
+   *                           every card held by either player must be
+   *                           one of them
+   * @param deckName           the deck file name, stored with the record
+   * @param seed               the seed the deal was shuffled from
+   * @param checkpointInterval number of moves between checkpoints
+   * @throws IOException if writing fails
+   * @throws IllegalArgumentException if an argument is null or invalid, or
+   *                                  a player holds a card not in the deck
+   */
+  public GameRecorder(OutputStream out, SanguineModel model, List<Card> deck, String deckName,
+                      long seed, int checkpointInterval) throws IOException {
+    if (out == null || model == null || deck == null || deckName == null) {
+      throw new IllegalArgumentException("Arguments cannot be null");
+    }
+    if (checkpointInterval < 1) {
+      throw new IllegalArgumentException("Checkpoint interval must be positive");
+    }
+    this.out = out;
+    this.model = model;
+    this.checkpointInterval = checkpointInterval;
+    for (int i = 0; i < deck.size(); i++) {
+      cardIndexes.putIfAbsent(deck.get(i), i);
+    }
+
+    writeInt(MAGIC);
+    writeByte(VERSION);
+    writeLong(seed);
+    writeLong(deckId(deck, deckName));
+    byte[] name = deckName.getBytes(StandardCharsets.UTF_8);
+    writeVarint(name.length);
+    for (byte b : name) {
+      writeByte(b);
+    }
+    writeVarint(deck.size());
+    writeVarint(model.getNumRows());
+    writeVarint(model.getNumCols());
+    writeVarint(checkpointInterval);
+    writeCards(((Player) model.getRedPlayer()).getDeck());
+    writeCards(((Player) model.getBluePlayer()).getDeck());
+    flush();
+    writeCheckpoint();
+  }
+
+  /**
+   * Identifies a deck by its cards and file name, so a replayer can check
+   * it was given the deck the game was recorded with.
+   *
+   * @param deck     the cards, in file order
+   * @param deckName the deck file name
+   * @return a 64-bit FNV-1a hash of the deck
+   */
+  public static long deckId(List<Card> deck, String deckName) {
+    long hash = 0xcbf29ce484222325L;
+    hash = mix(hash, deckName.getBytes(StandardCharsets.UTF_8));
+    for (Card card : deck) {
+      hash = mix(hash, card.getName() == null ? new byte[0]
+          : card.getName().getBytes(StandardCharsets.UTF_8));
+      hash = mix(hash, card.getCost());
+      hash = mix(hash, card.getValue());
+      hash = mix(hash, card.getInfluenceMask());
+    }
+    return hash;
+  }
+
+  private static long mix(long hash, byte[] bytes) {
+    hash = mix(hash, bytes.length);
+    for (byte b : bytes) {
+      hash = (hash ^ (b & 0xFF)) * 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  private static long mix(long hash, int value) {
+    for (int shift = 24; shift >= 0; shift -= 8) {
+      hash = (hash ^ ((value >>> shift) & 0xFF)) * 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  /**
+   * Plays a card on the model and records the move.
+   *
+   * @param row       the row
+   * @param col       the column
+   * @param cardIndex index of the card in the current player's hand
+   * @throws IOException if writing fails
+   * @throws IllegalArgumentException if the move is not legal; nothing is
+   *                                  recorded
+   * @throws IllegalStateException if the game has ended
+   */
+  public void playCardFromHand(int row, int col, int cardIndex) throws IOException {
+    checkNotEnded();
+    model.playCardFromHand(row, col, cardIndex);
+    writeByte(MOVE);
+    writeVarint(cardIndex);
+    writeVarint(row);
+    writeVarint(col);
+    flush();
+    moved();
+  }
+
+  /**
+   * Passes on the model and records the pass.
+   *
+   * @throws IOException if writing fails
+   * @throws IllegalStateException if the game has ended
+   */
+  public void pass() throws IOException {
+    checkNotEnded();
+    model.pass();
+    writeByte(PASS);
+    flush();
+    moved();
+  }
+
+  /**
+   * Ends the game on the model and records that it is over. No moves can
+   * be recorded after this.
+   *
+   * @throws IOException if writing fails
+   * @throws IllegalStateException if the game has already ended
+   */
+  public void endGame() throws IOException {
+    checkNotEnded();
+    model.setGameOver(true);
+    writeByte(GAME_OVER);
+    flush();
+    ended = true;
+  }
+
+  /**
+   * Number of moves and passes recorded.
+   *
+   * @return the move count
+   */
+  public int getMoveCount() {
+    return moves;
+  }
+
+  @Override
+  public void close() throws IOException {
+    out.close();
+  }
+
+  private void checkNotEnded() {
+    if (ended) {
+      throw new IllegalStateException("Game is over");
+    }
+  }
+
+  private void moved() throws IOException {
+    moves++;
+    if (moves % checkpointInterval == 0) {
+      writeCheckpoint();
+    }
+  }
+
+  private void writeCheckpoint() throws IOException {
+    GameSnapshot snapshot = model.getSnapshot();
+    writeVarint(moves);
+    writeByte(snapshot.getCurrentPlayer() == snapshot.getBluePlayer() ? 1 : 0);
+    writePlayer(snapshot, snapshot.getRedPlayer());
+    writePlayer(snapshot, snapshot.getBluePlayer());
+    for (int row = 0; row < snapshot.getNumRows(); row++) {
+      for (int col = 0; col < snapshot.getNumCols(); col++) {
+        PlayerInterface<Card> owner = snapshot.getOwner(row, col);
+        Card card = snapshot.getCard(row, col);
+        int state = PackedCells.pack(snapshot.getNumPawns(row, col),
+            owner == null ? PackedCells.NO_OWNER
+                : owner == snapshot.getRedPlayer() ? PackedCells.RED : PackedCells.BLUE, 0);
+        if (card == null) {
+          writeByte(state);
+        } else {
+          writeByte(state | HAS_CARD);
+          writeVarint(indexOf(card));
+        }
+      }
+    }
+    // The body is built first so its length can go before it
+    byte[] body = Arrays.copyOf(buffer, length);
+    length = 0;
+    writeByte(CHECKPOINT);
+    writeVarint(body.length);
+    flush();
+    out.write(body);
+  }
+
+  private void writePlayer(GameSnapshot snapshot, PlayerInterface<Card> player) {
+    writeCards(snapshot.getHand(player));
+    writeVarint(player.getDeckSize());
+  }
+
+  private void writeCards(List<Card> cards) {
+    writeVarint(cards.size());
+    for (Card card : cards) {
+      writeVarint(indexOf(card));
+    }
+  }
+
+  private int indexOf(Card card) {
+    Integer index = cardIndexes.get(card);
+    if (index == null) {
+      throw new IllegalArgumentException("Card is not in the deck: " + card.getName());
+    }
+    return index;
+  }
+
+  private void writeByte(int value) {
+    if (length == buffer.length) {
+      buffer = Arrays.copyOf(buffer, length * 2);
+    }
+    buffer[length++] = (byte) value;
+  }
+
+  private void writeInt(int value) {
+    for (int shift = 24; shift >= 0; shift -= 8) {
+      writeByte(value >>> shift);
+    }
+  }
+
+  private void writeLong(long value) {
+    writeInt((int) (value >>> 32));
+    writeInt((int) value);
+  }
+
+  private void writeVarint(int value) {
+    while ((value & ~0x7F) != 0) {
+      writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    writeByte(value);
+  }
+
+  private void flush() throws IOException {
+    out.write(buffer, 0, length);
+    length = 0;
+  }
+}
@@ -0,0 +1,309 @@
+package model;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Replays a game recorded by GameRecorder. Opening a record scans it once
+ * to find its checkpoints; seeking to a move then restores the nearest
+ * checkpoint at or before it and plays only the moves after that, so any
+ * position costs at most one checkpoint interval of moves to reach.
+ *
+ * <p>A replayer only reads the record, so it can be shared between
+ * threads; each seek builds a new model.
+ */
+public final class GameReplayer {
+  private final ByteBuffer record;
+  private final List<Card> deck;
+  private final long seed;
+  private final String deckName;
+  private final int rows;
+  private final int cols;
+  private final int[][] deckOrders = new int[2][];
+  private int moveCount;
+  private boolean gameOver;
+  // Move number and body offset of each checkpoint, in move order
+  private int[] checkpointMoves = new int[8];
+  private int[] checkpointOffsets = new int[8];
+  private int checkpoints;
+
+  private GameReplayer(ByteBuffer record, List<Card> deck) throws IOException {
+    this.record = record.duplicate().order(ByteOrder.BIG_ENDIAN);
+    this.deck = List.copyOf(deck);
+    ByteBuffer in = this.record.duplicate();
+    try {
+      if (in.getInt() != GameRecorder.MAGIC || in.get() != GameRecorder.VERSION) {
+        throw new IOException("Not a game record");
+      }
+      seed = in.getLong();
+      long deckId = in.getLong();
+      byte[] name = new byte[readVarint(in)];
+      in.get(name);
+      deckName = new String(name, StandardCharsets.UTF_8);
+      if (readVarint(in) != deck.size()
+          || deckId != GameRecorder.deckId(deck, deckName)) {
+        throw new IllegalArgumentException("Game was recorded with a different deck: "
+            + deckName);
+      }
+      rows = readVarint(in);
+      cols = readVarint(in);
+      readVarint(in);
+      deckOrders[0] = readCards(in);
+      deckOrders[1] = readCards(in);
+    } catch (BufferUnderflowException e) {
+      throw new IOException("Not a game record");
+    }
+    scan(in);
+    if (checkpoints == 0 || checkpointMoves[0] != 0) {
+      throw new IOException("Game record has no starting position");
+    }
+  }
+
+  /**
+   * Maps a record file.
+   *
+   * @param path the file
+   * @param deck the cards of the deck file the game was recorded with
+   * @return the replayer
+   * @throws IOException if the file cannot be read or is not a game record
+   * @throws IllegalArgumentException if the game was recorded with another
+   *                                  deck
+   */
+  public static GameReplayer open(Path path, List<Card> deck) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Not a game record: " + path);
+      }
+      // The mapping stays valid after the channel is closed
+      return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), deck);
+    }
+  }
+
+  /**
+   * Reads a record from a buffer, from its position to its limit. The
+   * buffer must not be changed while the replayer is in use.
+   *
+   * @param record the record
+   * @param deck   the cards of the deck file the game was recorded with
+   * @return the replayer
+   * @throws IOException if the buffer does not hold a game record
+   * @throws IllegalArgumentException if the game was recorded with another
+   *                                  deck
+   */
+  public static GameReplayer read(ByteBuffer record, List<Card> deck) throws IOException {
+    if (record == null || deck == null) {
+      throw new IllegalArgumentException("Record and deck cannot be null");
+    }
+    return new GameReplayer(record.slice(), deck);
+  }
+
+  /**
+   * Finds the checkpoints and counts the moves, stopping at the end of the
+   * game or at a record cut off part way.
+   */
+  private void scan(ByteBuffer in) throws IOException {
+    while (in.hasRemaining() && !gameOver) {
+      int start = in.position();
+      try {
+        int tag = in.get();
+        if (tag == GameRecorder.PASS) {
+          moveCount++;
+        } else if (tag == GameRecorder.MOVE) {
+          readVarint(in);
+          readVarint(in);
+          readVarint(in);
+          moveCount++;
+        } else if (tag == GameRecorder.CHECKPOINT) {
+          int length = readVarint(in);
+          int body = in.position();
+          in.position(body + length);
+          if (readVarint(record.duplicate().position(body)) != moveCount) {
+            throw new IOException("Game record checkpoint is out of place");
+          }
+          addCheckpoint(moveCount, body);
+        } else if (tag == GameRecorder.GAME_OVER) {
+          gameOver = true;
+        } else {
+          throw new IOException("Not a game record");
+        }
+      } catch (BufferUnderflowException | IllegalArgumentException e) {
+        // A record cut off part way; keep what came before it
+        in.position(start);
+        return;
+      }
+    }
+    if (in.hasRemaining()) {
+      throw new IOException("Game record continues after the end of the game");
+    }
+  }
+
+  private void addCheckpoint(int move, int offset) {
+    if (checkpoints == checkpointMoves.length) {
+      checkpointMoves = Arrays.copyOf(checkpointMoves, checkpoints * 2);
+      checkpointOffsets = Arrays.copyOf(checkpointOffsets, checkpoints * 2);
+    }
+    checkpointMoves[checkpoints] = move;
+    checkpointOffsets[checkpoints] = offset;
+    checkpoints++;
+  }
+
+  /**
+   * Number of moves and passes in the record.
+   *
+   * @return the move count
+   */
+  public int getMoveCount() {
+    return moveCount;
+  }
+
+  /**
+   * Whether the record ends with the end of the game, rather than being
+   * unfinished or cut off.
+   *
+   * @return true if the game was recorded to its end
+   */
+  public boolean isGameOver() {
+    return gameOver;
+  }
+
+  /**
+   * Gets the seed the deal was shuffled from.
+   *
+   * @return the seed
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Gets the name of the deck file the game was played with.
+   *
+   * @return the deck file name
+   */
+  public String getDeckName() {
+    return deckName;
+  }
+
+  /**
+   * Builds the game as it was after a number of moves.
+   *
+   * @param move number of moves and passes to play, from 0 for the
+   *             starting position to getMoveCount for the end
+   * @return a new model holding the position, with its own players; it is
+   *         over if the move is the last of a finished game
+   * @throws IllegalArgumentException if the move is out of range
+   * @throws IllegalStateException if the record does not replay
+   */
+  public SanguineModel seek(int move) {
+    if (move < 0 || move > moveCount) {
+      throw new IllegalArgumentException("Invalid move number: " + move);
+    }
+    int checkpoint = Arrays.binarySearch(checkpointMoves, 0, checkpoints, move);
+    if (checkpoint < 0) {
+      checkpoint = -checkpoint - 2;
+    }
+    ByteBuffer in = record.duplicate().position(checkpointOffsets[checkpoint]);
+    SanguineModel model = restore(in);
+    try {
+      for (int played = checkpointMoves[checkpoint]; played < move; ) {
+        int tag = in.get();
+        if (tag == GameRecorder.PASS) {
+          model.pass();
+          played++;
+        } else if (tag == GameRecorder.MOVE) {
+          int cardIndex = readVarint(in);
+          int row = readVarint(in);
+          model.playCardFromHand(row, readVarint(in), cardIndex);
+          played++;
+        } else {
+          in.position(in.position() + readVarint(in));
+        }
+      }
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException("Recorded move is not legal", e);
+    }
+    if (gameOver && move == moveCount) {
+      model.setGameOver(true);
+    }
+    return model;
+  }
+
+  /**
+   * Builds a model from the checkpoint body at the buffer's position,
+   * leaving the buffer after the body.
+   */
+  private SanguineModel restore(ByteBuffer in) {
+    readVarint(in);
+    boolean blueToMove = in.get() == 1;
+    Player red = readPlayer(in, Color.RED, deckOrders[0]);
+    Player blue = readPlayer(in, Color.BLUE, deckOrders[1]);
+    int[] cells = new int[rows * cols];
+    Card[] cards = new Card[rows * cols];
+    for (int i = 0; i < cells.length; i++) {
+      int state = in.get();
+      cells[i] = state & ~GameRecorder.HAS_CARD;
+      if ((state & GameRecorder.HAS_CARD) != 0) {
+        cards[i] = card(readVarint(in));
+      }
+    }
+    SanguineModel model = new SanguineModel(red, blue, rows, cols);
+    model.restorePosition(cells, cards, blueToMove);
+    return model;
+  }
+
+  private Player readPlayer(ByteBuffer in, Color color, int[] deckOrder) {
+    int[] hand = readCards(in);
+    int deckSize = readVarint(in);
+    if (deckSize > deckOrder.length) {
+      throw new IllegalStateException("Game record deck is larger than the deal");
+    }
+    List<Card> handCards = new ArrayList<>(hand.length);
+    for (int index : hand) {
+      handCards.add(card(index));
+    }
+    // Cards are drawn from the front, so the rest of the deck is the end of
+    // its starting order
+    List<Card> deckCards = new ArrayList<>(deckSize);
+    for (int i = deckOrder.length - deckSize; i < deckOrder.length; i++) {
+      deckCards.add(card(deckOrder[i]));
+    }
+    return new Player(color, handCards, deckCards);
+  }
+
+  private Card card(int index) {
+    if (index >= deck.size()) {
+      throw new IllegalStateException("Game record refers to a card not in the deck");
+    }
+    return deck.get(index);
+  }
+
+  private static int[] readCards(ByteBuffer in) {
+    int[] cards = new int[readVarint(in)];
+    for (int i = 0; i < cards.length; i++) {
+      cards[i] = readVarint(in);
+    }
+    return cards;
+  }
+
+  private static int readVarint(ByteBuffer in) {
+    int value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      int b = in.get();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Malformed varint");
+  }
+}
@@ -0,0 +1,275 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable picture of a game taken after a move, for views and other
+ * threads to read while the model keeps changing. The model publishes a
+ * new snapshot through a volatile reference after every move, and a
+ * reader that holds on to one snapshot sees one consistent position.
+ *
+ * <p>A snapshot is made of immutable rows. Publishing after a move only
+ * builds the rows the move changed and shares the rest with the previous
+ * snapshot, so it costs time proportional to the number of rows touched
+ * and the number of rows, not to the size of the board.
+ */
+public final class GameSnapshot {
+  private final PlayerInterface<Card> red;
+  private final PlayerInterface<Card> blue;
+  private final PlayerInterface<Card> current;
+  private final Row[] rows;
+  private final int cols;
+  private final List<Card> redHand;
+  private final List<Card> blueHand;
+  private final int redScore;
+  private final int blueScore;
+  private final boolean gameOver;
+  private final long version;
+
+  /**
+   * One row of the board. Cells are in the PackedCells format without a
+   * slot; the card of each cell is kept alongside.
+   */
+  static final class Row {
+    private final int[] cells;
+    private final Card[] cards;
+    private final int redScore;
+    private final int blueScore;
+
+    Row(int[] cells, Card[] cards, int redScore, int blueScore) {
+      this.cells = cells;
+      this.cards = cards;
+      this.redScore = redScore;
+      this.blueScore = blueScore;
+    }
+  }
+
+  GameSnapshot(PlayerInterface<Card> red, PlayerInterface<Card> blue,
+               PlayerInterface<Card> current, Row[] rows, int cols, int redScore,
+               int blueScore, boolean gameOver, long version) {
+    this.red = red;
+    this.blue = blue;
+    this.current = current;
+    this.rows = rows;
+    this.cols = cols;
+    this.redHand = handOf(red);
+    this.blueHand = handOf(blue);
+    this.redScore = redScore;
+    this.blueScore = blueScore;
+    this.gameOver = gameOver;
+    this.version = version;
+  }
+
+  /**
+   * Takes a full snapshot of any model by reading it through the
+   * interface. Models that publish their own snapshots share rows between
+   * them instead.
+   *
+   * @param model the model
+   * @return the snapshot
+   */
+  public static GameSnapshot of(SanguineModelInterface<Card, Cell<Card>> model) {
+    PlayerInterface<Card> red = model.getRedPlayer();
+    PlayerInterface<Card> blue = model.getBluePlayer();
+    int cols = model.getNumCols();
+    Row[] rows = new Row[model.getNumRows()];
+    for (int row = 0; row < rows.length; row++) {
+      int[] cells = new int[cols];
+      Card[] cards = new Card[cols];
+      for (int col = 0; col < cols; col++) {
+        Cell<Card> cell = model.getCellAt(row, col);
+        PlayerInterface<Card> owner = cell.getOwner();
+        cells[col] = PackedCells.pack(cell.getNumPawns(),
+            owner == red ? PackedCells.RED : owner == blue ? PackedCells.BLUE
+                : PackedCells.NO_OWNER, 0);
+        cards[col] = cell.getCard();
+      }
+      rows[row] = new Row(cells, cards, model.getRowScore(red, row),
+          model.getRowScore(blue, row));
+    }
+    return new GameSnapshot(red, blue, model.getCurrentPlayer(), rows, cols,
+        model.getPlayerScore(red), model.getPlayerScore(blue), model.isGameOver(), 0);
+  }
+
+  private static List<Card> handOf(PlayerInterface<Card> player) {
+    List<Card> hand = player == null ? null : player.getHand();
+    return hand == null ? Collections.emptyList()
+        : Collections.unmodifiableList(new ArrayList<>(hand));
+  }
+
+  /**
+   * The rows, for the model to build the next snapshot from.
+   */
+  Row[] rows() {
+    return rows;
+  }
+
+  /**
+   * Checks whether a row is shared with another snapshot of the same game,
+   * which means it has not changed between them. Rows that are not shared
+   * may still hold the same cells.
+   *
+   * @param other the other snapshot, or null
+   * @param row   the row
+   * @return true if both snapshots hold the same row
+   */
+  public boolean sharesRow(GameSnapshot other, int row) {
+    return other != null && row < other.rows.length && rows[row] == other.rows[row];
+  }
+
+  /**
+   * Gets the number of rows.
+   *
+   * @return the number of rows
+   */
+  public int getNumRows() {
+    return rows.length;
+  }
+
+  /**
+   * Gets the number of columns.
+   *
+   * @return the number of columns
+   */
+  public int getNumCols() {
+    return cols;
+  }
+
+  /**
+   * Gets the card in a cell.
+   *
+   * @param row the row
+   * @param col the column
+   * @return the card, or null if there is none
+   */
+  public Card getCard(int row, int col) {
+    return rows[row].cards[col];
+  }
+
+  /**
+   * Gets the owner of a cell.
+   *
+   * @param row the row
+   * @param col the column
+   * @return the owner, or null if the cell has none
+   */
+  public PlayerInterface<Card> getOwner(int row, int col) {
+    int owner = PackedCells.owner(rows[row].cells[col]);
+    return owner == PackedCells.RED ? red : owner == PackedCells.BLUE ? blue : null;
+  }
+
+  /**
+   * Gets the number of pawns in a cell.
+   *
+   * @param row the row
+   * @param col the column
+   * @return the number of pawns
+   */
+  public int getNumPawns(int row, int col) {
+    return PackedCells.pawns(rows[row].cells[col]);
+  }
+
+  /**
+   * Checks whether a cell has neither a card nor pawns.
+   *
+   * @param row the row
+   * @param col the column
+   * @return true if the cell is empty
+   */
+  public boolean isEmpty(int row, int col) {
+    return rows[row].cards[col] == null && getNumPawns(row, col) == 0;
+  }
+
+  /**
+   * Gets a player's score in a row.
+   *
+   * @param player the player
+   * @param row    the row
+   * @return the total value of the player's cards in the row
+   */
+  public int getRowScore(PlayerInterface<Card> player, int row) {
+    if (player == red) {
+      return rows[row].redScore;
+    } else if (player == blue) {
+      return rows[row].blueScore;
+    }
+    return 0;
+  }
+
+  /**
+   * Gets a player's total score.
+   *
+   * @param player the player
+   * @return the score
+   */
+  public int getPlayerScore(PlayerInterface<Card> player) {
+    return player == red ? redScore : player == blue ? blueScore : 0;
+  }
+
+  /**
+   * Gets a player's hand as it was when the snapshot was taken.
+   *
+   * @param player the player
+   * @return the hand, unmodifiable
+   */
+  public List<Card> getHand(PlayerInterface<Card> player) {
+    return player == red ? redHand : player == blue ? blueHand : Collections.emptyList();
+  }
+
+  /**
+   * Gets the hand of the player to move.
+   *
+   * @return the hand, unmodifiable
+   */
+  public List<Card> getCurrentPlayerHand() {
+    return getHand(current);
+  }
+
+  /**
+   * Gets the player to move.
+   *
+   * @return the current player
+   */
+  public PlayerInterface<Card> getCurrentPlayer() {
+    return current;
+  }
+
+  /**
+   * Gets the red player.
+   *
+   * @return the red player
+   */
+  public PlayerInterface<Card> getRedPlayer() {
+    return red;
+  }
+
+  /**
+   * Gets the blue player.
+   *
+   * @return the blue player
+   */
+  public PlayerInterface<Card> getBluePlayer() {
+    return blue;
+  }
+
+  /**
+   * Checks whether the game was over.
+   *
+   * @return true if the game was over
+   */
+  public boolean isGameOver() {
+    return gameOver;
+  }
+
+  /**
+   * Gets the number of snapshots the model published before this one, so
+   * readers can tell whether anything changed since they last looked.
+   *
+   * @return the version
+   */
+  public long getVersion() {
+    return version;
+  }
+}
@@ -0,0 +1,505 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable Sanguine position that moves are explored from without
+ * copying the board. A root state holds the whole board; a child state made
+ * by play or pass only holds the cells, row score and hand that changed and
+ * reads everything else through its parent, so spawning a child costs time
+ * proportional to the number of cells the move changes.
+ *
+ * <p>States are never modified after they are built, so any number of
+ * threads can read one state and spawn children from it without locking.
+ * When a chain of children gets long, the next child is built as a new root
+ * so that reads stay fast.
+ *
+ * <p>Cells are stored in the PackedCells format, with slot 1 marking a cell
+ * that holds a card.
+ */
+public final class GameState {
+  private static final int MAX_CHAIN = 32;
+  private static final int CARD_SLOT = 1;
+
+  private final Game game;
+  private final GameState parent;
+  private final int chain;
+  // Board: the whole board in a root, sorted changed board indexes in a child
+  private final int[] indexes;
+  private final int[] cells;
+  private final Card[] cards;
+  // Row scores: all of them in a root (owner - 1) * rows + row, or the one
+  // changed entry in a child (-1 if none)
+  private final int[] rowScores;
+  private final int scoreKey;
+  private final int scoreValue;
+  private final int[] playerScores;
+  private final int[] ownedCells;
+  private final Card[][] hands;
+  private final int[] deckPositions;
+  private final int current;
+  private final int passes;
+
+  /**
+   * What stays the same for every state of one game.
+   */
+  private static final class Game {
+    private final int rows;
+    private final int cols;
+    private final PlayerInterface<Card> red;
+    private final PlayerInterface<Card> blue;
+    private final List<List<Card>> decks;
+    private final InfluenceTable influence;
+
+    private Game(int rows, int cols, PlayerInterface<Card> red, PlayerInterface<Card> blue,
+                 List<List<Card>> decks) {
+      this.rows = rows;
+      this.cols = cols;
+      this.red = red;
+      this.blue = blue;
+      this.decks = decks;
+      this.influence = InfluenceTable.forBoard(rows, cols);
+    }
+  }
+
+  private GameState(Game game, GameState parent, int chain, int[] indexes, int[] cells,
+                    Card[] cards, int[] rowScores, int scoreKey, int scoreValue,
+                    int[] playerScores, int[] ownedCells, Card[][] hands, int[] deckPositions,
+                    int current, int passes) {
+    this.game = game;
+    this.parent = parent;
+    this.chain = chain;
+    this.indexes = indexes;
+    this.cells = cells;
+    this.cards = cards;
+    this.rowScores = rowScores;
+    this.scoreKey = scoreKey;
+    this.scoreValue = scoreValue;
+    this.playerScores = playerScores;
+    this.ownedCells = ownedCells;
+    this.hands = hands;
+    this.deckPositions = deckPositions;
+    this.current = current;
+    this.passes = passes;
+  }
+
+  /**
+   * Captures the current position of a model as a root state. Decks are
+   * only captured for players of type Player; other players get empty decks.
+   *
+   * @param model the model
+   * @return the root state
+   */
+  public static GameState of(SanguineModelInterface<Card, Cell<Card>> model) {
+    int rows = model.getNumRows();
+    int cols = model.getNumCols();
+    PlayerInterface<Card> red = model.getRedPlayer();
+    PlayerInterface<Card> blue = model.getBluePlayer();
+    List<List<Card>> decks = List.of(deckOf(red), deckOf(blue));
+    Game game = new Game(rows, cols, red, blue, decks);
+
+    int[] cells = new int[rows * cols];
+    Card[] cards = new Card[rows * cols];
+    for (int row = 0; row < rows; row++) {
+      for (int col = 0; col < cols; col++) {
+        Cell<Card> cell = model.getCellAt(row, col);
+        int owner = cell.getOwner() == red ? PackedCells.RED
+            : cell.getOwner() == blue ? PackedCells.BLUE : PackedCells.NO_OWNER;
+        int index = row * cols + col;
+        cards[index] = cell.getCard();
+        cells[index] = PackedCells.pack(cell.getNumPawns(), owner,
+            cell.getCard() == null ? 0 : CARD_SLOT);
+      }
+    }
+    Card[][] hands = {handOf(red), handOf(blue)};
+    int current = model.getCurrentPlayer() == blue ? PackedCells.BLUE : PackedCells.RED;
+    GameState root = new GameState(game, null, 0, null, cells, cards, null, -1, 0,
+        new int[2], new int[2], hands, new int[2], current, 0);
+    return root.withTotals();
+  }
+
+  private static List<Card> deckOf(PlayerInterface<Card> player) {
+    if (player instanceof Player) {
+      return List.copyOf(((Player) player).getDeck());
+    }
+    return List.of();
+  }
+
+  private static Card[] handOf(PlayerInterface<Card> player) {
+    List<Card> hand = player.getHand();
+    return hand == null ? new Card[0] : hand.toArray(new Card[0]);
+  }
+
+  /**
+   * Builds a root state with the same position as this state, with its
+   * scores and cell counts counted from the board.
+   */
+  private GameState withTotals() {
+    int size = game.rows * game.cols;
+    int[] allCells = new int[size];
+    Card[] allCards = new Card[size];
+    int[] scores = new int[2 * game.rows];
+    int[] totals = new int[2];
+    int[] owned = new int[2];
+    for (int index = 0; index < size; index++) {
+      int cell = cell(index);
+      allCells[index] = cell;
+      allCards[index] = card(index);
+      int owner = PackedCells.owner(cell) - 1;
+      if (owner >= 0 && !PackedCells.isEmpty(cell)) {
+        owned[owner]++;
+        if (allCards[index] != null) {
+          scores[owner * game.rows + index / game.cols] += allCards[index].getValue();
+          totals[owner] += allCards[index].getValue();
+        }
+      }
+    }
+    return new GameState(game, null, 0, null, allCells, allCards, scores, -1, 0, totals,
+        owned, hands, deckPositions, current, passes);
+  }
+
+  private int cell(int index) {
+    for (GameState state = this; ; state = state.parent) {
+      if (state.parent == null) {
+        return state.cells[index];
+      }
+      int found = Arrays.binarySearch(state.indexes, index);
+      if (found >= 0) {
+        return state.cells[found];
+      }
+    }
+  }
+
+  private Card card(int index) {
+    for (GameState state = this; ; state = state.parent) {
+      if (state.parent == null) {
+        return state.cards[index];
+      }
+      int found = Arrays.binarySearch(state.indexes, index);
+      if (found >= 0) {
+        return state.cards[found];
+      }
+    }
+  }
+
+  private int checkIndex(int row, int col) {
+    if (row < 0 || row >= game.rows || col < 0 || col >= game.cols) {
+      throw new IllegalArgumentException("Invalid coordinates");
+    }
+    return row * game.cols + col;
+  }
+
+  private int code(PlayerInterface<Card> player) {
+    if (player == game.red) {
+      return PackedCells.RED;
+    } else if (player == game.blue) {
+      return PackedCells.BLUE;
+    }
+    throw new IllegalArgumentException("Player is not part of this game");
+  }
+
+  private PlayerInterface<Card> player(int code) {
+    if (code == PackedCells.RED) {
+      return game.red;
+    } else if (code == PackedCells.BLUE) {
+      return game.blue;
+    }
+    return null;
+  }
+
+  /**
+   * Gets the number of rows.
+   *
+   * @return number of rows
+   */
+  public int getNumRows() {
+    return game.rows;
+  }
+
+  /**
+   * Gets the number of columns.
+   *
+   * @return number of columns
+   */
+  public int getNumCols() {
+    return game.cols;
+  }
+
+  /**
+   * Gets the number of pawns in a cell.
+   *
+   * @param row the row index
+   * @param col the column index
+   * @return the number of pawns
+   * @throws IllegalArgumentException if coordinates are out of bounds
+   */
+  public int getPawns(int row, int col) {
+    return PackedCells.pawns(cell(checkIndex(row, col)));
+  }
+
+  /**
+   * Gets the owner of a cell.
+   *
+   * @param row the row index
+   * @param col the column index
+   * @return the owner, or null if the cell is empty
+   * @throws IllegalArgumentException if coordinates are out of bounds
+   */
+  public PlayerInterface<Card> getOwner(int row, int col) {
+    return player(PackedCells.owner(cell(checkIndex(row, col))));
+  }
+
+  /**
+   * Gets the card in a cell.
+   *
+   * @param row the row index
+   * @param col the column index
+   * @return the card, or null if there is none
+   * @throws IllegalArgumentException if coordinates are out of bounds
+   */
+  public Card getCard(int row, int col) {
+    return card(checkIndex(row, col));
+  }
+
+  /**
+   * Gets a player's score in a row.
+   *
+   * @param player the player
+   * @param row    the row index
+   * @return the total value of the player's cards in the row
+   * @throws IllegalArgumentException if the player is not in this game
+   */
+  public int getRowScore(PlayerInterface<Card> player, int row) {
+    if (row < 0 || row >= game.rows) {
+      return 0;
+    }
+    int key = (code(player) - 1) * game.rows + row;
+    for (GameState state = this; ; state = state.parent) {
+      if (state.parent == null) {
+        return state.rowScores[key];
+      }
+      if (state.scoreKey == key) {
+        return state.scoreValue;
+      }
+    }
+  }
+
+  /**
+   * Gets a player's total score.
+   *
+   * @param player the player
+   * @return the total value of the player's cards on the board
+   * @throws IllegalArgumentException if the player is not in this game
+   */
+  public int getPlayerScore(PlayerInterface<Card> player) {
+    return playerScores[code(player) - 1];
+  }
+
+  /**
+   * Gets the number of cells a player owns, with or without a card.
+   *
+   * @param player the player
+   * @return the number of cells owned
+   * @throws IllegalArgumentException if the player is not in this game
+   */
+  public int getOwnedCellCount(PlayerInterface<Card> player) {
+    return ownedCells[code(player) - 1];
+  }
+
+  /**
+   * Gets a player's hand.
+   *
+   * @param player the player
+   * @return an unmodifiable list of the cards in the hand
+   * @throws IllegalArgumentException if the player is not in this game
+   */
+  public List<Card> getHand(PlayerInterface<Card> player) {
+    return Collections.unmodifiableList(Arrays.asList(hands[code(player) - 1]));
+  }
+
+  /**
+   * Gets the number of cards left in a player's deck.
+   *
+   * @param player the player
+   * @return the number of cards left to draw
+   * @throws IllegalArgumentException if the player is not in this game
+   */
+  public int getDeckSize(PlayerInterface<Card> player) {
+    int owner = code(player) - 1;
+    return game.decks.get(owner).size() - deckPositions[owner];
+  }
+
+  /**
+   * Gets the player to move.
+   *
+   * @return the current player
+   */
+  public PlayerInterface<Card> getCurrentPlayer() {
+    return player(current);
+  }
+
+  /**
+   * Gets the red player.
+   *
+   * @return the red player
+   */
+  public PlayerInterface<Card> getRedPlayer() {
+    return game.red;
+  }
+
+  /**
+   * Gets the blue player.
+   *
+   * @return the blue player
+   */
+  public PlayerInterface<Card> getBluePlayer() {
+    return game.blue;
+  }
+
+  /**
+   * Checks if both players passed in a row, which ends the game.
+   *
+   * @return true if the game is over
+   */
+  public boolean isGameOver() {
+    return passes >= 2;
+  }
+
+  /**
+   * Checks if the current player can play a card from hand at a position.
+   *
+   * @param row       the row index
+   * @param col       the column index
+   * @param cardIndex the index of the card in the current player's hand
+   * @return true if the move is legal
+   */
+  public boolean isLegalMove(int row, int col, int cardIndex) {
+    Card[] hand = hands[current - 1];
+    if (cardIndex < 0 || cardIndex >= hand.length
+        || row < 0 || row >= game.rows || col < 0 || col >= game.cols) {
+      return false;
+    }
+    int cell = cell(row * game.cols + col);
+    return !PackedCells.isEmpty(cell) && PackedCells.owner(cell) == current
+        && PackedCells.pawns(cell) >= hand[cardIndex].getCost();
+  }
+
+  /**
+   * Creates the state after the current player plays a card from hand and
+   * draws a new card if the deck is not empty. This state is not changed.
+   *
+   * @param row       the row index
+   * @param col       the column index
+   * @param cardIndex the index of the card in the current player's hand
+   * @return the new state
+   * @throws IllegalArgumentException if the move is not legal
+   */
+  public GameState play(int row, int col, int cardIndex) {
+    if (!isLegalMove(row, col, cardIndex)) {
+      throw new IllegalArgumentException("Invalid card placement");
+    }
+    int mover = current - 1;
+    Card card = hands[mover][cardIndex];
+    int placed = row * game.cols + col;
+    int[] targets = game.influence.targets(card, row, col);
+    int[] changedIndexes = new int[targets.length + 1];
+    int[] changedCells = new int[targets.length + 1];
+    Card[] changedCards = new Card[targets.length + 1];
+    int[] owned = ownedCells.clone();
+
+    int count = 0;
+    int placedCell = PackedCells.pack(0, current, CARD_SLOT);
+    changedIndexes[count] = placed;
+    changedCells[count] = placedCell;
+    changedCards[count] = card;
+    count++;
+    countOwned(owned, cell(placed), -1);
+    countOwned(owned, placedCell, 1);
+    for (int target : targets) {
+      if (target == placed) {
+        // The placed cell now holds a card, which influence leaves alone
+        continue;
+      }
+      int before = cell(target);
+      int after = PackedCells.influence(before, current);
+      if (after != before) {
+        changedIndexes[count] = target;
+        changedCells[count] = after;
+        count++;
+        countOwned(owned, before, -1);
+        countOwned(owned, after, 1);
+      }
+    }
+    sortChanges(changedIndexes, changedCells, changedCards, count);
+
+    int[] totals = playerScores.clone();
+    totals[mover] += card.getValue();
+    int scoreKey = mover * game.rows + row;
+    int scoreValue = getRowScore(player(current), row) + card.getValue();
+
+    Card[][] newHands = hands.clone();
+    int[] positions = deckPositions;
+    List<Card> deck = game.decks.get(mover);
+    Card[] hand = newHands[mover];
+    boolean draws = deckPositions[mover] < deck.size();
+    Card[] newHand = new Card[hand.length - (draws ? 0 : 1)];
+    System.arraycopy(hand, 0, newHand, 0, cardIndex);
+    System.arraycopy(hand, cardIndex + 1, newHand, cardIndex, hand.length - cardIndex - 1);
+    if (draws) {
+      newHand[newHand.length - 1] = deck.get(deckPositions[mover]);
+      positions = deckPositions.clone();
+      positions[mover]++;
+    }
+    newHands[mover] = newHand;
+
+    GameState child = new GameState(game, this, chain + 1,
+        Arrays.copyOf(changedIndexes, count), Arrays.copyOf(changedCells, count),
+        Arrays.copyOf(changedCards, count), null, scoreKey, scoreValue, totals, owned,
+        newHands, positions, PackedCells.opponent(current), 0);
+    return child.chain >= MAX_CHAIN ? child.withTotals() : child;
+  }
+
+  /**
+   * Creates the state after the current player passes. This state is not
+   * changed.
+   *
+   * @return the new state
+   */
+  public GameState pass() {
+    GameState child = new GameState(game, this, chain + 1, new int[0], new int[0],
+        new Card[0], null, -1, 0, playerScores, ownedCells, hands, deckPositions,
+        PackedCells.opponent(current), passes + 1);
+    return child.chain >= MAX_CHAIN ? child.withTotals() : child;
+  }
+
+  private static void countOwned(int[] owned, int cell, int sign) {
+    int owner = PackedCells.owner(cell) - 1;
+    if (owner >= 0 && !PackedCells.isEmpty(cell)) {
+      owned[owner] += sign;
+    }
+  }
+
+  /**
+   * Insertion sort of the changed cells by board index; moves change few
+   * cells.
+   */
+  private static void sortChanges(int[] indexes, int[] cells, Card[] cards, int count) {
+    for (int i = 1; i < count; i++) {
+      int index = indexes[i];
+      int cell = cells[i];
+      Card card = cards[i];
+      int j = i - 1;
+      while (j >= 0 && indexes[j] > index) {
+        indexes[j + 1] = indexes[j];
+        cells[j + 1] = cells[j];
+        cards[j + 1] = cards[j];
+        j--;
+      }
+      indexes[j + 1] = index;
+      cells[j + 1] = cell;
+      cards[j + 1] = card;
+    }
+  }
+}
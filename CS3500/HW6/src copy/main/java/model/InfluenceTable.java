@@ -0,0 +1,91 @@
+package model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cells influenced by a card placed at each position of a board of one size,
+ * clipped to the board. Lists are built the first time an influence pattern
+ * is used and shared by every model and strategy using the same board size.
+ */
+public final class InfluenceTable {
+  private static final ConcurrentHashMap<Long, InfluenceTable> TABLES =
+      new ConcurrentHashMap<>();
+
+  private final int rows;
+  private final int cols;
+  // Influence mask -> board index -> influenced board indexes
+  private final ConcurrentHashMap<Integer, int[][]> targets = new ConcurrentHashMap<>();
+
+  private InfluenceTable(int rows, int cols) {
+    this.rows = rows;
+    this.cols = cols;
+  }
+
+  /**
+   * Gets the shared table for a board size.
+   *
+   * @param rows number of rows
+   * @param cols number of columns
+   * @return the table
+   * @throws IllegalArgumentException if a dimension is negative
+   */
+  public static InfluenceTable forBoard(int rows, int cols) {
+    if (rows < 0 || cols < 0) {
+      throw new IllegalArgumentException("Invalid board size");
+    }
+    return TABLES.computeIfAbsent(((long) rows << 32) | cols,
+        key -> new InfluenceTable(rows, cols));
+  }
+
+  /**
+   * Checks whether this table is for a board of the given size.
+   *
+   * @param rows number of rows
+   * @param cols number of columns
+   * @return true if the size matches
+   */
+  public boolean fits(int rows, int cols) {
+    return this.rows == rows && this.cols == cols;
+  }
+
+  /**
+   * Board indexes (row * cols + col) a card placed at a position
+   * influences, in the order of its influence grid. The card's own cell is
+   * included if the card influences it. The array is shared and must not be
+   * modified.
+   *
+   * @param card the card
+   * @param row  the row the card is placed in
+   * @param col  the column the card is placed in
+   * @return the influenced board indexes
+   */
+  public int[] targets(Card card, int row, int col) {
+    int[][] byCell = targets.get(card.getInfluenceMask());
+    if (byCell == null) {
+      byCell = targets.computeIfAbsent(card.getInfluenceMask(),
+          mask -> compile(card.getInfluenceOffsets()));
+    }
+    return byCell[row * cols + col];
+  }
+
+  private int[][] compile(int[] offsets) {
+    int[][] byCell = new int[rows * cols][];
+    int[] buffer = new int[offsets.length];
+    for (int row = 0; row < rows; row++) {
+      for (int col = 0; col < cols; col++) {
+        int count = 0;
+        for (int offset : offsets) {
+          int r = row + offset / 5 - 2;
+          int c = col + offset % 5 - 2;
+          if (r >= 0 && c >= 0 && r < rows && c < cols) {
+            buffer[count++] = r * cols + c;
+          }
+        }
+        int[] clipped = new int[count];
+        System.arraycopy(buffer, 0, clipped, 0, count);
+        byCell[row * cols + col] = clipped;
+      }
+    }
+    return byCell;
+  }
+}
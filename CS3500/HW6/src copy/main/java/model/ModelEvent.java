@@ -0,0 +1,372 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A change to a Sanguine game, sent to model listeners in a batch after
+ * each move. The concrete events are the nested classes; check getType to
+ * tell them apart.
+ */
+public abstract class ModelEvent {
+
+  /**
+   * The kinds of event.
+   */
+  public enum Type {
+    CELLS_CHANGED, CARD_PLACED, ROW_SCORE_CHANGED, TURN_CHANGED, GAME_OVER
+  }
+
+  private final Type type;
+
+  private ModelEvent(Type type) {
+    this.type = type;
+  }
+
+  /**
+   * Gets the kind of event.
+   *
+   * @return the type
+   */
+  public Type getType() {
+    return type;
+  }
+
+  /**
+   * The pawns or owner of a cell changed.
+   */
+  public static final class CellChange {
+    private final int row;
+    private final int col;
+    private final int pawnsBefore;
+    private final int pawnsAfter;
+    private final PlayerInterface<Card> ownerBefore;
+    private final PlayerInterface<Card> ownerAfter;
+
+    CellChange(int row, int col, int pawnsBefore, int pawnsAfter,
+               PlayerInterface<Card> ownerBefore, PlayerInterface<Card> ownerAfter) {
+      this.row = row;
+      this.col = col;
+      this.pawnsBefore = pawnsBefore;
+      this.pawnsAfter = pawnsAfter;
+      this.ownerBefore = ownerBefore;
+      this.ownerAfter = ownerAfter;
+    }
+
+    /**
+     * Gets the row of the cell.
+     *
+     * @return the row
+     */
+    public int getRow() {
+      return row;
+    }
+
+    /**
+     * Gets the column of the cell.
+     *
+     * @return the column
+     */
+    public int getCol() {
+      return col;
+    }
+
+    /**
+     * Gets the pawns before the change.
+     *
+     * @return the number of pawns
+     */
+    public int getPawnsBefore() {
+      return pawnsBefore;
+    }
+
+    /**
+     * Gets the pawns after the change.
+     *
+     * @return the number of pawns
+     */
+    public int getPawnsAfter() {
+      return pawnsAfter;
+    }
+
+    /**
+     * Gets the owner before the change.
+     *
+     * @return the owner, or null if there was none
+     */
+    public PlayerInterface<Card> getOwnerBefore() {
+      return ownerBefore;
+    }
+
+    /**
+     * Gets the owner after the change.
+     *
+     * @return the owner, or null if there is none
+     */
+    public PlayerInterface<Card> getOwnerAfter() {
+      return ownerAfter;
+    }
+  }
+
+  /**
+   * Cells changed pawns or owner, including the cell a card was placed on.
+   */
+  public static final class CellsChanged extends ModelEvent {
+    private final List<CellChange> changes;
+
+    CellsChanged(List<CellChange> changes) {
+      super(Type.CELLS_CHANGED);
+      this.changes = Collections.unmodifiableList(changes);
+    }
+
+    /**
+     * Gets the changed cells in board order.
+     *
+     * @return the changes
+     */
+    public List<CellChange> getChanges() {
+      return changes;
+    }
+  }
+
+  /**
+   * A card was placed on the board.
+   */
+  public static final class CardPlaced extends ModelEvent {
+    private final int row;
+    private final int col;
+    private final Card card;
+    private final PlayerInterface<Card> player;
+
+    CardPlaced(int row, int col, Card card, PlayerInterface<Card> player) {
+      super(Type.CARD_PLACED);
+      this.row = row;
+      this.col = col;
+      this.card = card;
+      this.player = player;
+    }
+
+    /**
+     * Gets the row the card was placed in.
+     *
+     * @return the row
+     */
+    public int getRow() {
+      return row;
+    }
+
+    /**
+     * Gets the column the card was placed in.
+     *
+     * @return the column
+     */
+    public int getCol() {
+      return col;
+    }
+
+    /**
+     * Gets the card.
+     *
+     * @return the card
+     */
+    public Card getCard() {
+      return card;
+    }
+
+    /**
+     * Gets the player who owns the card.
+     *
+     * @return the player
+     */
+    public PlayerInterface<Card> getPlayer() {
+      return player;
+    }
+  }
+
+  /**
+   * A player's score in a row changed.
+   */
+  public static final class RowScoreChanged extends ModelEvent {
+    private final int row;
+    private final PlayerInterface<Card> player;
+    private final int before;
+    private final int after;
+
+    RowScoreChanged(int row, PlayerInterface<Card> player, int before, int after) {
+      super(Type.ROW_SCORE_CHANGED);
+      this.row = row;
+      this.player = player;
+      this.before = before;
+      this.after = after;
+    }
+
+    /**
+     * Gets the row.
+     *
+     * @return the row
+     */
+    public int getRow() {
+      return row;
+    }
+
+    /**
+     * Gets the player whose score changed.
+     *
+     * @return the player
+     */
+    public PlayerInterface<Card> getPlayer() {
+      return player;
+    }
+
+    /**
+     * Gets the score before the change.
+     *
+     * @return the score
+     */
+    public int getBefore() {
+      return before;
+    }
+
+    /**
+     * Gets the score after the change.
+     *
+     * @return the score
+     */
+    public int getAfter() {
+      return after;
+    }
+  }
+
+  /**
+   * The player to move changed.
+   */
+  public static final class TurnChanged extends ModelEvent {
+    private final PlayerInterface<Card> previous;
+    private final PlayerInterface<Card> current;
+
+    TurnChanged(PlayerInterface<Card> previous, PlayerInterface<Card> current) {
+      super(Type.TURN_CHANGED);
+      this.previous = previous;
+      this.current = current;
+    }
+
+    /**
+     * Gets the player who moved.
+     *
+     * @return the previous player
+     */
+    public PlayerInterface<Card> getPrevious() {
+      return previous;
+    }
+
+    /**
+     * Gets the player to move now.
+     *
+     * @return the current player
+     */
+    public PlayerInterface<Card> getCurrent() {
+      return current;
+    }
+  }
+
+  /**
+   * The game ended.
+   */
+  public static final class GameOver extends ModelEvent {
+    private final int redScore;
+    private final int blueScore;
+
+    GameOver(int redScore, int blueScore) {
+      super(Type.GAME_OVER);
+      this.redScore = redScore;
+      this.blueScore = blueScore;
+    }
+
+    /**
+     * Gets red's final score.
+     *
+     * @return the score
+     */
+    public int getRedScore() {
+      return redScore;
+    }
+
+    /**
+     * Gets blue's final score.
+     *
+     * @return the score
+     */
+    public int getBlueScore() {
+      return blueScore;
+    }
+  }
+
+  /**
+   * Works out the events that lead from one snapshot to the next. Rows the
+   * snapshots share are skipped. If the board changed size no cell events
+   * are produced.
+   *
+   * @param before the earlier snapshot, or null
+   * @param after  the later snapshot
+   * @return the events, in the order cells, cards, row scores, turn, game
+   *         over
+   */
+  static List<ModelEvent> between(GameSnapshot before, GameSnapshot after) {
+    List<ModelEvent> events = new ArrayList<>();
+    if (before == null) {
+      return events;
+    }
+    if (before.getNumRows() == after.getNumRows()
+        && before.getNumCols() == after.getNumCols()) {
+      List<CellChange> cells = new ArrayList<>();
+      List<ModelEvent> cards = new ArrayList<>();
+      List<ModelEvent> scores = new ArrayList<>();
+      PlayerInterface<Card> red = after.getRedPlayer();
+      PlayerInterface<Card> blue = after.getBluePlayer();
+      for (int row = 0; row < after.getNumRows(); row++) {
+        if (after.sharesRow(before, row)) {
+          continue;
+        }
+        for (int col = 0; col < after.getNumCols(); col++) {
+          PlayerInterface<Card> ownerBefore = before.getOwner(row, col);
+          PlayerInterface<Card> ownerAfter = after.getOwner(row, col);
+          int pawnsBefore = before.getNumPawns(row, col);
+          int pawnsAfter = after.getNumPawns(row, col);
+          Card card = after.getCard(row, col);
+          boolean placed = card != null && card != before.getCard(row, col);
+          if (placed || ownerBefore != ownerAfter || pawnsBefore != pawnsAfter) {
+            cells.add(new CellChange(row, col, pawnsBefore, pawnsAfter, ownerBefore, ownerAfter));
+          }
+          if (placed) {
+            cards.add(new CardPlaced(row, col, card, ownerAfter));
+          }
+        }
+        addScoreChange(scores, row, red, before.getRowScore(red, row),
+            after.getRowScore(red, row));
+        addScoreChange(scores, row, blue, before.getRowScore(blue, row),
+            after.getRowScore(blue, row));
+      }
+      if (!cells.isEmpty()) {
+        events.add(new CellsChanged(cells));
+      }
+      events.addAll(cards);
+      events.addAll(scores);
+    }
+    if (before.getCurrentPlayer() != after.getCurrentPlayer()) {
+      events.add(new TurnChanged(before.getCurrentPlayer(), after.getCurrentPlayer()));
+    }
+    if (!before.isGameOver() && after.isGameOver()) {
+      events.add(new GameOver(after.getPlayerScore(after.getRedPlayer()),
+          after.getPlayerScore(after.getBluePlayer())));
+    }
+    return events;
+  }
+
+  private static void addScoreChange(List<ModelEvent> scores, int row,
+                                     PlayerInterface<Card> player, int before, int after) {
+    if (before != after) {
+      scores.add(new RowScoreChanged(row, player, before, after));
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Receives the changes a Sanguine model makes. The model calls the
+ * listener once per move, on the thread that made the move, with every
+ * change the move made.
+ */
+public interface ModelListener {
+
+  /**
+   * Called after a move with the changes it made.
+   *
+   * @param events the changes, never empty
+   */
+  void modelChanged(List<ModelEvent> events);
+}
@@ -0,0 +1,90 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Undo journal shared by the Sanguine models.
+ * Holds a stack of ints (changed cells and move headers) and a stack of the
+ * cards played, so a model can revert its moves without copying the board.
+ */
+final class MoveJournal {
+  private int[] entries;
+  private int size;
+  private final List<Card> cards;
+
+  /**
+   * Creates an empty journal.
+   */
+  MoveJournal() {
+    this.entries = new int[64];
+    this.size = 0;
+    this.cards = new ArrayList<>();
+  }
+
+  /**
+   * Pushes a value onto the journal.
+   *
+   * @param value the value
+   */
+  void push(int value) {
+    if (size == entries.length) {
+      entries = Arrays.copyOf(entries, size * 2);
+    }
+    entries[size++] = value;
+  }
+
+  /**
+   * Removes and returns the last value pushed.
+   *
+   * @return the value
+   */
+  int pop() {
+    return entries[--size];
+  }
+
+  /**
+   * Pushes a played card onto the journal.
+   *
+   * @param card the card
+   */
+  void pushCard(Card card) {
+    cards.add(card);
+  }
+
+  /**
+   * Removes and returns the last card pushed.
+   *
+   * @return the card
+   */
+  Card popCard() {
+    return cards.remove(cards.size() - 1);
+  }
+
+  /**
+   * Number of values on the journal.
+   *
+   * @return the size
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Checks if there is nothing to undo.
+   *
+   * @return true if the journal is empty
+   */
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Discards every entry.
+   */
+  void clear() {
+    size = 0;
+    cards.clear();
+  }
+}
@@ -0,0 +1,61 @@
+package model;
+
+/**
+ * A Cell that reads and writes through to one entry of a PackedSanguineModel
+ * board, so callers that expect Cell objects keep working on a packed board.
+ */
+class PackedCell extends Cell<Card> {
+  private final PackedSanguineModel model;
+  private final int index;
+
+  /**
+   * Creates a view of one packed cell.
+   *
+   * @param model the model holding the packed board
+   * @param index board index (row * cols + col)
+   */
+  PackedCell(PackedSanguineModel model, int index) {
+    this.model = model;
+    this.index = index;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return PackedCells.isEmpty(model.cellAt(index));
+  }
+
+  @Override
+  public int getNumPawns() {
+    return PackedCells.pawns(model.cellAt(index));
+  }
+
+  @Override
+  public Card getCard() {
+    return model.cardAt(index);
+  }
+
+  @Override
+  public void updatePawns(int pawns) {
+    int cell = model.cellAt(index);
+    int slot = PackedCells.slot(cell);
+    int owner = pawns == 0 && slot == 0 ? PackedCells.NO_OWNER : PackedCells.owner(cell);
+    model.setCellAt(index, PackedCells.pack(pawns, owner, slot));
+  }
+
+  @Override
+  public void setCard(Card card) {
+    model.setCardAt(index, card);
+  }
+
+  @Override
+  public PlayerInterface<Card> getOwner() {
+    return model.player(PackedCells.owner(model.cellAt(index)));
+  }
+
+  @Override
+  public void setOwner(PlayerInterface<Card> owner) {
+    int cell = model.cellAt(index);
+    model.setCellAt(index, PackedCells.pack(PackedCells.pawns(cell),
+        model.cellOwnerCode(owner), PackedCells.slot(cell)));
+  }
+}
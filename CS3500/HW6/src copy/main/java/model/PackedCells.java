@@ -0,0 +1,120 @@
+package model;
+
+/**
+ * Helpers for the packed cell encoding used by PackedSanguineModel.
+ * A packed cell is a single int: bits 0-1 hold the pawn count, bits 2-3 hold
+ * the owner code and the remaining bits hold the card slot (0 means no card).
+ */
+public final class PackedCells {
+  /**
+   * Owner code for a cell with no owner.
+   */
+  public static final int NO_OWNER = 0;
+
+  /**
+   * Owner code for the red player.
+   */
+  public static final int RED = 1;
+
+  /**
+   * Owner code for the blue player.
+   */
+  public static final int BLUE = 2;
+
+  private static final int PAWN_MASK = 0x3;
+  private static final int OWNER_SHIFT = 2;
+  private static final int OWNER_MASK = 0x3;
+  private static final int SLOT_SHIFT = 4;
+
+  private PackedCells() {
+  }
+
+  /**
+   * Packs a cell into a single int.
+   *
+   * @param pawns number of pawns (0-3)
+   * @param owner owner code
+   * @param slot card slot, 0 for no card
+   * @return the packed cell
+   */
+  public static int pack(int pawns, int owner, int slot) {
+    return (pawns & PAWN_MASK) | ((owner & OWNER_MASK) << OWNER_SHIFT) | (slot << SLOT_SHIFT);
+  }
+
+  /**
+   * Number of pawns in a packed cell.
+   *
+   * @param cell packed cell
+   * @return number of pawns
+   */
+  public static int pawns(int cell) {
+    return cell & PAWN_MASK;
+  }
+
+  /**
+   * Owner code of a packed cell.
+   *
+   * @param cell packed cell
+   * @return owner code
+   */
+  public static int owner(int cell) {
+    return (cell >>> OWNER_SHIFT) & OWNER_MASK;
+  }
+
+  /**
+   * Card slot of a packed cell.
+   *
+   * @param cell packed cell
+   * @return card slot, 0 if the cell has no card
+   */
+  public static int slot(int cell) {
+    return cell >>> SLOT_SHIFT;
+  }
+
+  /**
+   * Checks if a packed cell has no pawns and no card.
+   *
+   * @param cell packed cell
+   * @return true if the cell is empty
+   */
+  public static boolean isEmpty(int cell) {
+    return (cell & ~(OWNER_MASK << OWNER_SHIFT)) == 0;
+  }
+
+  /**
+   * Gets the owner code of the other player.
+   *
+   * @param owner RED or BLUE
+   * @return the opposing owner code
+   */
+  public static int opponent(int owner) {
+    return owner == RED ? BLUE : RED;
+  }
+
+  /**
+   * Applies one point of influence from the given player to a packed cell.
+   * Empty cells gain a pawn, friendly pawns grow up to 3, a single enemy pawn
+   * is cancelled out and larger enemy stacks lose a pawn and change owner.
+   * Cells holding a card are not affected.
+   *
+   * @param cell packed cell
+   * @param mover owner code of the player applying influence
+   * @return the new packed cell
+   */
+  public static int influence(int cell, int mover) {
+    if (slot(cell) != 0) {
+      return cell;
+    }
+    int pawns = pawns(cell);
+    if (pawns == 0) {
+      return pack(1, mover, 0);
+    }
+    if (owner(cell) == mover) {
+      return pack(Math.min(3, pawns + 1), mover, 0);
+    }
+    if (pawns == 1) {
+      return 0;
+    }
+    return pack(pawns - 1, mover, 0);
+  }
+}
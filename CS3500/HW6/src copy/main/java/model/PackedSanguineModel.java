@@ -0,0 +1,700 @@
+package model;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * PackedSanguineModel class implements SanguineModelInterface.
+ * Stores the board as one int per cell (see PackedCells) instead of a grid of
+ * Cell objects, so copying and scanning the board touches a single int array.
+ * Cells handed out through getCellAt and getBoard are views onto that array.
+ * A cell holding a card has slot 1, and the card is kept in a table with one
+ * entry per board index.
+ */
+public class PackedSanguineModel implements SanguineModelInterface<Card, Cell<Card>> {
+  private static final int DREW = 1;
+  private static final int PASSED = 2;
+  private static final int CARD_SLOT = 1;
+  private int rows;
+  private int cols;
+  private InfluenceTable influence;
+  private int[] cells;
+  // The card at each board index; only meaningful where the cell's slot is set
+  private Card[] cards;
+  private Cell<Card>[][] views;
+  private final Player red;
+  private final Player blue;
+  private Player current;
+  private boolean gameOver;
+  private final MoveJournal journal;
+  private long boardKey;
+  // Indexed by owner code - 1 (red 0, blue 1)
+  private int[][] rowScores;
+  private int[] playerScores = new int[2];
+  private int[] ownedCells = new int[2];
+  private final List<ModelListener> listeners = new CopyOnWriteArrayList<>();
+  // What listeners last saw; only kept while there are listeners
+  private GameSnapshot notified;
+
+  /**
+   * Constructor for PackedSanguineModel.
+   *
+   * @param red  Red Player
+   * @param blue Blue Player
+   * @param rows Number of rows
+   * @param cols Number of columns
+   * @throws IllegalArgumentException if parameters are invalid
+   */
+  public PackedSanguineModel(Player red, Player blue, int rows, int cols)
+      throws IllegalArgumentException {
+    if (rows < 0 || cols < 0) {
+      throw new IllegalArgumentException("Invalid board size");
+    }
+    if (red == null || blue == null) {
+      throw new IllegalArgumentException("Invalid player");
+    }
+    this.red = red;
+    this.blue = blue;
+    this.current = red;
+    this.journal = new MoveJournal();
+    resetBoard(rows, cols);
+    gameOver = false;
+  }
+
+  /**
+   * Copy constructor. Copies the board state of another packed model.
+   * The players are shared with the original model.
+   *
+   * @param other the model to copy
+   */
+  public PackedSanguineModel(PackedSanguineModel other) {
+    this(other, other.red, other.blue);
+  }
+
+  private PackedSanguineModel(PackedSanguineModel other, Player red, Player blue) {
+    this.rows = other.rows;
+    this.cols = other.cols;
+    this.cells = other.cells.clone();
+    this.cards = other.cards.clone();
+    this.red = red;
+    this.blue = blue;
+    this.current = other.current == other.red ? red : blue;
+    this.gameOver = other.gameOver;
+    this.journal = new MoveJournal();
+    this.boardKey = other.boardKey;
+    this.rowScores = new int[][] {other.rowScores[0].clone(), other.rowScores[1].clone()};
+    this.playerScores = other.playerScores.clone();
+    this.ownedCells = other.ownedCells.clone();
+  }
+
+  private void resetBoard(int rows, int cols) {
+    this.rows = rows;
+    this.cols = cols;
+    this.cells = new int[rows * cols];
+    this.cards = new Card[rows * cols];
+    this.views = null;
+    journal.clear();
+    for (int i = 0; i < rows; i++) {
+      cells[i * cols] = PackedCells.pack(1, PackedCells.RED, 0);
+      cells[i * cols + cols - 1] = PackedCells.pack(1, PackedCells.BLUE, 0);
+    }
+    rehash();
+  }
+
+  @Override
+  public void start(int rows, int cols, Card[] blueHand, Card[] redHand)
+      throws IllegalArgumentException {
+    if (blueHand == null || redHand == null) {
+      throw new IllegalArgumentException("Invalid hand");
+    }
+    if (blueHand.length != 15 || redHand.length != 15) {
+      throw new IllegalArgumentException("Invalid hand size");
+    }
+    if (rows < 0 || cols < 0) {
+      throw new IllegalArgumentException("Invalid board size");
+    }
+    resetBoard(rows, cols);
+    gameOver = false;
+    notifyListeners();
+  }
+
+  @Override
+  public Cell<Card>[][] getBoard() {
+    if (views == null) {
+      views = newBoard(rows, cols);
+      for (int i = 0; i < rows; i++) {
+        for (int j = 0; j < cols; j++) {
+          views[i][j] = new PackedCell(this, i * cols + j);
+        }
+      }
+    }
+    return views;
+  }
+
+  @Override
+  public Cell<Card>[][] updateBoard(Cell<Card>[][] newBoard) {
+    int newRows = newBoard.length;
+    int newCols = newRows > 0 ? newBoard[0].length : 0;
+    int[] packed = new int[newRows * newCols];
+    Card[] newCards = new Card[packed.length];
+    for (int i = 0; i < newRows; i++) {
+      for (int j = 0; j < newCols; j++) {
+        Cell<Card> cell = newBoard[i][j];
+        newCards[i * newCols + j] = cell.getCard();
+        packed[i * newCols + j] = PackedCells.pack(cell.getNumPawns(),
+            cellOwnerCode(cell.getOwner()), cell.getCard() == null ? 0 : CARD_SLOT);
+      }
+    }
+    this.rows = newRows;
+    this.cols = newCols;
+    this.cells = packed;
+    this.cards = newCards;
+    this.views = null;
+    journal.clear();
+    rehash();
+    notifyListeners();
+    return getBoard();
+  }
+
+  @Override
+  public boolean isGameOver() {
+    return gameOver;
+  }
+
+  @Override
+  public void pass() {
+    applyPass();
+    // A committed move cannot be undone, so the journal need not keep it
+    journal.clear();
+    notifyListeners();
+  }
+
+  /**
+   * Switches the current player to the next player.
+   */
+  private void nextTurn() {
+    if (current == red) {
+      current = blue;
+    } else {
+      current = red;
+    }
+  }
+
+  @Override
+  public boolean isValidMove(int row, int col, Card card) {
+    if (row < 0 || row >= rows || col < 0 || col >= cols) {
+      return false;
+    }
+    int cell = cells[row * cols + col];
+    if (PackedCells.isEmpty(cell) || PackedCells.owner(cell) != ownerCode(current)) {
+      return false;
+    }
+    return PackedCells.pawns(cell) >= card.getCost();
+  }
+
+  @Override
+  public void setGameOver(boolean over) {
+    this.gameOver = over;
+    notifyListeners();
+  }
+
+  @Override
+  public void placeCard(int row, int col, Card card) {
+    checkPlacement(row, col, card);
+    journal.clear();
+    place(row, col, card, false);
+    notifyListeners();
+  }
+
+  private void checkPlacement(int row, int col, Card card) {
+    if (card == null) {
+      throw new IllegalArgumentException("Invalid card");
+    }
+    if (row < 0 || row >= rows || col < 0 || col >= cols) {
+      throw new IllegalArgumentException("Invalid card placement");
+    }
+    int cell = cells[row * cols + col];
+    if (PackedCells.isEmpty(cell) || PackedCells.owner(cell) != ownerCode(current)) {
+      throw new IllegalArgumentException("Invalid card placement");
+    }
+    if (PackedCells.pawns(cell) < card.getCost()) {
+      throw new IllegalArgumentException("Insufficient pawns");
+    }
+  }
+
+  private void place(int row, int col, Card card, boolean record) {
+    int mover = ownerCode(current);
+    int index = row * cols + col;
+    if (record) {
+      journal.push(index);
+      journal.push(cells[index]);
+    }
+    cards[index] = card;
+    write(index, PackedCells.pack(0, mover, CARD_SLOT));
+    applyInfluence(row, col, card, mover, record);
+    nextTurn();
+  }
+
+  private void applyInfluence(int row, int col, Card card, int mover, boolean record) {
+    if (influence == null || !influence.fits(rows, cols)) {
+      influence = InfluenceTable.forBoard(rows, cols);
+    }
+    for (int index : influence.targets(card, row, col)) {
+      int updated = PackedCells.influence(cells[index], mover);
+      if (updated != cells[index]) {
+        if (record) {
+          journal.push(index);
+          journal.push(cells[index]);
+        }
+        write(index, updated);
+      }
+    }
+  }
+
+  @Override
+  public int calculateRowScore(Cell<Card>[] row) {
+    int score = 0;
+    for (Cell<Card> c : row) {
+      if (c.getCard() != null && c.getOwner() == current) {
+        score += c.getCard().getValue();
+      }
+    }
+    return score;
+  }
+
+  @Override
+  public int getNumRows() {
+    return rows;
+  }
+
+  @Override
+  public int getNumCols() {
+    return rows > 0 ? cols : 0;
+  }
+
+  @Override
+  public Cell<Card> getCellAt(int row, int col) {
+    if (row < 0 || row >= rows || col < 0 || col >= cols) {
+      throw new IllegalArgumentException("Invalid coordinates");
+    }
+    return getBoard()[row][col];
+  }
+
+  /**
+   * Gets the packed form of the cell at the specified coordinates.
+   *
+   * @param row the row index
+   * @param col the column index
+   * @return the packed cell, decoded with PackedCells
+   * @throws IllegalArgumentException if coordinates are out of bounds
+   */
+  public int getPackedCell(int row, int col) {
+    if (row < 0 || row >= rows || col < 0 || col >= cols) {
+      throw new IllegalArgumentException("Invalid coordinates");
+    }
+    return cells[row * cols + col];
+  }
+
+  @Override
+  public List<Card> getCurrentPlayerHand() {
+    return current.getHand();
+  }
+
+  @Override
+  public List<Card> getPlayerHand(PlayerInterface<Card> player) {
+    if (player == null) {
+      throw new IllegalArgumentException("Player cannot be null");
+    }
+    return player.getHand();
+  }
+
+  @Override
+  public PlayerInterface<Card> getCellOwner(int row, int col) {
+    if (row < 0 || row >= rows || col < 0 || col >= cols) {
+      return null;
+    }
+    return player(PackedCells.owner(cells[row * cols + col]));
+  }
+
+  @Override
+  public boolean isLegalMove(int row, int col, Card card) {
+    return isValidMove(row, col, card);
+  }
+
+  @Override
+  public boolean isLegalMove(int row, int col, int cardIndex) {
+    List<Card> hand = current.getHand();
+    if (cardIndex < 0 || cardIndex >= hand.size()) {
+      return false;
+    }
+    return isValidMove(row, col, hand.get(cardIndex));
+  }
+
+  @Override
+  public int getRowScore(PlayerInterface<Card> player, int rowIndex) {
+    if (rowIndex < 0 || rowIndex >= rows) {
+      return 0;
+    }
+    int code = ownerCode(player);
+    return code == PackedCells.NO_OWNER ? 0 : rowScores[code - 1][rowIndex];
+  }
+
+  @Override
+  public int getPlayerScore(PlayerInterface<Card> player) {
+    int code = ownerCode(player);
+    return code == PackedCells.NO_OWNER ? 0 : playerScores[code - 1];
+  }
+
+  @Override
+  public int collectPlayableCells(PlayerInterface<Card> player, int cost, int[] cells) {
+    int code = ownerCode(player);
+    int minPawns = Math.max(1, cost);
+    int count = 0;
+    for (int index = 0; index < this.cells.length; index++) {
+      int cell = this.cells[index];
+      if (PackedCells.owner(cell) == code && code != PackedCells.NO_OWNER
+          && PackedCells.slot(cell) == 0 && PackedCells.pawns(cell) >= minPawns) {
+        cells[count++] = index;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public int getOwnedCellCount(PlayerInterface<Card> player) {
+    int code = ownerCode(player);
+    return code == PackedCells.NO_OWNER ? 0 : ownedCells[code - 1];
+  }
+
+  @Override
+  public PlayerInterface<Card> getWinner() {
+    if (!isGameOver()) {
+      return null;
+    }
+    int redScore = playerScores[PackedCells.RED - 1];
+    int blueScore = playerScores[PackedCells.BLUE - 1];
+    if (redScore > blueScore) {
+      return typed(red);
+    } else if (blueScore > redScore) {
+      return typed(blue);
+    }
+    return null; // Tie
+  }
+
+  @Override
+  public PlayerInterface<Card> getCurrentPlayer() {
+    return typed(current);
+  }
+
+  @Override
+  public PlayerInterface<Card> getRedPlayer() {
+    return typed(red);
+  }
+
+  @Override
+  public PlayerInterface<Card> getBluePlayer() {
+    return typed(blue);
+  }
+
+  @Override
+  public Cell<Card>[][] copyBoard() {
+    Cell<Card>[][] copy = newBoard(rows, cols);
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < cols; j++) {
+        int cell = cells[i * cols + j];
+        Cell<Card> newCell = new Cell<Card>();
+        newCell.updatePawns(PackedCells.pawns(cell));
+        if (PackedCells.slot(cell) != 0) {
+          newCell.setCard(cards[i * cols + j]);
+        }
+        if (PackedCells.owner(cell) != PackedCells.NO_OWNER) {
+          newCell.setOwner(player(PackedCells.owner(cell)));
+        }
+        copy[i][j] = newCell;
+      }
+    }
+    return copy;
+  }
+
+  @Override
+  public long getPositionKey() {
+    long key = boardKey
+        ^ ZobristKeys.handKey(red.getHand(), PackedCells.RED)
+        ^ ZobristKeys.handKey(blue.getHand(), PackedCells.BLUE);
+    if (current == blue) {
+      key ^= ZobristKeys.BLUE_TO_MOVE;
+    }
+    return key;
+  }
+
+  /**
+   * Packed models are meant for search, so rather than publishing a
+   * snapshot after every move this builds a full one when asked. Call it
+   * from the thread that changes the model.
+   *
+   * @return a snapshot of the current position
+   */
+  @Override
+  public GameSnapshot getSnapshot() {
+    return GameSnapshot.of(this);
+  }
+
+  @Override
+  public void addModelListener(ModelListener listener) {
+    if (listener == null) {
+      throw new IllegalArgumentException("Listener cannot be null");
+    }
+    if (listeners.isEmpty()) {
+      notified = GameSnapshot.of(this);
+    }
+    listeners.add(listener);
+  }
+
+  @Override
+  public void removeModelListener(ModelListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Tells listeners what changed since they were last told, by comparing
+   * full snapshots. Does nothing when there are no listeners.
+   */
+  private void notifyListeners() {
+    if (listeners.isEmpty()) {
+      return;
+    }
+    GameSnapshot now = GameSnapshot.of(this);
+    List<ModelEvent> events = ModelEvent.between(notified, now);
+    notified = now;
+    if (!events.isEmpty()) {
+      for (ModelListener listener : listeners) {
+        listener.modelChanged(events);
+      }
+    }
+  }
+
+  @Override
+  public PackedSanguineModel copyModel() {
+    return new PackedSanguineModel(this, new Player(red), new Player(blue));
+  }
+
+  @Override
+  public void playCardFromHand(int row, int col, int cardIndex) {
+    applyMove(row, col, cardIndex);
+    journal.clear();
+    notifyListeners();
+  }
+
+  @Override
+  public void applyMove(int row, int col, int cardIndex) {
+    List<Card> hand = current.getHand();
+    if (cardIndex < 0 || cardIndex >= hand.size()) {
+      throw new IllegalArgumentException("Invalid card index");
+    }
+    Card card = hand.get(cardIndex);
+    checkPlacement(row, col, card);
+    Player mover = current;
+    int start = journal.size();
+    mover.playCard(cardIndex);
+    place(row, col, card, true);
+    // Try to draw a new card
+    boolean drew;
+    try {
+      mover.drawNewCard();
+      drew = true;
+    } catch (IllegalStateException e) {
+      // Deck is empty, no card to draw - this is fine
+      drew = false;
+    }
+    journal.push((journal.size() - start) / 2);
+    journal.push(cardIndex);
+    journal.push(drew ? DREW : 0);
+    journal.pushCard(card);
+  }
+
+  @Override
+  public void applyPass() {
+    nextTurn();
+    journal.push(0);
+    journal.push(-1);
+    journal.push(PASSED);
+  }
+
+  @Override
+  public void undoMove() {
+    if (journal.isEmpty()) {
+      throw new IllegalStateException("No move to undo");
+    }
+    int flags = journal.pop();
+    int cardIndex = journal.pop();
+    int changed = journal.pop();
+    nextTurn();
+    if ((flags & PASSED) != 0) {
+      return;
+    }
+    for (int i = 0; i < changed; i++) {
+      int cell = journal.pop();
+      write(journal.pop(), cell);
+    }
+    if ((flags & DREW) != 0) {
+      current.undrawCard();
+    }
+    current.returnCard(cardIndex, journal.popCard());
+  }
+
+  /**
+   * Gets the raw packed cell at a board index (row * cols + col).
+   *
+   * @param index board index
+   * @return packed cell
+   */
+  int cellAt(int index) {
+    return cells[index];
+  }
+
+  /**
+   * Replaces the raw packed cell at a board index.
+   *
+   * @param index board index
+   * @param cell new packed cell
+   */
+  void setCellAt(int index, int cell) {
+    write(index, cell);
+  }
+
+  /**
+   * Writes a packed cell, keeping the board key up to date.
+   */
+  private void write(int index, int cell) {
+    boardKey ^= cellKey(index, cells[index]) ^ cellKey(index, cell);
+    count(index, cells[index], -1);
+    count(index, cell, 1);
+    cells[index] = cell;
+  }
+
+  /**
+   * Recomputes the board key, scores and cell counts from scratch.
+   */
+  private void rehash() {
+    boardKey = 0;
+    rowScores = new int[2][rows];
+    playerScores = new int[2];
+    ownedCells = new int[2];
+    for (int index = 0; index < cells.length; index++) {
+      boardKey ^= cellKey(index, cells[index]);
+      count(index, cells[index], 1);
+    }
+  }
+
+  /**
+   * Adds (sign 1) or removes (sign -1) a cell's card value and ownership
+   * from the score and cell count totals.
+   */
+  private void count(int index, int cell, int sign) {
+    int owner = PackedCells.owner(cell) - 1;
+    if (owner < 0 || PackedCells.isEmpty(cell)) {
+      return;
+    }
+    ownedCells[owner] += sign;
+    if (PackedCells.slot(cell) != 0) {
+      int value = sign * cards[index].getValue();
+      rowScores[owner][index / cols] += value;
+      playerScores[owner] += value;
+    }
+  }
+
+  private long cellKey(int index, int cell) {
+    long key = ZobristKeys.cellKey(index, PackedCells.owner(cell), PackedCells.pawns(cell));
+    if (PackedCells.slot(cell) != 0) {
+      key ^= ZobristKeys.cardKey(index, cards[index]);
+    }
+    return key;
+  }
+
+  /**
+   * Gets the card at a board index.
+   *
+   * @param index board index (row * cols + col)
+   * @return the card, or null if the cell holds none
+   */
+  Card cardAt(int index) {
+    return PackedCells.slot(cells[index]) == 0 ? null : cards[index];
+  }
+
+  /**
+   * Replaces the card at a board index, keeping its pawns and owner.
+   *
+   * @param index board index
+   * @param card  the card, or null to remove it
+   */
+  void setCardAt(int index, Card card) {
+    int cell = cells[index];
+    int pawns = PackedCells.pawns(cell);
+    int owner = PackedCells.owner(cell);
+    // Take the old card out of the totals before its entry is replaced
+    write(index, PackedCells.pack(pawns, owner, 0));
+    cards[index] = card;
+    if (card != null) {
+      write(index, PackedCells.pack(pawns, owner, CARD_SLOT));
+    }
+  }
+
+  /**
+   * Converts a player into its packed owner code. A player who is not part
+   * of this game owns nothing, so it gets the no-owner code.
+   *
+   * @param owner the player, may be null
+   * @return owner code
+   */
+  int ownerCode(PlayerInterface<?> owner) {
+    if (owner == red) {
+      return PackedCells.RED;
+    } else if (owner == blue) {
+      return PackedCells.BLUE;
+    }
+    return PackedCells.NO_OWNER;
+  }
+
+  /**
+   * Converts the owner of a cell being written into its packed owner code.
+   *
+   * @param owner the player, may be null
+   * @return owner code
+   * @throws IllegalArgumentException if the player is not part of this game
+   */
+  int cellOwnerCode(PlayerInterface<Card> owner) {
+    int code = ownerCode(owner);
+    if (owner != null && code == PackedCells.NO_OWNER) {
+      throw new IllegalArgumentException("Player is not part of this game");
+    }
+    return code;
+  }
+
+  // Java cannot create an array of a generic type; the array only ever
+  // holds Cell<Card>, so the unchecked cast is safe
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Cell<Card>[][] newBoard(int rows, int cols) {
+    return (Cell<Card>[][]) new Cell[rows][cols];
+  }
+
+  /**
+   * Converts a packed owner code into its player.
+   *
+   * @param code owner code
+   * @return the player, or null for no owner
+   */
+  PlayerInterface<Card> player(int code) {
+    if (code == PackedCells.RED) {
+      return typed(red);
+    } else if (code == PackedCells.BLUE) {
+      return typed(blue);
+    }
+    return null;
+  }
+
+  // Player implements the raw PlayerInterface, but only ever holds Cards
+  @SuppressWarnings("unchecked")
+  private static PlayerInterface<Card> typed(Player player) {
+    return player;
+  }
+}
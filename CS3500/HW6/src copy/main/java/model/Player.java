@@ -1,13 +1,13 @@
 package model;
 
 import java.awt.Color;
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Random;
 
 /**
  * Represents a player in the Sanguine game.
@@ -27,18 +27,66 @@ public class Player implements PlayerInterface {
    * @throws IllegalStateException if deck is invalid
    */
   public Player(Color color, String fileName) throws IllegalStateException {
+    this(color, fileName, new Random());
+  }
+
+  /**
+   * Constructs a Player with a color and deck file, shuffling the deck
+   * with the given seed so games can be repeated.
+   *
+   * @param color the player's color
+   * @param fileName the deck file name
+   * @param seed the shuffle seed
+   * @throws IllegalStateException if deck is invalid
+   */
+  public Player(Color color, String fileName, long seed) throws IllegalStateException {
+    this(color, fileName, new Random(seed));
+  }
+
+  private Player(Color color, String fileName, Random random) throws IllegalStateException {
     this.color = color;
     this.fileName = fileName;
+    List<Card> cards;
     try {
-      this.deck = createDeck();
+      cards = readDeck(fileName);
     } catch (IOException e) {
       throw new IllegalStateException(e);
     }
-    if (this.deck.size() != 15) {
+    if (cards.size() != 15) {
       throw new IllegalStateException("Invalid deck size");
     }
+    // The parsed cards are shared; only the order is this player's own
+    int[] order = DeckLoader.shuffledOrder(cards.size(), random);
+    this.deck = new ArrayList<>(cards.size());
+    for (int index : order) {
+      deck.add(cards.get(index));
+    }
     this.hand = createHand(deck);
+  }
 
+  /**
+   * Constructs a Player with a given hand and deck instead of a deck file.
+   * The deck is drawn from front to back.
+   *
+   * @param color the player's color
+   * @param hand the starting hand
+   * @param deck the remaining deck
+   */
+  public Player(Color color, List<Card> hand, List<Card> deck) {
+    this.color = color;
+    this.hand = new ArrayList<>(hand);
+    this.deck = new ArrayList<>(deck);
+  }
+
+  /**
+   * Constructs a copy of another player with its own hand and deck lists.
+   *
+   * @param other the player to copy
+   */
+  public Player(Player other) {
+    this(other.getPlayerColor(),
+        other.getHand() == null ? new ArrayList<>() : other.getHand(),
+        other.deck == null ? new ArrayList<>() : other.deck);
   }
 
   /**
@@ -70,31 +118,17 @@ public class Player implements PlayerInterface {
     return hand;
   }
 
-  private List<Card> createDeck() throws IOException {
-    List<Card> deck = new ArrayList<>();
-    String filePath = "docs" + File.separator + this.fileName;
-    File config = new File(filePath);
-    if (config.exists()) {
-      try {
-        Scanner sc = new Scanner(config);
-        while (sc.hasNextLine()) {
-          String[] nameCostValues =  sc.nextLine().split(" ");
-          boolean[][] influence = new boolean[5][5];
-          for (int row = 0; row < 5; row++) {
-            influence[row] = convertConfig(sc.nextLine());
-          }
-          deck.add(new Card(nameCostValues[0],
-              Integer.parseInt(nameCostValues[1]),
-              Integer.parseInt(nameCostValues[2]), influence));
-        }
-      } catch (Exception e) {
-        throw new IOException("Error reading config file");
-      }
-    } else {
-      throw new IllegalArgumentException("Deck File Not Found");
-    }
-    Collections.shuffle(deck);
-    return deck;
+  /**
+   * Reads the cards of a deck file in the docs directory, in file order.
+   * The file is parsed once and cached until it changes.
+   *
+   * @param fileName the deck file name
+   * @return the cards, an unmodifiable list shared with other readers
+   * @throws IOException if the file cannot be read or parsed
+   * @throws IllegalArgumentException if the file does not exist
+   */
+  public static List<Card> readDeck(String fileName) throws IOException {
+    return DeckLoader.load(Paths.get("docs", fileName));
   }
 
   private List<Card> createHand(List<Card> deck) throws IllegalArgumentException {
@@ -110,25 +144,60 @@ public class Player implements PlayerInterface {
 
   @Override
   public Card playCard(int card) throws IllegalArgumentException {
-    if (card < 0 || card > 5) {
+    if (card < 0 || card >= hand.size()) {
       throw new IllegalArgumentException("Invalid Card Number");
     }
     return hand.remove(card);
   }
 
-  private boolean[] convertConfig(String row) {
-    boolean[] influenceRow = new boolean[5];
-    String[] values = row.split("");
-    for (int value = 0; value < values.length; value++) {
-      if (values[value].equals("X")) {
-        influenceRow[value] = false;
-      } else if (values[value].equals("I")) {
-        influenceRow[value] = true;
-      } else if (values[value].equals("C")) {
-        influenceRow[value] = false; // figure out how display
-      }
+  /**
+   * Puts a played card back into the hand, reversing playCard.
+   *
+   * @param index position the card was played from
+   * @param card the card to return
+   */
+  public void returnCard(int index, Card card) {
+    hand.add(index, card);
+  }
+
+  /**
+   * Puts the most recently drawn card back on top of the deck,
+   * reversing drawNewCard.
+   *
+   * @throws IllegalStateException if the hand is empty
+   */
+  public void undrawCard() throws IllegalStateException {
+    if (hand.isEmpty()) {
+      throw new IllegalStateException("Hand is Empty");
     }
-    return influenceRow;
+    deck.addFirst(hand.removeLast());
+  }
+
+  @Override
+  public int getDeckSize() {
+    return deck == null ? 0 : deck.size();
+  }
+
+  /**
+   * Cards left in the deck, in drawing order. The list is the player's own
+   * and must not be modified.
+   *
+   * @return the deck
+   */
+  List<Card> getDeck() {
+    return deck == null ? Collections.emptyList() : deck;
+  }
+
+  /**
+   * Replaces the hand and deck, for example with a guess of the cards an
+   * opponent is holding.
+   *
+   * @param hand the new hand
+   * @param deck the new deck, drawn from front to back
+   */
+  public void replaceCards(List<Card> hand, List<Card> deck) {
+    this.hand = new ArrayList<>(hand);
+    this.deck = new ArrayList<>(deck);
   }
 
 }
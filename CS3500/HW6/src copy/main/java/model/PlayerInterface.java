@@ -38,4 +38,11 @@ public interface PlayerInterface<C extends CardInterface> {
    */
   public C playCard(int card);
 
+  /**
+   * Gets the number of cards left to draw.
+   *
+   * @return the deck size
+   */
+  public int getDeckSize();
+
 }
@@ -0,0 +1,64 @@
+package model;
+
+/**
+ * A Cell that reads through to one cell of a SanguineModel board and
+ * refuses changes, so callers of getCellAt cannot change the board behind
+ * the model's back. Changes go through the model's moves, or getBoard.
+ */
+class ReadOnlyCell extends Cell<Card> {
+  private final Cell<Card> cell;
+
+  /**
+   * Creates a read-only view of a cell.
+   *
+   * @param cell the live cell to read
+   */
+  ReadOnlyCell(Cell<Card> cell) {
+    this.cell = cell;
+  }
+
+  /**
+   * Whether this is a view of the given cell.
+   *
+   * @param other a live cell
+   * @return true if this view reads that cell
+   */
+  boolean views(Cell<Card> other) {
+    return cell == other;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return cell.isEmpty();
+  }
+
+  @Override
+  public int getNumPawns() {
+    return cell.getNumPawns();
+  }
+
+  @Override
+  public Card getCard() {
+    return cell.getCard();
+  }
+
+  @Override
+  public PlayerInterface<Card> getOwner() {
+    return cell.getOwner();
+  }
+
+  @Override
+  public void updatePawns(int pawns) {
+    throw new UnsupportedOperationException("Cell is read-only");
+  }
+
+  @Override
+  public void setCard(Card card) {
+    throw new UnsupportedOperationException("Cell is read-only");
+  }
+
+  @Override
+  public void setOwner(PlayerInterface<Card> owner) {
+    throw new UnsupportedOperationException("Cell is read-only");
+  }
+}
@@ -2,8 +2,10 @@ package model;
 
 import java.awt.Color;
 import java.io.File;
+import java.io.IOException;
 import java.util.List;
 import java.util.Scanner;
+import controller.MoveCommand;
 import model.Card;
 import model.Player;
 import model.SanguineModel;
@@ -15,6 +17,8 @@ import view.SanguineTextual;
  * Main class for the Sanguine game.
  */
 public class Sanguine {
+  private static final String BANNER = "=".repeat(50);
+
   /**
    * Main method to start the game.
    *
@@ -66,11 +70,11 @@ public class Sanguine {
       PlayerInterface<Card> current = model.getCurrentPlayer();
       String playerName = current.getPlayerColor().equals(Color.RED) ? "RED" : "BLUE";
       
-      System.out.println("\n" + "=".repeat(50));
+      System.out.println("\n" + BANNER);
       System.out.println("Turn " + (turnCount + 1) + " - " + playerName + " player's turn");
-      System.out.println("=".repeat(50));
+      System.out.println(BANNER);
       System.out.println("\nCurrent Board:");
-      System.out.println(view.render());
+      printBoard(view);
       
       List<Card> hand = current.getHand();
       if (hand == null || hand.isEmpty()) {
@@ -100,25 +104,25 @@ public class Sanguine {
       System.out.println("  Or type 'pass' to skip your turn");
       System.out.print("> ");
       
-      String input = scanner.nextLine().trim();
-      
-      if (input.equalsIgnoreCase("pass")) {
+      MoveCommand command;
+      try {
+        command = MoveCommand.parse(scanner.nextLine());
+      } catch (IllegalArgumentException e) {
+        System.out.println(e.getMessage());
+        continue;
+      }
+
+      if (command.isPass()) {
         System.out.println(playerName + " passed their turn.");
         model.pass();
         turnCount++;
         continue;
       }
       
-      String[] parts = input.split("\\s+");
-      if (parts.length != 3) {
-        System.out.println("Invalid input! Please use format: <card_index> <row> <col>");
-        continue;
-      }
-      
       try {
-        int cardIndex = Integer.parseInt(parts[0]);
-        int row = Integer.parseInt(parts[1]);
-        int col = Integer.parseInt(parts[2]);
+        int cardIndex = command.getCardIndex();
+        int row = command.getRow();
+        int col = command.getCol();
         
         if (cardIndex < 0 || cardIndex >= hand.size()) {
           System.out.println("Invalid card index! Choose between 0 and " 
@@ -150,18 +154,16 @@ public class Sanguine {
         
         turnCount++;
         
-      } catch (NumberFormatException e) {
-        System.out.println("Invalid input! Please enter numbers only.");
       } catch (Exception e) {
         System.out.println("Error: " + e.getMessage());
       }
     }
     
-    System.out.println("\n" + "=".repeat(50));
+    System.out.println("\n" + BANNER);
     System.out.println("GAME OVER!");
-    System.out.println("=".repeat(50));
+    System.out.println(BANNER);
     System.out.println("\nFinal Board:");
-    System.out.println(view.render());
+    printBoard(view);
     
     if (turnCount >= maxTurns) {
       System.out.println("Game ended after " + maxTurns + " turns.");
@@ -171,4 +173,19 @@ public class Sanguine {
     
     scanner.close();
   }
+
+  /**
+   * Writes the board straight to standard output, followed by a blank line.
+   *
+   * @param view the game view
+   */
+  private static void printBoard(SanguineTextual view) {
+    try {
+      view.render(System.out);
+    } catch (IOException e) {
+      // PrintStream records errors instead of throwing
+      throw new IllegalStateException(e);
+    }
+    System.out.println();
+  }
 }
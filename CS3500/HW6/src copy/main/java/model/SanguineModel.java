@@ -1,17 +1,44 @@
 package model;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * SanguineModel class implements SanguineModelInterface.
  * This class is responsible for the model of the Sanguine game.
  */
 public class SanguineModel implements SanguineModelInterface<Card, Cell<Card>> {
+  private static final int DREW = 1;
+  private static final int PASSED = 2;
   private Cell<Card>[][] board;
   private Player red;
   private Player blue;
   private Player current;
   private boolean gameOver;
+  private final MoveJournal journal;
+  private InfluenceTable influence;
+  // Derived from the board and kept up to date cell by cell. Marked stale
+  // whenever the board is handed out or replaced, and then rebuilt on the
+  // next read.
+  private boolean derivedStale;
+  private long boardKey;
+  // Indexed by owner code - 1 (red 0, blue 1)
+  private int[][] rowScores;
+  private final int[] playerScores = new int[2];
+  private final int[] ownedCells = new int[2];
+  // Bit sets of board indexes of cells without a card, one per owner and
+  // pawn count: playable[owner * 3 + pawns - 1]
+  private long[][] playable;
+  // The last published snapshot, and the rows changed since it was taken.
+  // Null until the first getSnapshot or listener, so copies made for
+  // search never build one.
+  private volatile GameSnapshot snapshot;
+  private long[] dirtyRows;
+  private boolean allRowsDirty;
+  private final List<ModelListener> listeners = new CopyOnWriteArrayList<>();
+  // Read-only views handed out by getCellAt, made on first use
+  private ReadOnlyCell[][] views;
 
   /**
    * Constructor for SanguineModel.
@@ -33,6 +60,7 @@ public class SanguineModel implements SanguineModelInterface<Card, Cell<Card>> {
     this.red = red;
     this.blue = blue;
     this.current = red;
+    this.journal = new MoveJournal();
     board = (Cell<Card>[][]) new Cell[rows][cols];
     for (int i = 0; i < rows; i++) {
       for (int j = 0; j < cols; j++) {
@@ -46,6 +74,8 @@ public class SanguineModel implements SanguineModelInterface<Card, Cell<Card>> {
       board[i][cols - 1].setOwner(blue);
     }
     gameOver = false;
+    derivedStale = true;
+    allRowsDirty = true;
   }
 
   @Override
@@ -73,16 +103,27 @@ public class SanguineModel implements SanguineModelInterface<Card, Cell<Card>> {
       board[i][cols - 1].setOwner(blue);
     }
     gameOver = false;
+    derivedStale = true;
+    allRowsDirty = true;
+    journal.clear();
+    publish();
   }
 
   @Override
   public Cell<Card>[][] getBoard() {
+    // The caller may change cells directly
+    derivedStale = true;
+    allRowsDirty = true;
     return board;
   }
 
   @Override
   public Cell<Card>[][] updateBoard(Cell<Card>[][] newBoard) {
     board = newBoard;
+    journal.clear();
+    derivedStale = true;
+    allRowsDirty = true;
+    publish();
     return board;
   }
 
@@ -93,7 +134,10 @@ public class SanguineModel implements SanguineModelInterface<Card, Cell<Card>> {
 
   @Override
   public void pass() {
-    nextTurn();
+    applyPass();
+    // A committed move cannot be undone, so the journal need not keep it
+    journal.clear();
+    publish();
   }
 
   /**
@@ -126,10 +170,21 @@ public class SanguineModel implements SanguineModelInterface<Card, Cell<Card>> {
   @Override
   public void setGameOver(boolean over) {
     this.gameOver = over;
+    publish();
   }
 
   @Override
   public void placeCard(int row, int col, Card card) {
+    checkPlacement(row, col, card);
+    journal.clear();
+    place(row, col, card, false);
+    publish();
+  }
+
+  private void checkPlacement(int row, int col, Card card) {
+    if (row < 0 || row >= board.length || col < 0 || col >= board[row].length) {
+      throw new IllegalArgumentException("Invalid card placement");
+    }
     if (card == null) {
       throw new IllegalArgumentException("Invalid card");
     }
@@ -139,48 +194,266 @@ public class SanguineModel implements SanguineModelInterface<Card, Cell<Card>> {
     if (board[row][col].getNumPawns() < card.getCost()) {
       throw new IllegalArgumentException("Insufficient pawns");
     }
-    if (row < 0 || row >= board.length || col < 0 || col >= board[row].length) {
-      throw new IllegalArgumentException("Invalid card placement");
-    }
+  }
 
+  private void place(int row, int col, Card card, boolean record) {
+    if (record) {
+      recordCell(row, col);
+    }
+    unindexCell(row, col);
     board[row][col].setCard(card);
     board[row][col].updatePawns(0);
-    applyInfluence(row, col, card);
+    indexCell(row, col);
+    applyInfluence(row, col, card, record);
     nextTurn();
   }
 
-  private void applyInfluence(int row, int col, Card card) {
-    boolean[][] inf = card.getInfluence();
-    for (int i = 0; i < 5; i++) {
-      for (int j = 0; j < 5; j++) {
-        if (inf[i][j]) {
-          int r = row + i - 2;
-          int c = col + j - 2;
-          if (r >= 0 && c >= 0 && r < board.length && c < board[0].length) {
-            Cell<Card> cell = board[r][c];
-            if (cell.isEmpty()) {
-              cell.updatePawns(1);
-              cell.setOwner(current);
-            } else if (cell.getCard() == null) {
-              if (cell.getOwner() == current) {
-                cell.updatePawns(Math.min(3, cell.getNumPawns() + 1));
-              } else {
-                int enemyPawns = cell.getNumPawns();
-                if (enemyPawns == 1) {
-                  // 1 pawn cancels out - cell becomes empty
-                  cell.updatePawns(0);
-                  cell.setOwner(null);
-                } else {
-                  // Multiple pawns: decrease by 1, change owner
-                  cell.updatePawns(enemyPawns - 1);
-                  cell.setOwner(current);
-                }
-              }
-            }
-          }
+  private void applyInfluence(int row, int col, Card card, boolean record) {
+    int cols = board[0].length;
+    if (influence == null || !influence.fits(board.length, cols)) {
+      influence = InfluenceTable.forBoard(board.length, cols);
+    }
+    for (int target : influence.targets(card, row, col)) {
+      int r = target / cols;
+      int c = target % cols;
+      Cell<Card> cell = board[r][c];
+      if (cell.getCard() != null) {
+        continue;
+      }
+      if (record) {
+        recordCell(r, c);
+      }
+      unindexCell(r, c);
+      if (cell.isEmpty()) {
+        cell.updatePawns(1);
+        cell.setOwner(current);
+      } else if (cell.getOwner() == current) {
+        cell.updatePawns(Math.min(3, cell.getNumPawns() + 1));
+      } else {
+        int enemyPawns = cell.getNumPawns();
+        if (enemyPawns == 1) {
+          // 1 pawn cancels out - cell becomes empty
+          cell.updatePawns(0);
+          cell.setOwner(null);
+        } else {
+          // Multiple pawns: decrease by 1, change owner
+          cell.updatePawns(enemyPawns - 1);
+          cell.setOwner(current);
         }
       }
+      indexCell(r, c);
+    }
+  }
+
+  /**
+   * Saves the state of a cell without a card to the journal.
+   */
+  private void recordCell(int row, int col) {
+    Cell<Card> cell = board[row][col];
+    journal.push(row * board[0].length + col);
+    journal.push(PackedCells.pack(cell.getNumPawns(), ownerCode(cell.getOwner()), 0));
+  }
+
+  /**
+   * Restores a cell saved by recordCell, removing any card placed on it.
+   */
+  private void restoreCell(int index, int state) {
+    int row = index / board[0].length;
+    int col = index % board[0].length;
+    Cell<Card> cell = board[row][col];
+    unindexCell(row, col);
+    cell.setCard(null);
+    cell.updatePawns(PackedCells.pawns(state));
+    cell.setOwner(player(PackedCells.owner(state)));
+    indexCell(row, col);
+  }
+
+  /**
+   * Adds a cell's contribution to the derived state.
+   */
+  private void indexCell(int row, int col) {
+    if (!derivedStale) {
+      boardKey ^= cellKey(row, col);
+      count(row, col, 1);
+    }
+  }
+
+  /**
+   * Removes a cell's contribution from the derived state,
+   * before the cell is changed.
+   */
+  private void unindexCell(int row, int col) {
+    if (!allRowsDirty) {
+      dirtyRows[row >> 6] |= 1L << row;
+    }
+    if (!derivedStale) {
+      boardKey ^= cellKey(row, col);
+      count(row, col, -1);
+    }
+  }
+
+  @Override
+  public GameSnapshot getSnapshot() {
+    GameSnapshot latest = snapshot;
+    if (latest == null) {
+      buildSnapshot();
+      latest = snapshot;
+    }
+    return latest;
+  }
+
+  @Override
+  public void addModelListener(ModelListener listener) {
+    if (listener == null) {
+      throw new IllegalArgumentException("Listener cannot be null");
+    }
+    if (snapshot == null) {
+      // Events are the differences between snapshots, so start from one
+      buildSnapshot();
     }
+    listeners.add(listener);
+  }
+
+  @Override
+  public void removeModelListener(ModelListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Publishes a snapshot of the current position and tells the listeners
+   * what changed, once anyone has asked for snapshots.
+   */
+  private void publish() {
+    if (snapshot == null) {
+      return;
+    }
+    GameSnapshot previous = snapshot;
+    buildSnapshot();
+    if (!listeners.isEmpty()) {
+      List<ModelEvent> events = ModelEvent.between(previous, snapshot);
+      if (!events.isEmpty()) {
+        for (ModelListener listener : listeners) {
+          listener.modelChanged(events);
+        }
+      }
+    }
+  }
+
+  /**
+   * Builds a snapshot of the current position. Rows that have not changed
+   * since the last snapshot are shared with it.
+   */
+  private void buildSnapshot() {
+    refreshDerived();
+    int cols = getNumCols();
+    GameSnapshot previous = snapshot;
+    boolean full = allRowsDirty || previous == null || previous.getNumRows() != board.length
+        || previous.getNumCols() != cols;
+    GameSnapshot.Row[] rows = full ? new GameSnapshot.Row[board.length]
+        : previous.rows().clone();
+    for (int row = 0; row < board.length; row++) {
+      if (full || (dirtyRows[row >> 6] & (1L << row)) != 0) {
+        rows[row] = snapshotRow(row, cols);
+      }
+    }
+    if (dirtyRows == null || dirtyRows.length != (board.length + 63) / 64) {
+      dirtyRows = new long[(board.length + 63) / 64];
+    } else {
+      Arrays.fill(dirtyRows, 0);
+    }
+    allRowsDirty = false;
+    snapshot = new GameSnapshot(getRedPlayer(), getBluePlayer(), getCurrentPlayer(), rows,
+        cols, playerScores[0], playerScores[1], gameOver,
+        previous == null ? 0 : previous.getVersion() + 1);
+  }
+
+  private GameSnapshot.Row snapshotRow(int row, int cols) {
+    int[] cells = new int[cols];
+    Card[] cards = new Card[cols];
+    for (int col = 0; col < cols; col++) {
+      Cell<Card> cell = board[row][col];
+      cells[col] = PackedCells.pack(cell.getNumPawns(), ownerCode(cell.getOwner()), 0);
+      cards[col] = cell.getCard();
+    }
+    return new GameSnapshot.Row(cells, cards, rowScores[0][row], rowScores[1][row]);
+  }
+
+  /**
+   * Adds (sign 1) or removes (sign -1) a cell's card value and ownership
+   * from the score and cell count totals.
+   */
+  private void count(int row, int col, int sign) {
+    Cell<Card> cell = board[row][col];
+    int owner = ownerCode(cell.getOwner()) - 1;
+    if (owner < 0 || cell.isEmpty()) {
+      return;
+    }
+    ownedCells[owner] += sign;
+    if (cell.getCard() == null && cell.getNumPawns() > 0) {
+      int index = row * board[0].length + col;
+      long[] bucket = playable[owner * 3 + Math.min(3, cell.getNumPawns()) - 1];
+      if (sign > 0) {
+        bucket[index >> 6] |= 1L << index;
+      } else {
+        bucket[index >> 6] &= ~(1L << index);
+      }
+    }
+    if (cell.getCard() != null) {
+      int value = sign * cell.getCard().getValue();
+      rowScores[owner][row] += value;
+      playerScores[owner] += value;
+    }
+  }
+
+  /**
+   * Rebuilds the derived state from the board if it is stale.
+   */
+  private void refreshDerived() {
+    if (derivedStale) {
+      derivedStale = false;
+      boardKey = 0;
+      rowScores = new int[2][board.length];
+      playable = new long[6][(board.length * getNumCols() + 63) / 64];
+      playerScores[0] = 0;
+      playerScores[1] = 0;
+      ownedCells[0] = 0;
+      ownedCells[1] = 0;
+      for (int i = 0; i < board.length; i++) {
+        for (int j = 0; j < board[i].length; j++) {
+          indexCell(i, j);
+        }
+      }
+    }
+  }
+
+  private long cellKey(int row, int col) {
+    Cell<Card> cell = board[row][col];
+    int index = row * board[0].length + col;
+    long key = ZobristKeys.cellKey(index, ownerCode(cell.getOwner()), cell.getNumPawns());
+    if (cell.getCard() != null) {
+      key ^= ZobristKeys.cardKey(index, cell.getCard());
+    }
+    return key;
+  }
+
+  private int ownerCode(PlayerInterface<Card> owner) {
+    if (owner == null) {
+      return PackedCells.NO_OWNER;
+    } else if (owner == red) {
+      return PackedCells.RED;
+    } else if (owner == blue) {
+      return PackedCells.BLUE;
+    }
+    throw new IllegalArgumentException("Player is not part of this game");
+  }
+
+  private PlayerInterface<Card> player(int code) {
+    if (code == PackedCells.RED) {
+      return getRedPlayer();
+    } else if (code == PackedCells.BLUE) {
+      return getBluePlayer();
+    }
+    return null;
   }
 
   @Override
@@ -210,7 +483,16 @@ public class SanguineModel implements SanguineModelInterface<Card, Cell<Card>> {
         || col >= board[0].length) {
       throw new IllegalArgumentException("Invalid coordinates");
     }
-    return board[row][col];
+    if (views == null || views.length != board.length
+        || views[row].length != board[row].length) {
+      views = new ReadOnlyCell[board.length][board[0].length];
+    }
+    ReadOnlyCell view = views[row][col];
+    if (view == null || !view.views(board[row][col])) {
+      view = new ReadOnlyCell(board[row][col]);
+      views[row][col] = view;
+    }
+    return view;
   }
 
   @Override
@@ -251,25 +533,51 @@ public class SanguineModel implements SanguineModelInterface<Card, Cell<Card>> {
 
   @Override
   public int getRowScore(PlayerInterface<Card> player, int rowIndex) {
-    if (rowIndex < 0 || rowIndex >= board.length) {
+    if (rowIndex < 0 || rowIndex >= board.length || (player != red && player != blue)) {
       return 0;
     }
-    int score = 0;
-    for (Cell<Card> cell : board[rowIndex]) {
-      if (cell.getCard() != null && cell.getOwner() == player) {
-        score += cell.getCard().getValue();
+    refreshDerived();
+    return rowScores[ownerCode(player) - 1][rowIndex];
+  }
+
+  @Override
+  public int getPlayerScore(PlayerInterface<Card> player) {
+    if (player != red && player != blue) {
+      return 0;
+    }
+    refreshDerived();
+    return playerScores[ownerCode(player) - 1];
+  }
+
+  @Override
+  public int collectPlayableCells(PlayerInterface<Card> player, int cost, int[] cells) {
+    int first = Math.max(1, cost);
+    if ((player != red && player != blue) || first > 3) {
+      return 0;
+    }
+    refreshDerived();
+    int owner = ownerCode(player) - 1;
+    int count = 0;
+    for (int word = 0; word < playable[0].length; word++) {
+      long bits = 0;
+      for (int pawns = first; pawns <= 3; pawns++) {
+        bits |= playable[owner * 3 + pawns - 1][word];
+      }
+      while (bits != 0) {
+        cells[count++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+        bits &= bits - 1;
       }
     }
-    return score;
+    return count;
   }
 
   @Override
-  public int getPlayerScore(PlayerInterface<Card> player) {
-    int totalScore = 0;
-    for (int i = 0; i < board.length; i++) {
-      totalScore += getRowScore(player, i);
+  public int getOwnedCellCount(PlayerInterface<Card> player) {
+    if (player != red && player != blue) {
+      return 0;
     }
-    return totalScore;
+    refreshDerived();
+    return ownedCells[ownerCode(player) - 1];
   }
 
   @Override
@@ -322,19 +630,132 @@ public class SanguineModel implements SanguineModelInterface<Card, Cell<Card>> {
     return copy;
   }
 
+  @Override
+  public long getPositionKey() {
+    refreshDerived();
+    long key = boardKey
+        ^ ZobristKeys.handKey(red.getHand(), PackedCells.RED)
+        ^ ZobristKeys.handKey(blue.getHand(), PackedCells.BLUE);
+    if (current == blue) {
+      key ^= ZobristKeys.BLUE_TO_MOVE;
+    }
+    return key;
+  }
+
+  @Override
+  public SanguineModel copyModel() {
+    Player redCopy = new Player(red);
+    Player blueCopy = new Player(blue);
+    SanguineModel copy = new SanguineModel(redCopy, blueCopy, getNumRows(), getNumCols());
+    for (int i = 0; i < getNumRows(); i++) {
+      for (int j = 0; j < getNumCols(); j++) {
+        Cell<Card> original = board[i][j];
+        Cell<Card> newCell = copy.board[i][j];
+        newCell.updatePawns(original.getNumPawns());
+        if (original.getCard() != null) {
+          newCell.setCard(original.getCard());
+        }
+        if (original.getOwner() == red) {
+          newCell.setOwner(copy.getRedPlayer());
+        } else if (original.getOwner() == blue) {
+          newCell.setOwner(copy.getBluePlayer());
+        } else {
+          newCell.setOwner(null);
+        }
+      }
+    }
+    copy.current = current == red ? redCopy : blueCopy;
+    copy.gameOver = gameOver;
+    copy.derivedStale = true;
+    copy.allRowsDirty = true;
+    return copy;
+  }
+
+  /**
+   * Replaces the position on the board, for restoring a recorded game.
+   * The players' hands and decks are left as they are.
+   *
+   * @param cells      the cells in row-major order, in the PackedCells
+   *                   format without a slot
+   * @param cards      the card in each cell, or null
+   * @param blueToMove whether blue is the player to move
+   */
+  void restorePosition(int[] cells, Card[] cards, boolean blueToMove) {
+    int cols = board[0].length;
+    for (int i = 0; i < cells.length; i++) {
+      Cell<Card> cell = board[i / cols][i % cols];
+      cell.setCard(cards[i]);
+      cell.updatePawns(PackedCells.pawns(cells[i]));
+      cell.setOwner(player(PackedCells.owner(cells[i])));
+    }
+    current = blueToMove ? blue : red;
+    journal.clear();
+    derivedStale = true;
+    allRowsDirty = true;
+    publish();
+  }
+
   @Override
   public void playCardFromHand(int row, int col, int cardIndex) {
+    applyMove(row, col, cardIndex);
+    journal.clear();
+    publish();
+  }
+
+  @Override
+  public void applyMove(int row, int col, int cardIndex) {
     List<Card> hand = current.getHand();
     if (cardIndex < 0 || cardIndex >= hand.size()) {
       throw new IllegalArgumentException("Invalid card index");
     }
-    Card card = current.playCard(cardIndex);
-    placeCard(row, col, card);
+    Card card = hand.get(cardIndex);
+    checkPlacement(row, col, card);
+    Player mover = current;
+    int start = journal.size();
+    mover.playCard(cardIndex);
+    place(row, col, card, true);
     // Try to draw a new card
+    boolean drew;
     try {
-      current.drawNewCard();
+      mover.drawNewCard();
+      drew = true;
     } catch (IllegalStateException e) {
       // Deck is empty, no card to draw - this is fine
+      drew = false;
+    }
+    journal.push((journal.size() - start) / 2);
+    journal.push(cardIndex);
+    journal.push(drew ? DREW : 0);
+    journal.pushCard(card);
+  }
+
+  @Override
+  public void applyPass() {
+    nextTurn();
+    journal.push(0);
+    journal.push(-1);
+    journal.push(PASSED);
+  }
+
+  @Override
+  public void undoMove() {
+    if (journal.isEmpty()) {
+      throw new IllegalStateException("No move to undo");
+    }
+    int flags = journal.pop();
+    int cardIndex = journal.pop();
+    int changed = journal.pop();
+    nextTurn();
+    if ((flags & PASSED) != 0) {
+      return;
+    }
+    for (int i = 0; i < changed; i++) {
+      int state = journal.pop();
+      restoreCell(journal.pop(), state);
+    }
+    if ((flags & DREW) != 0) {
+      current.undrawCard();
     }
+    current.returnCard(cardIndex, journal.popCard());
   }
 }
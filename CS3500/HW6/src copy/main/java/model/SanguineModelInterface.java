@@ -80,7 +80,8 @@ public interface SanguineModelInterface<C extends CardInterface, J extends CellI
   int getNumCols();
 
   /**
-   * Gets the cell at the specified coordinates.
+   * Gets the cell at the specified coordinates. The cell may be a
+   * read-only view; change the board through moves or getBoard.
    *
    * @param row the row index
    * @param col the column index
@@ -135,6 +136,7 @@ public interface SanguineModelInterface<C extends CardInterface, J extends CellI
 
   /**
    * Gets the row score for a specific player in a specific row.
+   * Scores are kept up to date as cards are placed, so this is constant time.
    *
    * @param player the player
    * @param rowIndex the row index
@@ -150,6 +152,27 @@ public interface SanguineModelInterface<C extends CardInterface, J extends CellI
    */
   int getPlayerScore(PlayerInterface<C> player);
 
+  /**
+   * Collects the cells a player could play a card of the given cost on:
+   * cells the player owns with no card and at least that many pawns.
+   * Cells are written as board indexes (row * cols + col) in board order.
+   *
+   * @param player the player
+   * @param cost   the cost of the card
+   * @param cells  array to write the board indexes to, with room for every
+   *               cell of the board
+   * @return the number of cells written
+   */
+  int collectPlayableCells(PlayerInterface<C> player, int cost, int[] cells);
+
+  /**
+   * Gets the number of cells a player owns, with or without a card.
+   *
+   * @param player the player
+   * @return the number of cells the player owns
+   */
+  int getOwnedCellCount(PlayerInterface<C> player);
+
   /**
    * Gets the winner of the game, if any.
    *
@@ -185,6 +208,23 @@ public interface SanguineModelInterface<C extends CardInterface, J extends CellI
    */
   J[][] copyBoard();
 
+  /**
+   * Gets a hash key of the current position: every cell's owner, pawns and
+   * card, the player to move and the contents of both hands. Positions
+   * reached by different move orders have the same key.
+   *
+   * @return the position key
+   */
+  long getPositionKey();
+
+  /**
+   * Creates an independent copy of the whole game: board, players, hands,
+   * decks and current player. Changes to the copy do not affect this model.
+   *
+   * @return a copy of the game
+   */
+  SanguineModelInterface<C, J> copyModel();
+
   /**
    * Plays a card from the current player's hand at the specified position.
    * Automatically draws a new card after playing.
@@ -195,6 +235,64 @@ public interface SanguineModelInterface<C extends CardInterface, J extends CellI
    */
   void playCardFromHand(int row, int col, int cardIndex);
 
+  /**
+   * Plays a card from the current player's hand like playCardFromHand,
+   * recording every change so the move can be reverted with undoMove.
+   *
+   * @param row the row index
+   * @param col the column index
+   * @param cardIndex the index of the card in the hand
+   * @throws IllegalArgumentException if the move is not legal
+   */
+  void applyMove(int row, int col, int cardIndex);
+
+  /**
+   * Passes the current player's turn, recording it so it can be reverted
+   * with undoMove.
+   */
+  void applyPass();
+
+  /**
+   * Reverts the most recent move made with applyMove or applyPass,
+   * restoring the board, the hands and the current player. Moves made
+   * with playCardFromHand, pass or placeCard are committed: they cannot
+   * be undone, nor can any move made before them.
+   *
+   * @throws IllegalStateException if there is no move to undo
+   */
+  void undoMove();
+
+  /**
+   * Gets an immutable snapshot of the game that can be read from any
+   * thread while the model changes. A new snapshot is published after
+   * every placeCard, playCardFromHand, pass, setGameOver and board update;
+   * the search operations applyMove, applyPass and undoMove do not
+   * publish. A model may build its first snapshot on the first call, so
+   * make that call from the thread that changes the model, before handing
+   * the model to readers.
+   *
+   * @return the latest snapshot
+   */
+  GameSnapshot getSnapshot();
+
+  /**
+   * Registers a listener to be told about the changes made by each move
+   * that publishes a snapshot. Listeners are called on the thread that
+   * made the move; wrap a listener in an AsyncModelListener to have it
+   * called on its own thread instead.
+   *
+   * @param listener the listener
+   * @throws IllegalArgumentException if the listener is null
+   */
+  void addModelListener(ModelListener listener);
+
+  /**
+   * Unregisters a listener.
+   *
+   * @param listener the listener
+   */
+  void removeModelListener(ModelListener listener);
+
   /**
    * Checks if a move is valid.
    *
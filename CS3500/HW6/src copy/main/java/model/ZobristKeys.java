@@ -0,0 +1,93 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Zobrist-style hash keys for Sanguine positions.
+ * Instead of tables of random numbers, every key is derived by mixing its
+ * inputs with a 64-bit finalizer, so keys work for any board size and any
+ * card without setup. A position key is the XOR of the keys of its cells,
+ * the side to move and both hands, so it can be updated incrementally as
+ * cells change.
+ */
+public final class ZobristKeys {
+  /**
+   * Key XORed into positions where blue is the player to move.
+   */
+  public static final long BLUE_TO_MOVE = mix(0x5A17B1E5EEDL);
+
+  private static final long CELL_SALT = 0x9E3779B97F4A7C15L;
+  private static final long CARD_SALT = 0xC2B2AE3D27D4EB4FL;
+  private static final long HAND_SALT = 0x165667B19E3779F9L;
+
+  private ZobristKeys() {
+  }
+
+  /**
+   * Key of the pawns in a cell. Empty cells have key 0.
+   *
+   * @param index board index (row * cols + col)
+   * @param owner owner code (see PackedCells)
+   * @param pawns number of pawns
+   * @return the key
+   */
+  public static long cellKey(int index, int owner, int pawns) {
+    if (owner == PackedCells.NO_OWNER && pawns == 0) {
+      return 0;
+    }
+    return mix(CELL_SALT * (index + 1) + (owner << 2) + pawns);
+  }
+
+  /**
+   * Key of a card placed on a cell.
+   *
+   * @param index board index (row * cols + col)
+   * @param card the card
+   * @return the key
+   */
+  public static long cardKey(int index, Card card) {
+    return mix(CARD_SALT * (index + 1) ^ cardId(card));
+  }
+
+  /**
+   * Key of a player's hand. The key only depends on which cards are in
+   * the hand, not their order, and repeated cards are counted.
+   *
+   * @param hand the cards in the hand
+   * @param owner owner code of the player holding the hand
+   * @return the key
+   */
+  public static long handKey(List<Card> hand, int owner) {
+    if (hand == null) {
+      return 0;
+    }
+    long key = 0;
+    for (Card card : hand) {
+      key += mix(HAND_SALT * owner ^ cardId(card));
+    }
+    return key;
+  }
+
+  /**
+   * Identifier of a card derived from its name, cost, value and influence,
+   * so two cards read from the same deck definition share an identifier.
+   *
+   * @param card the card
+   * @return the identifier
+   */
+  public static long cardId(Card card) {
+    long id = card.getName() == null ? 0 : card.getName().hashCode();
+    id = mix(id * 31 + card.getCost()) * 31 + card.getValue();
+    int mask = card.getInfluenceMask();
+    return mix(id ^ ((long) mask << 32));
+  }
+
+  /**
+   * 64-bit finalizer from SplitMix64.
+   */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,38 @@
+package sanguine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import model.BinaryDeck;
+import model.Card;
+import model.DeckLoader;
+
+/**
+ * Compiles a text deck file into the binary deck format read by
+ * BinaryDeck.
+ */
+public final class DeckCompiler {
+  private DeckCompiler() {
+  }
+
+  /**
+   * Compiles a deck file.
+   *
+   * @param args the text deck file and the binary file to write
+   */
+  public static void main(String[] args) {
+    if (args.length != 2) {
+      System.out.println("Usage: java sanguine.DeckCompiler <textDeck> <binaryDeck>");
+      return;
+    }
+    try {
+      List<Card> cards = DeckLoader.load(Paths.get(args[0]));
+      Path out = Paths.get(args[1]);
+      BinaryDeck.write(cards, out);
+      System.out.println("Compiled " + cards.size() + " cards to " + out);
+    } catch (IOException | IllegalArgumentException e) {
+      System.out.println("Error compiling deck: " + e.getMessage());
+    }
+  }
+}
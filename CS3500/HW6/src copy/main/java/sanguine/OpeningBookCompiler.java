@@ -0,0 +1,54 @@
+package sanguine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import model.Card;
+import model.Player;
+import strategy.MonteCarloStrategy;
+import strategy.OpeningBookBuilder;
+
+/**
+ * Builds an opening book for a deck file and board size, to be played
+ * from with BookStrategy.
+ */
+public final class OpeningBookCompiler {
+  private static final int HAND_SIZE = 5;
+
+  private OpeningBookCompiler() {
+  }
+
+  /**
+   * Builds a book, searching each position with Monte Carlo tree search
+   * that guesses the hidden cards from the deck.
+   *
+   * @param args deck file (in the docs directory), rows, columns, the book
+   *             file to write, and optionally the number of plies (1 or
+   *             2), playouts per position and threads
+   */
+  public static void main(String[] args) {
+    if (args.length < 4) {
+      System.out.println("Usage: java sanguine.OpeningBookCompiler <deckFile> <rows> <cols> "
+          + "<bookFile> [plies] [playouts] [threads]");
+      return;
+    }
+    try {
+      List<Card> deck = Player.readDeck(args[0]);
+      int plies = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+      int playouts = args.length > 5 ? Integer.parseInt(args[5]) : 2000;
+      int threads = args.length > 6 ? Integer.parseInt(args[6])
+          : Runtime.getRuntime().availableProcessors();
+      OpeningBookBuilder builder = new OpeningBookBuilder(deck, Integer.parseInt(args[1]),
+          Integer.parseInt(args[2]), HAND_SIZE, plies,
+          () -> new MonteCarloStrategy(playouts, 0, 1, deck, 0), threads, 0);
+      Path out = Paths.get(args[3]);
+      long start = System.nanoTime();
+      int positions = builder.build(out);
+      System.out.printf("Wrote %d positions to %s in %.1f s%n", positions, out,
+          (System.nanoTime() - start) / 1e9);
+    } catch (IOException | IllegalArgumentException e) {
+      System.out.println("Error building book: " + e.getMessage());
+    }
+  }
+}
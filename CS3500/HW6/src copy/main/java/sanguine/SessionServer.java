@@ -0,0 +1,396 @@
+package sanguine;
+
+import controller.MoveCommand;
+import java.awt.Color;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import model.Card;
+import model.Player;
+import model.SanguineModel;
+import strategy.ControllBoardStrategy;
+import strategy.FillFirstStrategy;
+import strategy.MaximizeRowScoreStrategy;
+import strategy.Move;
+import strategy.SanguineStrategyInterface;
+import view.SanguineTextual;
+
+/**
+ * Hosts many Sanguine games in one JVM. Every connection to a listening
+ * TCP or Unix domain socket is a session playing its own game on its own
+ * virtual thread, so an idle session costs a parked thread, its small I/O
+ * buffers and the game itself. Sessions that send nothing for the idle
+ * timeout are closed.
+ *
+ * <p>The protocol is line based. The client sends moves in the console
+ * format, {@code <card_index> <row> <col>} or {@code pass}. After
+ * connecting and after every move the server sends
+ * <ul>
+ *   <li>{@code BOARD } and the board in the compact textual format, and</li>
+ *   <li>{@code HAND } and the cards of the player to move, each as
+ *       {@code name:cost:value}, separated by spaces;</li>
+ * </ul>
+ * an input it cannot play gets {@code ERR } and a message instead. When
+ * both players pass in a row the server sends {@code OVER }, red's score
+ * and blue's score, and closes the connection.
+ *
+ * <p>With an opponent the client plays red and the opponent's strategy
+ * answers every move as blue; without one the client moves for both
+ * players.
+ */
+public final class SessionServer implements Closeable {
+  private static final int HAND_SIZE = 5;
+  private static final int MAX_LINE = 256;
+  private static final int BUFFER_SIZE = 256;
+
+  private final List<Card> deck;
+  private final int rows;
+  private final int cols;
+  private final Supplier<SanguineStrategyInterface> opponent;
+  private final long idleNanos;
+  private final Set<Session> sessions = ConcurrentHashMap.newKeySet();
+  private final List<ServerSocketChannel> listeners = new ArrayList<>();
+  private final Thread reaper;
+  private volatile boolean closed;
+
+  /**
+   * Constructs a server that is not listening yet.
+   *
+   * @param deck        the cards of the deck file each player gets a
+   *                    shuffled copy of
+   * @param rows        number of board rows
+   * @param cols        number of board columns
+   * @param opponent    creates the strategy blue plays with in each
+   *                    session, closed when the session ends, or null for
+   *                    clients to play both sides
+   * @param idleTimeout how long a session may send nothing before it is
+   *                    closed
+   * @throws IllegalArgumentException if any argument is invalid
+   */
+  public SessionServer(List<Card> deck, int rows, int cols,
+                       Supplier<SanguineStrategyInterface> opponent, Duration idleTimeout) {
+    if (deck == null || deck.size() < HAND_SIZE) {
+      throw new IllegalArgumentException("Deck must hold at least a hand of cards");
+    }
+    if (rows < 1 || cols < 2 || idleTimeout == null || idleTimeout.isNegative()
+        || idleTimeout.isZero()) {
+      throw new IllegalArgumentException("Invalid server settings");
+    }
+    this.deck = List.copyOf(deck);
+    this.rows = rows;
+    this.cols = cols;
+    this.opponent = opponent;
+    this.idleNanos = idleTimeout.toNanos();
+    long period = Math.max(1, Math.min(idleTimeout.toMillis() / 2, 1000));
+    this.reaper = Thread.ofVirtual().name("sanguine-reaper").start(() -> evictIdle(period));
+  }
+
+  /**
+   * Starts accepting sessions on an address. May be called more than once
+   * to listen on several addresses.
+   *
+   * @param address an InetSocketAddress, or a UnixDomainSocketAddress
+   *                whose file must not exist yet
+   * @return the address bound, with the port chosen if it was 0
+   * @throws IOException if the address cannot be bound
+   * @throws IllegalStateException if the server is closed
+   */
+  public SocketAddress listen(SocketAddress address) throws IOException {
+    if (address == null) {
+      throw new IllegalArgumentException("Address cannot be null");
+    }
+    ServerSocketChannel server = address instanceof UnixDomainSocketAddress
+        ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+        : ServerSocketChannel.open();
+    synchronized (listeners) {
+      if (closed) {
+        server.close();
+        throw new IllegalStateException("Server is closed");
+      }
+      listeners.add(server);
+    }
+    server.bind(address);
+    Thread.ofVirtual().name("sanguine-accept").start(() -> accept(server));
+    return server.getLocalAddress();
+  }
+
+  /**
+   * Number of sessions connected.
+   *
+   * @return the session count
+   */
+  public int getSessionCount() {
+    return sessions.size();
+  }
+
+  /**
+   * Stops listening and closes every session.
+   */
+  @Override
+  public void close() {
+    synchronized (listeners) {
+      closed = true;
+      for (ServerSocketChannel server : listeners) {
+        closeQuietly(server);
+      }
+    }
+    reaper.interrupt();
+    for (Session session : sessions) {
+      closeQuietly(session.channel);
+    }
+  }
+
+  private void accept(ServerSocketChannel server) {
+    while (!closed) {
+      SocketChannel channel;
+      try {
+        channel = server.accept();
+      } catch (IOException e) {
+        // Closed, or the listener failed; either way stop accepting
+        return;
+      }
+      Session session = new Session(channel);
+      sessions.add(session);
+      if (closed) {
+        closeQuietly(channel);
+      }
+      Thread.ofVirtual().name("sanguine-session").start(session);
+    }
+  }
+
+  private void evictIdle(long periodMillis) {
+    while (!closed) {
+      try {
+        Thread.sleep(periodMillis);
+      } catch (InterruptedException e) {
+        return;
+      }
+      long now = System.nanoTime();
+      for (Session session : sessions) {
+        if (now - session.lastActive > idleNanos) {
+          // Wakes the session's thread from its read
+          closeQuietly(session.channel);
+        }
+      }
+    }
+  }
+
+  private static void closeQuietly(Closeable closeable) {
+    try {
+      closeable.close();
+    } catch (IOException e) {
+      // Nothing more can be done with it
+    }
+  }
+
+  /**
+   * One connection playing one game.
+   */
+  private final class Session implements Runnable {
+    private final SocketChannel channel;
+    private volatile long lastActive = System.nanoTime();
+    // Bytes read but not consumed yet, and the line being read
+    private final ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE).flip();
+    private final byte[] line = new byte[MAX_LINE];
+    private int lineLength;
+    private Writer out;
+    private SanguineModel model;
+    private SanguineTextual view;
+    private SanguineStrategyInterface strategy;
+    private int passes;
+
+    private Session(SocketChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public void run() {
+      try {
+        out = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE);
+        Random random = new Random();
+        model = new SanguineModel(deal(Color.RED, random), deal(Color.BLUE, random), rows, cols);
+        view = new SanguineTextual(model);
+        strategy = opponent == null ? null : opponent.get();
+        sendState();
+        while (passes < 2 && readLine()) {
+          lastActive = System.nanoTime();
+          play();
+        }
+      } catch (IOException e) {
+        // The client left or the session was evicted
+      } finally {
+        sessions.remove(this);
+        closeQuietly(channel);
+        if (strategy != null) {
+          strategy.close();
+        }
+      }
+    }
+
+    private Player deal(Color color, Random random) {
+      List<Card> shuffled = new ArrayList<>(deck);
+      Collections.shuffle(shuffled, random);
+      return new Player(color, shuffled.subList(0, HAND_SIZE),
+          shuffled.subList(HAND_SIZE, shuffled.size()));
+    }
+
+    /**
+     * Reads the next line into the line buffer.
+     *
+     * @return false at the end of the input
+     * @throws IOException if reading fails or the line is too long
+     */
+    private boolean readLine() throws IOException {
+      lineLength = 0;
+      while (true) {
+        if (!in.hasRemaining()) {
+          in.clear();
+          int read = channel.read(in);
+          in.flip();
+          if (read < 0) {
+            return false;
+          }
+          continue;
+        }
+        byte b = in.get();
+        if (b == '\n') {
+          return true;
+        } else if (lineLength == MAX_LINE) {
+          sendError("Line too long");
+          throw new IOException("Line too long");
+        } else if (b != '\r') {
+          line[lineLength++] = b;
+        }
+      }
+    }
+
+    private void play() throws IOException {
+      MoveCommand command;
+      try {
+        command = MoveCommand.parse(new String(line, 0, lineLength, StandardCharsets.UTF_8));
+      } catch (IllegalArgumentException e) {
+        sendError(e.getMessage());
+        return;
+      }
+      if (command.isPass()) {
+        model.pass();
+        passes++;
+      } else if (model.isLegalMove(command.getRow(), command.getCol(),
+          command.getCardIndex())) {
+        model.playCardFromHand(command.getRow(), command.getCol(), command.getCardIndex());
+        passes = 0;
+      } else {
+        sendError("Illegal move");
+        return;
+      }
+      while (strategy != null && passes < 2 && model.getCurrentPlayer() != model.getRedPlayer()) {
+        playOpponent();
+      }
+      if (passes >= 2) {
+        model.setGameOver(true);
+        out.write("OVER " + model.getPlayerScore(model.getRedPlayer()) + " "
+            + model.getPlayerScore(model.getBluePlayer()) + "\n");
+        out.flush();
+      } else {
+        sendState();
+      }
+    }
+
+    private void playOpponent() {
+      List<Move> moves = strategy.chooseMoves(model, model.getCurrentPlayer());
+      Move move = moves.isEmpty() ? null : moves.get(0);
+      if (move == null
+          || !model.isLegalMove(move.getRow(), move.getCol(), move.getCardIndex())) {
+        model.pass();
+        passes++;
+      } else {
+        model.playCardFromHand(move.getRow(), move.getCol(), move.getCardIndex());
+        passes = 0;
+      }
+    }
+
+    private void sendState() throws IOException {
+      out.write("BOARD ");
+      view.renderCompact(out);
+      out.write("HAND");
+      for (Card card : model.getCurrentPlayerHand()) {
+        out.write(' ');
+        out.write(card.getName());
+        out.write(':');
+        out.write(Integer.toString(card.getCost()));
+        out.write(':');
+        out.write(Integer.toString(card.getValue()));
+      }
+      out.write('\n');
+      out.flush();
+    }
+
+    private void sendError(String message) throws IOException {
+      out.write("ERR ");
+      out.write(message);
+      out.write('\n');
+      out.flush();
+    }
+  }
+
+  /**
+   * Runs a session server until the process is stopped.
+   *
+   * @param args deck file (in the docs directory), rows, columns, a TCP
+   *             port on the loopback address or {@code unix:<path>}, and
+   *             optionally the idle timeout in seconds and an opponent:
+   *             fillfirst, maxrow or control
+   */
+  public static void main(String[] args) {
+    if (args.length < 4) {
+      System.out.println("Usage: java sanguine.SessionServer <deckFile> <rows> <cols> "
+          + "<port|unix:path> [idleSeconds] [fillfirst|maxrow|control]");
+      return;
+    }
+    Map<String, Supplier<SanguineStrategyInterface>> opponents = Map.of(
+        "fillfirst", FillFirstStrategy::new,
+        "maxrow", MaximizeRowScoreStrategy::new,
+        "control", ControllBoardStrategy::new);
+    try {
+      List<Card> deck = Player.readDeck(args[0]);
+      Duration idle = Duration.ofSeconds(args.length > 4 ? Long.parseLong(args[4]) : 300);
+      Supplier<SanguineStrategyInterface> opponent = null;
+      if (args.length > 5) {
+        opponent = opponents.get(args[5]);
+        if (opponent == null) {
+          throw new IllegalArgumentException("Unknown opponent: " + args[5]);
+        }
+      }
+      SocketAddress address = args[3].startsWith("unix:")
+          ? UnixDomainSocketAddress.of(args[3].substring(5))
+          : new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(args[3]));
+      SessionServer server = new SessionServer(deck, Integer.parseInt(args[1]),
+          Integer.parseInt(args[2]), opponent, idle);
+      System.out.println("Listening on " + server.listen(address));
+      Thread.currentThread().join();
+    } catch (IOException | IllegalArgumentException e) {
+      System.out.println("Error running server: " + e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,236 @@
+package sanguine;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+import model.Card;
+import model.Player;
+import model.SanguineModel;
+import strategy.AlphaBetaStrategy;
+import strategy.ControllBoardStrategy;
+import strategy.EndgameStrategy;
+import strategy.FillFirstStrategy;
+import strategy.MaximizeRowScoreStrategy;
+import strategy.MiniMaxStrategy;
+import strategy.MonteCarloStrategy;
+import strategy.Move;
+import strategy.SanguineStrategyInterface;
+
+/**
+ * Plays AI-vs-AI round-robin tournaments without a view. Every pair of
+ * entrants plays the given number of games, alternating colors, with each
+ * deal shuffled from a seed so results can be repeated. Games run in
+ * parallel and nothing is printed while they are played.
+ *
+ * <p>Each game asks the entrant's factory for a fresh strategy, so
+ * strategies do not need to be thread safe. A player moves with the first
+ * of the moves its strategy returns, the tie-break order the strategies
+ * document, and passes if there is none. A player whose first move is
+ * illegal forfeits the game, which ends there; forfeits are reported in
+ * the results.
+ */
+public final class Tournament {
+  private static final int HAND_SIZE = 5;
+  // Last entry of a game's scores: who forfeited, if anyone
+  private static final int NO_FORFEIT = 0;
+  private static final int RED_FORFEITED = 1;
+  private static final int BLUE_FORFEITED = 2;
+
+  private final List<Card> deck;
+  private final int rows;
+  private final int cols;
+  private final int gamesPerPair;
+  private final int parallelism;
+  private final long seed;
+  private final List<String> names = new ArrayList<>();
+  private final List<Supplier<SanguineStrategyInterface>> factories = new ArrayList<>();
+
+  /**
+   * Constructs a tournament.
+   *
+   * @param deck         the cards of the deck file each player gets a
+   *                     shuffled copy of
+   * @param rows         number of board rows
+   * @param cols         number of board columns
+   * @param gamesPerPair games played by each pair of entrants
+   * @param parallelism  number of games played at once
+   * @param seed         seed for the deals
+   * @throws IllegalArgumentException if any argument is invalid
+   */
+  public Tournament(List<Card> deck, int rows, int cols, int gamesPerPair, int parallelism,
+                    long seed) {
+    if (deck == null || deck.size() < HAND_SIZE) {
+      throw new IllegalArgumentException("Deck must hold at least a hand of cards");
+    }
+    if (rows < 1 || cols < 2 || gamesPerPair < 1 || parallelism < 1) {
+      throw new IllegalArgumentException("Invalid tournament settings");
+    }
+    this.deck = List.copyOf(deck);
+    this.rows = rows;
+    this.cols = cols;
+    this.gamesPerPair = gamesPerPair;
+    this.parallelism = parallelism;
+    this.seed = seed;
+  }
+
+  /**
+   * Adds an entrant.
+   *
+   * @param name    name shown in the results
+   * @param factory creates the entrant's strategy for each game; it is
+   *                closed when the game ends
+   */
+  public void addEntrant(String name, Supplier<SanguineStrategyInterface> factory) {
+    if (name == null || factory == null) {
+      throw new IllegalArgumentException("Name and factory cannot be null");
+    }
+    names.add(name);
+    factories.add(factory);
+  }
+
+  /**
+   * Plays every game and collects the results.
+   *
+   * @return the results
+   * @throws IllegalStateException if there are fewer than two entrants
+   */
+  public TournamentResult run() {
+    if (names.size() < 2) {
+      throw new IllegalStateException("A tournament needs at least two entrants");
+    }
+    List<int[]> pairings = new ArrayList<>();
+    for (int a = 0; a < names.size(); a++) {
+      for (int b = a + 1; b < names.size(); b++) {
+        for (int game = 0; game < gamesPerPair; game++) {
+          // Each deal is played twice in a row with colors swapped
+          int dealt = pairings.size() - game % 2;
+          pairings.add(game % 2 == 0 ? new int[] {a, b, dealt} : new int[] {b, a, dealt});
+        }
+      }
+    }
+
+    int[][] scores = new int[pairings.size()][];
+    long start = System.nanoTime();
+    List<RecursiveAction> games = new ArrayList<>();
+    for (int i = 0; i < pairings.size(); i++) {
+      int index = i;
+      games.add(new RecursiveAction() {
+        @Override
+        protected void compute() {
+          int[] pairing = pairings.get(index);
+          try (SanguineStrategyInterface red = factories.get(pairing[0]).get();
+               SanguineStrategyInterface blue = factories.get(pairing[1]).get()) {
+            scores[index] = playGame(red, blue, pairing[2]);
+          }
+        }
+      });
+    }
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      pool.invoke(new RecursiveAction() {
+        @Override
+        protected void compute() {
+          invokeAll(games);
+        }
+      });
+    } finally {
+      pool.shutdown();
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    TournamentResult result = new TournamentResult(names, pairings.size() / seconds);
+    for (int i = 0; i < pairings.size(); i++) {
+      int[] pairing = pairings.get(i);
+      if (scores[i][2] == NO_FORFEIT) {
+        result.record(pairing[0], pairing[1], scores[i][0], scores[i][1]);
+      } else {
+        result.recordForfeit(pairing[0], pairing[1], scores[i][0], scores[i][1],
+            scores[i][2] == RED_FORFEITED);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Plays one game until both players pass in a row or one makes an
+   * illegal move.
+   *
+   * @return the red and blue scores, and who forfeited
+   */
+  private int[] playGame(SanguineStrategyInterface redStrategy,
+                         SanguineStrategyInterface blueStrategy, int deal) {
+    Random random = new Random(seed * 31 + deal);
+    Player red = deal(Color.RED, random);
+    Player blue = deal(Color.BLUE, random);
+    SanguineModel model = new SanguineModel(red, blue, rows, cols);
+
+    int passes = 0;
+    int forfeit = NO_FORFEIT;
+    int turnLimit = 4 * rows * cols;
+    for (int turn = 0; turn < turnLimit && passes < 2 && forfeit == NO_FORFEIT; turn++) {
+      boolean redToMove = model.getCurrentPlayer() == model.getRedPlayer();
+      SanguineStrategyInterface strategy = redToMove ? redStrategy : blueStrategy;
+      List<Move> moves = strategy.chooseMoves(model, model.getCurrentPlayer());
+      Move move = moves.isEmpty() ? null : moves.get(0);
+      if (move == null) {
+        model.pass();
+        passes++;
+      } else if (!model.isLegalMove(move.getRow(), move.getCol(), move.getCardIndex())) {
+        forfeit = redToMove ? RED_FORFEITED : BLUE_FORFEITED;
+      } else {
+        model.playCardFromHand(move.getRow(), move.getCol(), move.getCardIndex());
+        passes = 0;
+      }
+    }
+    model.setGameOver(true);
+    return new int[] {model.getPlayerScore(model.getRedPlayer()),
+        model.getPlayerScore(model.getBluePlayer()), forfeit};
+  }
+
+  private Player deal(Color color, Random random) {
+    List<Card> shuffled = new ArrayList<>(deck);
+    Collections.shuffle(shuffled, random);
+    return new Player(color, shuffled.subList(0, HAND_SIZE),
+        shuffled.subList(HAND_SIZE, shuffled.size()));
+  }
+
+  /**
+   * Runs a tournament between the built-in strategies and prints the
+   * results.
+   *
+   * @param args deck file (in the docs directory), rows, columns, games
+   *             per pair, and optionally the number of threads and the seed
+   */
+  public static void main(String[] args) {
+    if (args.length < 4) {
+      System.out.println("Usage: java sanguine.Tournament <deckFile> <rows> <cols> "
+          + "<gamesPerPair> [threads] [seed]");
+      return;
+    }
+    try {
+      List<Card> deck = Player.readDeck(args[0]);
+      int threads = args.length > 4 ? Integer.parseInt(args[4])
+          : Runtime.getRuntime().availableProcessors();
+      long seed = args.length > 5 ? Long.parseLong(args[5]) : 0;
+      Tournament tournament = new Tournament(deck, Integer.parseInt(args[1]),
+          Integer.parseInt(args[2]), Integer.parseInt(args[3]), threads, seed);
+      tournament.addEntrant("FillFirst", FillFirstStrategy::new);
+      tournament.addEntrant("MaxRowScore", MaximizeRowScoreStrategy::new);
+      tournament.addEntrant("ControlBoard", ControllBoardStrategy::new);
+      tournament.addEntrant("MiniMax", () -> new MiniMaxStrategy(new FillFirstStrategy()));
+      tournament.addEntrant("AlphaBeta(3)", () -> new AlphaBetaStrategy(3));
+      tournament.addEntrant("AlphaBeta(3)+Endgame",
+          () -> new EndgameStrategy(new AlphaBetaStrategy(3)));
+      tournament.addEntrant("MonteCarlo(200)", () -> new MonteCarloStrategy(200));
+      System.out.println(tournament.run());
+    } catch (IOException | IllegalArgumentException e) {
+      System.out.println("Error running tournament: " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,230 @@
+package sanguine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Results of a tournament: wins, draws and losses, forfeits, Elo rating and
+ * average score margin of every entrant, and how fast games were played.
+ * A forfeit counts as a loss for the entrant that forfeited.
+ * Elo ratings start at 1500 and are updated game by game in the order the
+ * games were scheduled, so they do not depend on which game finished first.
+ */
+public final class TournamentResult {
+  private static final double INITIAL_ELO = 1500;
+  private static final double K_FACTOR = 16;
+
+  private final List<String> names;
+  private final int[] wins;
+  private final int[] draws;
+  private final int[] losses;
+  private final int[] forfeits;
+  private final long[] margins;
+  private final double[] elo;
+  private final double gamesPerSecond;
+
+  /**
+   * Creates empty results.
+   *
+   * @param names          entrant names
+   * @param gamesPerSecond how fast the games were played
+   */
+  TournamentResult(List<String> names, double gamesPerSecond) {
+    this.names = List.copyOf(names);
+    this.wins = new int[names.size()];
+    this.draws = new int[names.size()];
+    this.losses = new int[names.size()];
+    this.forfeits = new int[names.size()];
+    this.margins = new long[names.size()];
+    this.elo = new double[names.size()];
+    this.gamesPerSecond = gamesPerSecond;
+    Arrays.fill(elo, INITIAL_ELO);
+  }
+
+  /**
+   * Records the result of one game.
+   *
+   * @param red       index of the red entrant
+   * @param blue      index of the blue entrant
+   * @param redScore  red's final score
+   * @param blueScore blue's final score
+   */
+  void record(int red, int blue, int redScore, int blueScore) {
+    if (redScore > blueScore) {
+      update(red, blue, 1, redScore, blueScore);
+    } else if (blueScore > redScore) {
+      update(red, blue, 0, redScore, blueScore);
+    } else {
+      update(red, blue, 0.5, redScore, blueScore);
+    }
+  }
+
+  /**
+   * Records a game one entrant lost by forfeit, whatever the score.
+   *
+   * @param red          index of the red entrant
+   * @param blue         index of the blue entrant
+   * @param redScore     red's score when the game stopped
+   * @param blueScore    blue's score when the game stopped
+   * @param redForfeited whether red forfeited; otherwise blue did
+   */
+  void recordForfeit(int red, int blue, int redScore, int blueScore, boolean redForfeited) {
+    forfeits[redForfeited ? red : blue]++;
+    update(red, blue, redForfeited ? 0 : 1, redScore, blueScore);
+  }
+
+  private void update(int red, int blue, double redResult, int redScore, int blueScore) {
+    if (redResult == 1) {
+      wins[red]++;
+      losses[blue]++;
+    } else if (redResult == 0) {
+      wins[blue]++;
+      losses[red]++;
+    } else {
+      draws[red]++;
+      draws[blue]++;
+    }
+    margins[red] += redScore - blueScore;
+    margins[blue] += blueScore - redScore;
+
+    double expected = 1 / (1 + Math.pow(10, (elo[blue] - elo[red]) / 400));
+    double change = K_FACTOR * (redResult - expected);
+    elo[red] += change;
+    elo[blue] -= change;
+  }
+
+  /**
+   * Gets the entrant names in the order they were added.
+   *
+   * @return the names
+   */
+  public List<String> getNames() {
+    return names;
+  }
+
+  /**
+   * Gets the number of games an entrant played.
+   *
+   * @param entrant index of the entrant
+   * @return the number of games
+   */
+  public int getGames(int entrant) {
+    return wins[entrant] + draws[entrant] + losses[entrant];
+  }
+
+  /**
+   * Gets the number of games an entrant won.
+   *
+   * @param entrant index of the entrant
+   * @return the number of wins
+   */
+  public int getWins(int entrant) {
+    return wins[entrant];
+  }
+
+  /**
+   * Gets the number of games an entrant drew.
+   *
+   * @param entrant index of the entrant
+   * @return the number of draws
+   */
+  public int getDraws(int entrant) {
+    return draws[entrant];
+  }
+
+  /**
+   * Gets the number of games an entrant lost.
+   *
+   * @param entrant index of the entrant
+   * @return the number of losses
+   */
+  public int getLosses(int entrant) {
+    return losses[entrant];
+  }
+
+  /**
+   * Gets the number of games an entrant lost by making an illegal move.
+   * These are included in its losses.
+   *
+   * @param entrant index of the entrant
+   * @return the number of forfeits
+   */
+  public int getForfeits(int entrant) {
+    return forfeits[entrant];
+  }
+
+  /**
+   * Gets the fraction of an entrant's games it won.
+   *
+   * @param entrant index of the entrant
+   * @return the win rate, from 0 to 1
+   */
+  public double getWinRate(int entrant) {
+    return getGames(entrant) == 0 ? 0 : (double) wins[entrant] / getGames(entrant);
+  }
+
+  /**
+   * Gets the fraction of an entrant's games that were drawn.
+   *
+   * @param entrant index of the entrant
+   * @return the draw rate, from 0 to 1
+   */
+  public double getDrawRate(int entrant) {
+    return getGames(entrant) == 0 ? 0 : (double) draws[entrant] / getGames(entrant);
+  }
+
+  /**
+   * Gets an entrant's Elo rating after all games.
+   *
+   * @param entrant index of the entrant
+   * @return the rating
+   */
+  public double getElo(int entrant) {
+    return elo[entrant];
+  }
+
+  /**
+   * Gets an entrant's average final score minus its opponent's.
+   *
+   * @param entrant index of the entrant
+   * @return the average margin
+   */
+  public double getAverageMargin(int entrant) {
+    return getGames(entrant) == 0 ? 0 : (double) margins[entrant] / getGames(entrant);
+  }
+
+  /**
+   * Gets how many games were played per second of wall-clock time.
+   *
+   * @return games per second
+   */
+  public double getGamesPerSecond() {
+    return gamesPerSecond;
+  }
+
+  /**
+   * Formats the results as a table, best Elo first.
+   *
+   * @return the table
+   */
+  @Override
+  public String toString() {
+    List<Integer> order = new ArrayList<>();
+    for (int i = 0; i < names.size(); i++) {
+      order.add(i);
+    }
+    order.sort((a, b) -> Double.compare(elo[b], elo[a]));
+
+    StringBuilder sb = new StringBuilder();
+    sb.append(String.format("%-20s %6s %6s %6s %8s %7s %7s %8s %8s%n",
+        "Strategy", "Games", "Wins", "Draws", "Forfeits", "Win%", "Draw%", "Elo", "Margin"));
+    for (int i : order) {
+      sb.append(String.format("%-20s %6d %6d %6d %8d %6.1f%% %6.1f%% %8.1f %8.2f%n",
+          names.get(i), getGames(i), wins[i], draws[i], forfeits[i], 100 * getWinRate(i),
+          100 * getDrawRate(i), elo[i], getAverageMargin(i)));
+    }
+    sb.append(String.format("%.1f games/sec", gamesPerSecond));
+    return sb.toString();
+  }
+}
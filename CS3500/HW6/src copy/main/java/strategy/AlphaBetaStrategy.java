@@ -0,0 +1,523 @@
+package strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import model.Card;
+import model.Cell;
+import model.PlayerInterface;
+import model.SanguineModelInterface;
+
+/**
+ * A strategy that searches several moves ahead using negamax with alpha-beta
+ * pruning. Searches with iterative deepening (depth 1, 2, ... up to the
+ * maximum depth) and stops early once the node budget is used up, returning
+ * the best moves of the deepest search that completed.
+ * Search runs on a copy of the model using applyMove and undoMove.
+ * An optional transposition table lets positions reached by different move
+ * orders be searched once, and supplies the best move to try first. The
+ * other moves are tried in the order of a MoveOrderer, which learns killer
+ * moves and history across the iterations and keeps the history from one
+ * move to the next.
+ *
+ * <p>With a parallelism above 1 the root moves of each iteration are split
+ * across a ForkJoinPool. Every worker searches on its own copy of the model
+ * and all workers share the transposition table and the node budget, so
+ * results can differ from run to run. With a parallelism of 1 the search is
+ * sequential and deterministic for a given sequence of calls. The history
+ * learned on earlier moves changes the search order, so a search cut short
+ * by the node budget can return different moves than a fresh strategy.
+ *
+ * <p>A strategy searches one move at a time; calls from several threads
+ * wait for each other.
+ */
+public class AlphaBetaStrategy implements SanguineStrategyInterface {
+  private static final int INFINITY = Integer.MAX_VALUE / 2;
+  private static final long DEFAULT_NODE_BUDGET = 200_000;
+  private static final long ONE_PASS_KEY = 0x2545F4914F6CDD1DL;
+  private final PositionEvaluator evaluator;
+  private final int maxDepth;
+  private final long nodeBudget;
+  private final TranspositionTable table;
+  private final ForkJoinPool pool;
+  // Kept between moves; one per worker thread in a parallel search
+  private final MoveOrderer orderer = new MoveOrderer();
+  private final Queue<MoveOrderer> workerOrderers = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Constructs an alpha-beta strategy.
+   *
+   * @param evaluator  how positions at the search horizon are scored
+   * @param maxDepth   maximum search depth in moves (plies)
+   * @param nodeBudget maximum number of positions visited per move once
+   *                   the depth 1 search is complete
+   * @throws IllegalArgumentException if any argument is invalid
+   */
+  public AlphaBetaStrategy(PositionEvaluator evaluator, int maxDepth, long nodeBudget) {
+    this(evaluator, maxDepth, nodeBudget, null);
+  }
+
+  /**
+   * Constructs an alpha-beta strategy that shares a transposition table.
+   *
+   * @param evaluator  how positions at the search horizon are scored
+   * @param maxDepth   maximum search depth in moves (plies)
+   * @param nodeBudget maximum number of positions visited per move once
+   *                   the depth 1 search is complete
+   * @param table      transposition table to use, or null for none
+   * @throws IllegalArgumentException if any argument is invalid
+   */
+  public AlphaBetaStrategy(PositionEvaluator evaluator, int maxDepth, long nodeBudget,
+                           TranspositionTable table) {
+    this(evaluator, maxDepth, nodeBudget, table, 1);
+  }
+
+  /**
+   * Constructs an alpha-beta strategy that searches root moves in parallel.
+   *
+   * @param evaluator   how positions at the search horizon are scored
+   * @param maxDepth    maximum search depth in moves (plies)
+   * @param nodeBudget  maximum number of positions visited per move, over
+   *                    all threads, once the depth 1 search is complete
+   * @param table       transposition table shared by all threads, or null
+   *                    for none
+   * @param parallelism number of threads to search with, 1 for a
+   *                    sequential search
+   * @throws IllegalArgumentException if any argument is invalid
+   */
+  public AlphaBetaStrategy(PositionEvaluator evaluator, int maxDepth, long nodeBudget,
+                           TranspositionTable table, int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be positive");
+    }
+    if (evaluator == null) {
+      throw new IllegalArgumentException("Evaluator cannot be null");
+    }
+    if (maxDepth < 1 || nodeBudget < 1) {
+      throw new IllegalArgumentException("Depth and node budget must be positive");
+    }
+    this.evaluator = evaluator;
+    this.maxDepth = maxDepth;
+    this.nodeBudget = nodeBudget;
+    this.table = table;
+    this.pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+  }
+
+  /**
+   * Constructs an alpha-beta strategy using the row score differential and
+   * the default node budget.
+   *
+   * @param maxDepth maximum search depth in moves (plies)
+   */
+  public AlphaBetaStrategy(int maxDepth) {
+    this(new RowScoreEvaluator(), maxDepth, DEFAULT_NODE_BUDGET);
+  }
+
+  /**
+   * Shuts down the worker threads of a parallel search.
+   */
+  @Override
+  public void close() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+  }
+
+  @Override
+  public synchronized List<Move> chooseMoves(SanguineModelInterface<Card, Cell<Card>> model,
+                                             PlayerInterface<Card> player) {
+    SanguineModelInterface<Card, Cell<Card>> search = model.copyModel();
+    PlayerInterface<Card> searchPlayer = player == model.getRedPlayer()
+        ? search.getRedPlayer() : search.getBluePlayer();
+    if (search.getCurrentPlayer() != searchPlayer) {
+      search.applyPass();
+    }
+
+    List<Move> rootMoves = legalMoves(search);
+    if (rootMoves.isEmpty()) {
+      return rootMoves;
+    }
+    if (table != null) {
+      table.newSearch();
+    }
+    orderer.newSearch();
+    for (MoveOrderer worker : workerOrderers) {
+      worker.newSearch();
+    }
+    // One count for the whole move, over every iteration
+    AtomicLong sharedNodes = pool == null ? null : new AtomicLong();
+    SearchContext context = pool == null ? new SearchContext(nodeBudget, null, orderer) : null;
+    Queue<SanguineModelInterface<Card, Cell<Card>>> workerModels =
+        new ConcurrentLinkedQueue<>();
+    int[] scores = new int[rootMoves.size()];
+    List<Move> bestMoves = new ArrayList<>(rootMoves);
+    for (int depth = 1; depth <= maxDepth; depth++) {
+      try {
+        if (pool == null) {
+          context.startIteration(depth);
+          bestMoves = searchRoot(search, rootMoves, depth, scores, context);
+        } else {
+          bestMoves = searchRootParallel(search, workerModels, workerOrderers, rootMoves, depth,
+              scores, sharedNodes);
+        }
+      } catch (SearchAborted e) {
+        break;
+      }
+      orderByScore(rootMoves, scores);
+    }
+    return inBoardOrder(bestMoves);
+  }
+
+  /**
+   * Searches every root move to the given depth. Moves are searched with a
+   * window just below the best score so far, so every move tied for best
+   * gets an exact score.
+   */
+  private List<Move> searchRoot(SanguineModelInterface<Card, Cell<Card>> model,
+                                List<Move> rootMoves, int depth, int[] scores,
+                                SearchContext context) {
+    List<Move> bestMoves = new ArrayList<>();
+    int bestScore = -INFINITY;
+    for (int i = 0; i < rootMoves.size(); i++) {
+      Move move = rootMoves.get(i);
+      model.applyMove(move.getRow(), move.getCol(), move.getCardIndex());
+      int score;
+      try {
+        score = -negamax(model, depth - 1, -INFINITY, -(bestScore - 1), 0, context);
+      } finally {
+        model.undoMove();
+      }
+      scores[i] = score;
+      if (score > bestScore) {
+        bestScore = score;
+        bestMoves.clear();
+        bestMoves.add(move);
+      } else if (score == bestScore) {
+        bestMoves.add(move);
+      }
+    }
+    return bestMoves;
+  }
+
+  /**
+   * Searches every root move to the given depth on the pool, one task per
+   * move. The window is shared through bestScore, so moves tied for best
+   * still get exact scores whatever order the tasks finish in. Model copies
+   * and move orderers are pooled across iterations.
+   *
+   * @throws SearchAborted if the node budget ran out
+   */
+  private List<Move> searchRootParallel(SanguineModelInterface<Card, Cell<Card>> model,
+                                        Queue<SanguineModelInterface<Card, Cell<Card>>> copies,
+                                        Queue<MoveOrderer> orderers, List<Move> rootMoves,
+                                        int depth, int[] scores, AtomicLong sharedNodes) {
+    AtomicInteger bestScore = new AtomicInteger(-INFINITY);
+    List<RecursiveAction> tasks = new ArrayList<>();
+    AtomicBoolean aborted = new AtomicBoolean();
+    for (int i = 0; i < rootMoves.size(); i++) {
+      int index = i;
+      tasks.add(new RecursiveAction() {
+        @Override
+        protected void compute() {
+          // Small tasks may never fill a batch, so check the count here too
+          if (aborted.get() || depth > 1 && sharedNodes.get() > nodeBudget) {
+            aborted.set(true);
+            return;
+          }
+          SanguineModelInterface<Card, Cell<Card>> copy = copies.poll();
+          if (copy == null) {
+            copy = model.copyModel();
+          }
+          MoveOrderer orderer = orderers.poll();
+          if (orderer == null) {
+            orderer = new MoveOrderer();
+          }
+          SearchContext context = new SearchContext(nodeBudget, sharedNodes, orderer);
+          context.startIteration(depth);
+          Move move = rootMoves.get(index);
+          copy.applyMove(move.getRow(), move.getCol(), move.getCardIndex());
+          try {
+            int alpha = bestScore.get() - 1;
+            int score = -negamax(copy, depth - 1, -INFINITY, -alpha, 0, context);
+            scores[index] = score;
+            bestScore.accumulateAndGet(score, Math::max);
+          } catch (SearchAborted e) {
+            aborted.set(true);
+          } finally {
+            context.flush();
+            copy.undoMove();
+            copies.add(copy);
+            orderers.add(orderer);
+          }
+        }
+      });
+    }
+    pool.invoke(new RecursiveAction() {
+      @Override
+      protected void compute() {
+        invokeAll(tasks);
+      }
+    });
+    if (aborted.get()) {
+      throw new SearchAborted();
+    }
+
+    List<Move> bestMoves = new ArrayList<>();
+    for (int i = 0; i < rootMoves.size(); i++) {
+      if (scores[i] == bestScore.get()) {
+        bestMoves.add(rootMoves.get(i));
+      }
+    }
+    return bestMoves;
+  }
+
+  /**
+   * Negamax search with alpha-beta pruning.
+   *
+   * @return the score of the position for the player to move
+   */
+  private int negamax(SanguineModelInterface<Card, Cell<Card>> model, int depth,
+                      int alpha, int beta, int passes, SearchContext context) {
+    context.visit();
+    if (depth == 0 || passes >= 2) {
+      return evaluator.evaluate(model, model.getCurrentPlayer());
+    }
+
+    int originalAlpha = alpha;
+    long key = 0;
+    int tableMove = -1;
+    if (table != null) {
+      key = passes == 0 ? model.getPositionKey() : model.getPositionKey() ^ ONE_PASS_KEY;
+      long entry = table.probe(key);
+      if (entry != 0) {
+        tableMove = TranspositionTable.move(entry);
+        if (TranspositionTable.depth(entry) >= depth) {
+          int score = TranspositionTable.score(entry);
+          int bound = TranspositionTable.bound(entry);
+          if (bound == TranspositionTable.EXACT) {
+            return score;
+          } else if (bound == TranspositionTable.LOWER_BOUND) {
+            alpha = Math.max(alpha, score);
+          } else {
+            beta = Math.min(beta, score);
+          }
+          if (alpha >= beta) {
+            return score;
+          }
+        }
+      }
+    }
+
+    int best = -INFINITY;
+    int bestMove = -1;
+    boolean moved = false;
+    if (tableMove >= 0 && isLegal(model, tableMove)) {
+      moved = true;
+      best = searchChild(model, tableMove, depth, alpha, beta, context);
+      bestMove = tableMove;
+      alpha = Math.max(alpha, best);
+      if (alpha >= beta) {
+        context.orderer.cutoff(model, tableMove, context.ply(depth), depth);
+      }
+    }
+
+    MoveGenerator moves = context.generator(depth);
+    int count = alpha < beta ? moves.generate(model) : 0;
+    if (count > 0) {
+      context.orderer.order(model, moves, count, context.ply(depth), -1);
+    }
+    for (int i = 0; i < count; i++) {
+      int move = moves.get(i);
+      if (move != tableMove) {
+        moved = true;
+        int score = searchChild(model, move, depth, alpha, beta, context);
+        if (score > best) {
+          best = score;
+          bestMove = move;
+          alpha = Math.max(alpha, best);
+          if (alpha >= beta) {
+            context.orderer.cutoff(model, move, context.ply(depth), depth);
+            break;
+          }
+        }
+      }
+    }
+
+    if (!moved) {
+      // No legal move: the only option is to pass
+      model.applyPass();
+      try {
+        best = -negamax(model, depth - 1, -beta, -alpha, passes + 1, context);
+      } finally {
+        model.undoMove();
+      }
+    }
+
+    if (table != null) {
+      int bound = TranspositionTable.EXACT;
+      if (best <= originalAlpha) {
+        bound = TranspositionTable.UPPER_BOUND;
+      } else if (best >= beta) {
+        bound = TranspositionTable.LOWER_BOUND;
+      }
+      table.store(key, depth, best, bound, bestMove);
+    }
+    return best;
+  }
+
+  /**
+   * Plays a packed move, searches the resulting position and takes it back.
+   *
+   * @return the score of the move for the player making it
+   */
+  private int searchChild(SanguineModelInterface<Card, Cell<Card>> model, int move,
+                          int depth, int alpha, int beta, SearchContext context) {
+    model.applyMove(Move.packedRow(move), Move.packedCol(move), Move.packedCard(move));
+    try {
+      return -negamax(model, depth - 1, -beta, -alpha, 0, context);
+    } finally {
+      model.undoMove();
+    }
+  }
+
+  private boolean isLegal(SanguineModelInterface<Card, Cell<Card>> model, int move) {
+    return model.isLegalMove(Move.packedRow(move), Move.packedCol(move), Move.packedCard(move));
+  }
+
+  private List<Move> legalMoves(SanguineModelInterface<Card, Cell<Card>> model) {
+    MoveGenerator generator = new MoveGenerator();
+    generator.generate(model);
+    return generator.toMoves();
+  }
+
+  /**
+   * Sorts moves (and their scores) best first, keeping the previous order
+   * for equal scores, so the next iteration searches likely best moves first.
+   */
+  private void orderByScore(List<Move> moves, int[] scores) {
+    for (int i = 1; i < moves.size(); i++) {
+      Move move = moves.get(i);
+      int score = scores[i];
+      int j = i - 1;
+      while (j >= 0 && scores[j] < score) {
+        moves.set(j + 1, moves.get(j));
+        scores[j + 1] = scores[j];
+        j--;
+      }
+      moves.set(j + 1, move);
+      scores[j + 1] = score;
+    }
+  }
+
+  /**
+   * Sorts moves leftmost card first, then top-to-bottom, left-to-right,
+   * the order the other strategies report ties in.
+   */
+  private List<Move> inBoardOrder(List<Move> moves) {
+    List<Move> sorted = new ArrayList<>(moves);
+    sorted.sort((a, b) -> {
+      if (a.getCardIndex() != b.getCardIndex()) {
+        return Integer.compare(a.getCardIndex(), b.getCardIndex());
+      }
+      if (a.getRow() != b.getRow()) {
+        return Integer.compare(a.getRow(), b.getRow());
+      }
+      return Integer.compare(a.getCol(), b.getCol());
+    });
+    return sorted;
+  }
+
+  /**
+   * Counts the positions visited during one call to chooseMoves. In a
+   * parallel search each task has its own context and adds its count to the
+   * shared total in batches, so threads do not contend on every node, and
+   * adds the rest when it finishes. A task can overrun the budget by at
+   * most one batch before it notices.
+   */
+  private static final class SearchContext {
+    private static final int BATCH = 1024;
+    private final long budget;
+    private final AtomicLong sharedNodes;
+    private final MoveOrderer orderer;
+    private int rootDepth;
+    private long nodes;
+    private boolean enforceBudget;
+    // One generator per remaining depth, since depth falls by one per ply
+    private MoveGenerator[] generators = new MoveGenerator[0];
+
+    private SearchContext(long budget, AtomicLong sharedNodes, MoveOrderer orderer) {
+      this.budget = budget;
+      this.sharedNodes = sharedNodes;
+      this.orderer = orderer;
+    }
+
+    /**
+     * Starts searching the root to a depth. The node count carries on from
+     * the previous iteration; the budget is only enforced past depth 1.
+     */
+    private void startIteration(int depth) {
+      rootDepth = depth;
+      enforceBudget = depth > 1;
+    }
+
+    /**
+     * Distance from the root of a position searched to a remaining depth.
+     * Every move and pass takes one depth, so this is the same whichever
+     * way the position was reached.
+     */
+    private int ply(int depth) {
+      return rootDepth - depth;
+    }
+
+    private MoveGenerator generator(int depth) {
+      if (depth >= generators.length) {
+        MoveGenerator[] bigger = new MoveGenerator[depth + 1];
+        System.arraycopy(generators, 0, bigger, 0, generators.length);
+        generators = bigger;
+      }
+      if (generators[depth] == null) {
+        generators[depth] = new MoveGenerator();
+      }
+      return generators[depth];
+    }
+
+    /**
+     * Adds the nodes visited since the last full batch to the shared count.
+     */
+    private void flush() {
+      if (sharedNodes != null) {
+        sharedNodes.addAndGet(nodes % BATCH);
+        nodes -= nodes % BATCH;
+      }
+    }
+
+    private void visit() {
+      nodes++;
+      if (sharedNodes == null) {
+        if (enforceBudget && nodes > budget) {
+          throw new SearchAborted();
+        }
+      } else if (nodes % BATCH == 0 && sharedNodes.addAndGet(BATCH) > budget
+          && enforceBudget) {
+        throw new SearchAborted();
+      }
+    }
+  }
+
+  /**
+   * Thrown to unwind the search when the node budget runs out.
+   */
+  private static final class SearchAborted extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private SearchAborted() {
+      super(null, null, false, false);
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import model.Card;
+import model.Cell;
+import model.PlayerInterface;
+import model.SanguineModelInterface;
+
+/**
+ * A strategy that plays from an opening book while the game is in it, and
+ * asks its delegate once it is not. A book move is returned only if it is
+ * legal, so a book built for another deck just misses.
+ */
+public class BookStrategy implements SanguineStrategyInterface {
+  private final OpeningBook book;
+  private final SanguineStrategyInterface delegate;
+
+  /**
+   * Constructs a book strategy.
+   *
+   * @param book     the opening book
+   * @param delegate chooses moves for positions not in the book
+   * @throws IllegalArgumentException if either argument is null
+   */
+  public BookStrategy(OpeningBook book, SanguineStrategyInterface delegate) {
+    if (book == null || delegate == null) {
+      throw new IllegalArgumentException("Book and delegate cannot be null");
+    }
+    this.book = book;
+    this.delegate = delegate;
+  }
+
+  /**
+   * Closes the delegate.
+   */
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  @Override
+  public List<Move> chooseMoves(SanguineModelInterface<Card, Cell<Card>> model,
+                                PlayerInterface<Card> player) {
+    // A finished game can repeat the opening board, so it is never in book
+    if (player == model.getCurrentPlayer() && !model.isGameOver()) {
+      Move move = book.lookup(model);
+      if (move != null && model.isLegalMove(move.getRow(), move.getCol(), move.getCardIndex())) {
+        List<Move> moves = new ArrayList<>();
+        moves.add(move);
+        return moves;
+      }
+    }
+    return delegate.chooseMoves(model, player);
+  }
+}
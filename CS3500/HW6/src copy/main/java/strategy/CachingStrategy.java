@@ -0,0 +1,166 @@
+package strategy;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import model.Card;
+import model.Cell;
+import model.PlayerInterface;
+import model.SanguineModelInterface;
+import model.ZobristKeys;
+
+/**
+ * A strategy that remembers the moves its delegate chose for recent
+ * positions, so asking again for a position it has seen costs a hash
+ * lookup. This helps where one strategy is asked about the same position
+ * several times, such as a sub-strategy shared by several composites, or
+ * the opponent model of a MiniMaxStrategy that is also one of the player's
+ * own strategies.
+ *
+ * <p>A position is identified by the model's position key (the board,
+ * both hands and the player to move), the board size, which player the
+ * moves are for and that player's hand in order, since moves name cards by
+ * their index. The delegate must choose the same moves whenever it sees
+ * the same position; a strategy that draws on randomness or on the decks
+ * would have its first answer repeated.
+ *
+ * <p>At most a fixed number of positions are kept, dropping the least
+ * recently used. The cache is safe to share between threads; the delegate
+ * is called outside the lock, so it must be too.
+ */
+public class CachingStrategy implements SanguineStrategyInterface {
+  private final SanguineStrategyInterface delegate;
+  private final Map<Key, List<Move>> cache;
+  private long hits;
+  private long misses;
+
+  /**
+   * Constructs a caching strategy.
+   *
+   * @param delegate the strategy whose moves are cached
+   * @param capacity most positions to keep
+   * @throws IllegalArgumentException if delegate is null or capacity is
+   *                                  not positive
+   */
+  public CachingStrategy(SanguineStrategyInterface delegate, int capacity) {
+    if (delegate == null) {
+      throw new IllegalArgumentException("Delegate cannot be null");
+    }
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive");
+    }
+    this.delegate = delegate;
+    this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, List<Move>> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * Closes the delegate.
+   */
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  @Override
+  public List<Move> chooseMoves(SanguineModelInterface<Card, Cell<Card>> model,
+                                PlayerInterface<Card> player) {
+    Key key = new Key(model, player);
+    List<Move> moves;
+    synchronized (cache) {
+      moves = cache.get(key);
+      if (moves != null) {
+        hits++;
+        return new ArrayList<>(moves);
+      }
+      misses++;
+    }
+    moves = List.copyOf(delegate.chooseMoves(model, player));
+    synchronized (cache) {
+      cache.put(key, moves);
+    }
+    return new ArrayList<>(moves);
+  }
+
+  /**
+   * Number of calls answered from the cache.
+   *
+   * @return the hit count
+   */
+  public long getHits() {
+    synchronized (cache) {
+      return hits;
+    }
+  }
+
+  /**
+   * Number of calls passed on to the delegate.
+   *
+   * @return the miss count
+   */
+  public long getMisses() {
+    synchronized (cache) {
+      return misses;
+    }
+  }
+
+  /**
+   * Number of positions currently cached.
+   *
+   * @return the cache size
+   */
+  public int size() {
+    synchronized (cache) {
+      return cache.size();
+    }
+  }
+
+  /**
+   * Forgets every cached position. The counters are kept.
+   */
+  public void clear() {
+    synchronized (cache) {
+      cache.clear();
+    }
+  }
+
+  /**
+   * Identifies the position and player a list of moves was chosen for.
+   */
+  private static final class Key {
+    private final long position;
+    private final long hand;
+    private final int shape;
+
+    private Key(SanguineModelInterface<Card, Cell<Card>> model, PlayerInterface<Card> player) {
+      this.position = model.getPositionKey();
+      // The position key ignores the order of hands; card indexes do not
+      long handKey = 0;
+      for (Card card : player.getHand()) {
+        handKey = handKey * 0x9E3779B97F4A7C15L + ZobristKeys.cardId(card);
+      }
+      this.hand = handKey;
+      this.shape = (model.getNumRows() << 16 | model.getNumCols()) << 1
+          | (player == model.getRedPlayer() ? 0 : 1);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) other;
+      return position == key.position && hand == key.hand && shape == key.shape;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(position ^ hand * 31) ^ shape;
+    }
+  }
+}
@@ -57,6 +57,16 @@ public class CompositeStrategy implements SanguineStrategyInterface {
     this.strategies.add(third);
   }
 
+  /**
+   * Closes every chained strategy.
+   */
+  @Override
+  public void close() {
+    for (SanguineStrategyInterface strategy : strategies) {
+      strategy.close();
+    }
+  }
+
   @Override
   public List<Move> chooseMoves(SanguineModelInterface<Card, Cell<Card>> model,
                                 PlayerInterface<Card> player) {
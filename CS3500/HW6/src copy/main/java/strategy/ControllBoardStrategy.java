@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import model.Card;
 import model.Cell;
+import model.InfluenceTable;
 import model.PlayerInterface;
 import model.SanguineModelInterface;
 
@@ -20,14 +21,17 @@ public class ControllBoardStrategy implements SanguineStrategyInterface {
 
     List<Move> bestMoves = new ArrayList<>();
     int maxCellsControlled = -1;
+    InfluenceTable influence = InfluenceTable.forBoard(model.getNumRows(), model.getNumCols());
+    // The board does not change between candidates
+    int currentCells = model.getOwnedCellCount(player);
 
     for (int cardIdx = 0; cardIdx < player.getHand().size(); cardIdx++) {
       // Try each position (top-to-bottom, left-to-right)
       for (int row = 0; row < model.getNumRows(); row++) {
         for (int col = 0; col < model.getNumCols(); col++) {
           if (model.isLegalMove(row, col, cardIdx)) {
-            int cellsControlled = calculateCellsControlled(model, player,
-                row, col, cardIdx);
+            int cellsControlled = calculateCellsControlled(model, player, influence,
+                currentCells, row, col, cardIdx);
 
             if (cellsControlled > maxCellsControlled) {
               // Found a better move
@@ -46,53 +50,26 @@ public class ControllBoardStrategy implements SanguineStrategyInterface {
   }
 
   private int calculateCellsControlled(SanguineModelInterface<Card, Cell<Card>> model,
-                                       PlayerInterface<Card> player, int row, int col,
-                                       int cardIdx) {
-    int currentCells = countPlayerCells(model, player);
-
+                                       PlayerInterface<Card> player,
+                                       InfluenceTable influence, int currentCells,
+                                       int row, int col, int cardIdx) {
     Card card = player.getHand().get(cardIdx);
-    boolean[][] influence = card.getInfluence();
+    int cols = model.getNumCols();
     int potentialNewCells = 0;
 
-    for (int i = 0; i < 5; i++) {
-      for (int j = 0; j < 5; j++) {
-        if (influence[i][j]) {
-          int targetRow = row + i - 2;
-          int targetCol = col + j - 2;
-
-          // Check if target is in bounds
-          if (targetRow >= 0 && targetRow < model.getNumRows()
-              && targetCol >= 0 && targetCol < model.getNumCols()) {
-
-            Cell<Card> targetCell = model.getCellAt(targetRow, targetCol);
+    for (int target : influence.targets(card, row, col)) {
+      Cell<Card> targetCell = model.getCellAt(target / cols, target % cols);
 
-            // If cell is empty, we'll gain it
-            if (targetCell.isEmpty()) {
-              potentialNewCells++;
-            } else if (targetCell.getOwner() != player
-                && targetCell.getCard() == null
-                && targetCell.getNumPawns() == 1) {
-              potentialNewCells++;
-            }
-          }
-        }
+      // If cell is empty, we'll gain it
+      if (targetCell.isEmpty()) {
+        potentialNewCells++;
+      } else if (targetCell.getOwner() != player
+          && targetCell.getCard() == null
+          && targetCell.getNumPawns() == 1) {
+        potentialNewCells++;
       }
     }
     return currentCells + potentialNewCells;
   }
-
-  private int countPlayerCells(SanguineModelInterface<Card, Cell<Card>> model,
-                               PlayerInterface<Card> player) {
-    int count = 0;
-    for (int row = 0; row < model.getNumRows(); row++) {
-      for (int col = 0; col < model.getNumCols(); col++) {
-        Cell<Card> cell = model.getCellAt(row, col);
-        if (!cell.isEmpty() && cell.getOwner() == player) {
-          count++;
-        }
-      }
-    }
-    return count;
-  }
 }
 
@@ -0,0 +1,237 @@
+package strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import model.Card;
+import model.Cell;
+import model.PlayerInterface;
+import model.SanguineModelInterface;
+
+/**
+ * A strategy that plays endgames perfectly. Once both decks are empty the
+ * rest of the game depends only on the board and the two hands, so when
+ * the cards left in both hands are no more than a threshold it searches
+ * every line of play to the end of the game and picks the moves that
+ * leave the best final score margin. Before that it asks its delegate.
+ *
+ * <p>The search considers every move and, at each turn, passing, since a
+ * player may pass whenever they like. It is exact: alpha-beta pruning
+ * only skips lines that cannot change the result. Solved positions are
+ * memoised in a transposition table keyed by the position key, which
+ * covers the board, both hands and the player to move, and the table is
+ * kept between calls, so the positions of the following turns are mostly
+ * solved already. Moves are tried in the order of a MoveOrderer, the
+ * table's best move first.
+ */
+public class EndgameStrategy implements SanguineStrategyInterface {
+  private static final int DEFAULT_MAX_CARDS = 8;
+  private static final int DEFAULT_TABLE_SIZE = 1 << 18;
+  private static final int INFINITY = Integer.MAX_VALUE / 2;
+  private static final long ONE_PASS_KEY = 0x2545F4914F6CDD1DL;
+  private final SanguineStrategyInterface delegate;
+  private final int maxCards;
+  private final TranspositionTable table;
+  // One generator per ply, since the search recurses while looping
+  private final List<MoveGenerator> generators = new ArrayList<>();
+  private final MoveOrderer orderer = new MoveOrderer();
+
+  /**
+   * Constructs an endgame strategy.
+   *
+   * @param delegate chooses moves until the endgame can be solved
+   * @param maxCards the most cards left in both hands, together, for the
+   *                 endgame to be solved
+   * @param table    transposition table to memoise solved positions in;
+   *                 its scores are final margins, so it must not be
+   *                 shared with a search using a different evaluation
+   * @throws IllegalArgumentException if any argument is invalid
+   */
+  public EndgameStrategy(SanguineStrategyInterface delegate, int maxCards,
+                         TranspositionTable table) {
+    if (delegate == null || table == null) {
+      throw new IllegalArgumentException("Delegate and table cannot be null");
+    }
+    if (maxCards < 0) {
+      throw new IllegalArgumentException("Card threshold cannot be negative");
+    }
+    this.delegate = delegate;
+    this.maxCards = maxCards;
+    this.table = table;
+  }
+
+  /**
+   * Constructs an endgame strategy that solves once there are at most 8
+   * cards left in both hands.
+   *
+   * @param delegate chooses moves until the endgame can be solved
+   */
+  public EndgameStrategy(SanguineStrategyInterface delegate) {
+    this(delegate, DEFAULT_MAX_CARDS, new TranspositionTable(DEFAULT_TABLE_SIZE));
+  }
+
+  /**
+   * Checks whether a position is an endgame this strategy solves.
+   *
+   * @param model the model of the game
+   * @return true if both decks are empty and few enough cards are left
+   */
+  public boolean canSolve(SanguineModelInterface<Card, Cell<Card>> model) {
+    PlayerInterface<Card> red = model.getRedPlayer();
+    PlayerInterface<Card> blue = model.getBluePlayer();
+    return red.getDeckSize() == 0 && blue.getDeckSize() == 0
+        && red.getHand().size() + blue.getHand().size() <= maxCards;
+  }
+
+  /**
+   * Closes the delegate.
+   */
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>In a solved endgame the moves returned are every move that reaches
+   * the best final margin, in board order; the list is empty if passing
+   * is strictly better than any move.
+   */
+  @Override
+  public List<Move> chooseMoves(SanguineModelInterface<Card, Cell<Card>> model,
+                                PlayerInterface<Card> player) {
+    if (!canSolve(model)) {
+      return delegate.chooseMoves(model, player);
+    }
+    SanguineModelInterface<Card, Cell<Card>> search = model.copyModel();
+    PlayerInterface<Card> searchPlayer = player == model.getRedPlayer()
+        ? search.getRedPlayer() : search.getBluePlayer();
+    if (search.getCurrentPlayer() != searchPlayer) {
+      search.applyPass();
+    }
+
+    orderer.newSearch();
+    MoveGenerator generator = new MoveGenerator();
+    generator.generate(search);
+    List<Move> bestMoves = new ArrayList<>();
+    // The model does not say whether the opponent just passed, so passing
+    // is scored as if the game goes on
+    search.applyPass();
+    int best;
+    try {
+      best = -solve(search, 1, 1, -INFINITY, INFINITY);
+    } finally {
+      search.undoMove();
+    }
+    // Moves are searched with a window just below the best score so far,
+    // so every move tied for best gets an exact score
+    for (int i = 0; i < generator.size(); i++) {
+      int move = generator.get(i);
+      search.applyMove(Move.packedRow(move), Move.packedCol(move), Move.packedCard(move));
+      int score;
+      try {
+        score = -solve(search, 0, 1, -INFINITY, -(best - 1));
+      } finally {
+        search.undoMove();
+      }
+      if (score > best) {
+        best = score;
+        bestMoves.clear();
+      }
+      if (score == best) {
+        bestMoves.add(Move.fromPacked(move));
+      }
+    }
+    return bestMoves;
+  }
+
+  /**
+   * Searches a position to the end of the game.
+   *
+   * @param passes number of passes in a row just made
+   * @return the final margin of the player to move over the opponent
+   */
+  private int solve(SanguineModelInterface<Card, Cell<Card>> model, int passes, int ply,
+                    int alpha, int beta) {
+    if (passes >= 2) {
+      return margin(model);
+    }
+    long key = passes == 0 ? model.getPositionKey() : model.getPositionKey() ^ ONE_PASS_KEY;
+    long entry = table.probe(key);
+    int tableMove = entry == 0 ? -1 : TranspositionTable.move(entry);
+    if (entry != 0 && TranspositionTable.depth(entry) == TranspositionTable.MAX_DEPTH) {
+      int score = TranspositionTable.score(entry);
+      int bound = TranspositionTable.bound(entry);
+      if (bound == TranspositionTable.EXACT
+          || bound == TranspositionTable.LOWER_BOUND && score >= beta
+          || bound == TranspositionTable.UPPER_BOUND && score <= alpha) {
+        return score;
+      }
+    }
+
+    int originalAlpha = alpha;
+    model.applyPass();
+    int best;
+    try {
+      best = -solve(model, passes + 1, ply + 1, -beta, -alpha);
+    } finally {
+      model.undoMove();
+    }
+    alpha = Math.max(alpha, best);
+    int bestMove = -1;
+
+    if (alpha < beta) {
+      MoveGenerator moves = generator(ply);
+      int count = moves.generate(model);
+      orderer.order(model, moves, count, ply, tableMove);
+      for (int i = 0; i < count; i++) {
+        int move = moves.get(i);
+        model.applyMove(Move.packedRow(move), Move.packedCol(move), Move.packedCard(move));
+        int score;
+        try {
+          score = -solve(model, 0, ply + 1, -beta, -alpha);
+        } finally {
+          model.undoMove();
+        }
+        if (score > best) {
+          best = score;
+          bestMove = move;
+          alpha = Math.max(alpha, best);
+          if (alpha >= beta) {
+            // Every card left is a ply still to play
+            orderer.cutoff(model, move, ply, cardsLeft(model));
+            break;
+          }
+        }
+      }
+    }
+
+    int bound = TranspositionTable.EXACT;
+    if (best <= originalAlpha) {
+      bound = TranspositionTable.UPPER_BOUND;
+    } else if (best >= beta) {
+      bound = TranspositionTable.LOWER_BOUND;
+    }
+    // Solved to the end, so the entry holds whatever search depth is asked
+    table.store(key, TranspositionTable.MAX_DEPTH, best, bound, bestMove);
+    return best;
+  }
+
+  private int margin(SanguineModelInterface<Card, Cell<Card>> model) {
+    PlayerInterface<Card> player = model.getCurrentPlayer();
+    PlayerInterface<Card> opponent = player == model.getRedPlayer()
+        ? model.getBluePlayer() : model.getRedPlayer();
+    return model.getPlayerScore(player) - model.getPlayerScore(opponent);
+  }
+
+  private static int cardsLeft(SanguineModelInterface<Card, Cell<Card>> model) {
+    return model.getRedPlayer().getHand().size() + model.getBluePlayer().getHand().size();
+  }
+
+  private MoveGenerator generator(int ply) {
+    while (generators.size() <= ply) {
+      generators.add(new MoveGenerator());
+    }
+    return generators.get(ply);
+  }
+}
@@ -24,6 +24,16 @@ public class MiniMaxStrategy implements SanguineStrategyInterface {
     this.opponentStrategy = opponentStrategy;
   }
 
+  /**
+   * Closes the opponent's strategy.
+   */
+  @Override
+  public void close() {
+    if (opponentStrategy != null) {
+      opponentStrategy.close();
+    }
+  }
+
   @Override
   public List<Move> chooseMoves(SanguineModelInterface<Card, Cell<Card>> model,
                                 PlayerInterface<Card> player) {
@@ -31,6 +41,9 @@ public class MiniMaxStrategy implements SanguineStrategyInterface {
     int bestScore = Integer.MIN_VALUE;
 
     PlayerInterface<Card> opponent = getOpponent(model, player);
+    // The model does not change between candidates, so the opponent's
+    // replies are the same for every candidate move
+    List<Move> opponentMoves = opponentStrategy.chooseMoves(model, opponent);
     for (int cardIdx = 0; cardIdx < player.getHand().size(); cardIdx++) {
       for (int row = 0; row < model.getNumRows(); row++) {
         for (int col = 0; col < model.getNumCols(); col++) {
@@ -38,7 +51,7 @@ public class MiniMaxStrategy implements SanguineStrategyInterface {
             Move move = new Move(cardIdx, row, col);
 
 
-            int score = evaluateMove(model, player, opponent, move);
+            int score = evaluateMove(model, player, opponent, move, opponentMoves);
 
             if (score > bestScore) {
               bestScore = score;
@@ -63,19 +76,19 @@ public class MiniMaxStrategy implements SanguineStrategyInterface {
    * @param player   the player making the move
    * @param opponent the opponent
    * @param move     the move to evaluate
+   * @param opponentMoves the opponent's replies chosen by its strategy
    * @return score (higher is better for player)
    */
   private int evaluateMove(SanguineModelInterface<Card, Cell<Card>> model,
                            PlayerInterface<Card> player,
                            PlayerInterface<Card> opponent,
-                           Move move) {
+                           Move move,
+                           List<Move> opponentMoves) {
     // Calculate immediate score after our move
     Card ourCard = player.getHand().get(move.getCardIndex());
     int ourCurrentScore = model.getPlayerScore(player);
     int ourScoreAfterMove = ourCurrentScore + ourCard.getValue();
 
-    List<Move> opponentMoves = opponentStrategy.chooseMoves(model, opponent);
-
     if (opponentMoves.isEmpty()) {
       return ourScoreAfterMove + 1000;
     }
@@ -0,0 +1,414 @@
+package strategy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.Card;
+import model.Cell;
+import model.Player;
+import model.PlayerInterface;
+import model.SanguineModelInterface;
+import model.ZobristKeys;
+
+/**
+ * A strategy that uses Monte Carlo tree search (UCT) with random playouts.
+ *
+ * <p>The opponent's hand and both decks are hidden, so each search tree is
+ * built on a determinization: a guess of the hidden cards drawn at random
+ * from the cards of the deck file that have not been seen yet. Many trees
+ * over different guesses are searched and the visit counts of the root
+ * moves are added up; the most visited moves are chosen.
+ *
+ * <p>Playouts are shared between worker threads on a ForkJoinPool until the
+ * playout budget or the time limit runs out. With one thread and no time
+ * limit the search is deterministic for a given seed.
+ */
+public class MonteCarloStrategy implements SanguineStrategyInterface {
+  private static final int PASS = -1;
+  private static final int PLAYOUTS_PER_TREE = 256;
+  private static final double EXPLORATION = Math.sqrt(2);
+  private static final int RED = 0;
+  private static final int BLUE = 1;
+
+  private final int playouts;
+  private final long timeLimitMillis;
+  private final List<Card> deckCards;
+  private final long seed;
+  private final ForkJoinPool pool;
+  private final int parallelism;
+
+  /**
+   * Constructs a Monte Carlo strategy.
+   *
+   * @param playouts        maximum number of playouts per move
+   * @param timeLimitMillis maximum time per move in milliseconds, or 0 for
+   *                        no limit
+   * @param parallelism     number of threads running playouts
+   * @param deckCards       every card of the deck file both players drew
+   *                        from, used to guess hidden cards, or null to
+   *                        search the hands as they are
+   * @param seed            seed for the random guesses and playouts
+   * @throws IllegalArgumentException if any number is out of range
+   */
+  public MonteCarloStrategy(int playouts, long timeLimitMillis, int parallelism,
+                            List<Card> deckCards, long seed) {
+    if (playouts < 1 || timeLimitMillis < 0 || parallelism < 1) {
+      throw new IllegalArgumentException("Invalid search budget");
+    }
+    this.playouts = playouts;
+    this.timeLimitMillis = timeLimitMillis;
+    this.parallelism = parallelism;
+    this.deckCards = deckCards == null ? null : new ArrayList<>(deckCards);
+    this.seed = seed;
+    this.pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+  }
+
+  /**
+   * Constructs a single-threaded Monte Carlo strategy with no time limit
+   * that searches the hands as they are.
+   *
+   * @param playouts maximum number of playouts per move
+   */
+  public MonteCarloStrategy(int playouts) {
+    this(playouts, 0, 1, null, 0);
+  }
+
+  /**
+   * Shuts down the worker threads of a parallel search.
+   */
+  @Override
+  public void close() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+  }
+
+  @Override
+  public List<Move> chooseMoves(SanguineModelInterface<Card, Cell<Card>> model,
+                                PlayerInterface<Card> player) {
+    SanguineModelInterface<Card, Cell<Card>> root = model.copyModel();
+    PlayerInterface<Card> rootPlayer = player == model.getRedPlayer()
+        ? root.getRedPlayer() : root.getBluePlayer();
+    if (root.getCurrentPlayer() != rootPlayer) {
+      root.applyPass();
+    }
+    int[] rootMoves = legalMoves(root);
+    if (rootMoves.length == 0) {
+      return new ArrayList<>();
+    }
+
+    long deadline = timeLimitMillis == 0 ? Long.MAX_VALUE
+        : System.nanoTime() + timeLimitMillis * 1_000_000;
+    RootStats stats = new RootStats(rootMoves);
+    AtomicInteger remaining = new AtomicInteger(playouts);
+    List<Card> redUnseen = unseenCards(root, root.getRedPlayer(), rootPlayer);
+    List<Card> blueUnseen = unseenCards(root, root.getBluePlayer(), rootPlayer);
+
+    if (pool == null) {
+      runWorker(root, 0, rootPlayer, redUnseen, blueUnseen, remaining, deadline, stats);
+    } else {
+      List<RecursiveAction> workers = new ArrayList<>();
+      for (int i = 0; i < parallelism; i++) {
+        int worker = i;
+        SanguineModelInterface<Card, Cell<Card>> copy = root.copyModel();
+        PlayerInterface<Card> copyPlayer = rootPlayer == root.getRedPlayer()
+            ? copy.getRedPlayer() : copy.getBluePlayer();
+        workers.add(new RecursiveAction() {
+          @Override
+          protected void compute() {
+            runWorker(copy, worker, copyPlayer, redUnseen, blueUnseen, remaining, deadline,
+                stats);
+          }
+        });
+      }
+      pool.invoke(new RecursiveAction() {
+        @Override
+        protected void compute() {
+          invokeAll(workers);
+        }
+      });
+    }
+    return stats.mostVisited();
+  }
+
+  /**
+   * Builds trees on fresh determinizations of the model until the budget
+   * runs out, adding each tree's root statistics to the shared totals.
+   */
+  private void runWorker(SanguineModelInterface<Card, Cell<Card>> model, int worker,
+                         PlayerInterface<Card> rootPlayer, List<Card> redUnseen,
+                         List<Card> blueUnseen, AtomicInteger remaining, long deadline,
+                         RootStats stats) {
+    Random random = new Random(seed + 0x9E3779B97F4A7C15L * worker);
+    MoveGenerator moves = new MoveGenerator();
+    while (System.nanoTime() < deadline) {
+      int batch = claim(remaining);
+      if (batch == 0) {
+        return;
+      }
+      determinize(model, model.getRedPlayer(), redUnseen, rootPlayer, random);
+      determinize(model, model.getBluePlayer(), blueUnseen, rootPlayer, random);
+      Node root = new Node(null, PASS, -1, 0);
+      for (int i = 0; i < batch; i++) {
+        if (i % 16 == 15 && System.nanoTime() >= deadline) {
+          break;
+        }
+        iterate(model, root, random, moves);
+      }
+      stats.add(root);
+    }
+  }
+
+  private int claim(AtomicInteger remaining) {
+    while (true) {
+      int left = remaining.get();
+      int batch = Math.min(left, PLAYOUTS_PER_TREE);
+      if (batch == 0 || remaining.compareAndSet(left, left - batch)) {
+        return batch;
+      }
+    }
+  }
+
+  /**
+   * One round of selection, expansion, playout and backpropagation. The
+   * model is returned to the root position afterwards.
+   */
+  private void iterate(SanguineModelInterface<Card, Cell<Card>> model, Node root,
+                       Random random, MoveGenerator moves) {
+    Node node = root;
+    int applied = 0;
+    while (node.passes < 2) {
+      if (node.untried == null) {
+        node.untried = legalMovesOrPass(model, moves);
+        node.untriedCount = node.untried.length;
+      }
+      if (node.untriedCount > 0) {
+        int pick = random.nextInt(node.untriedCount);
+        int move = node.untried[pick];
+        node.untried[pick] = node.untried[--node.untriedCount];
+        int mover = moverOf(model);
+        apply(model, move);
+        applied++;
+        node = node.addChild(move, mover);
+        break;
+      }
+      node = node.select();
+      apply(model, node.move);
+      applied++;
+    }
+
+    applied += playout(model, node.passes, random, moves);
+    double redReward = redReward(model);
+    for (Node n = node; n.parent != null; n = n.parent) {
+      n.visits++;
+      n.reward += n.mover == RED ? redReward : 1 - redReward;
+    }
+    root.visits++;
+    for (int i = 0; i < applied; i++) {
+      model.undoMove();
+    }
+  }
+
+  /**
+   * Plays random moves until both players pass in a row.
+   *
+   * @return the number of moves played
+   */
+  private int playout(SanguineModelInterface<Card, Cell<Card>> model, int passes,
+                      Random random, MoveGenerator moves) {
+    int played = 0;
+    int limit = 4 * model.getNumRows() * model.getNumCols();
+    while (passes < 2 && played < limit) {
+      int count = moves.generate(model);
+      if (count == 0) {
+        model.applyPass();
+        passes++;
+      } else {
+        apply(model, moves.get(random.nextInt(count)));
+        passes = 0;
+      }
+      played++;
+    }
+    return played;
+  }
+
+  private double redReward(SanguineModelInterface<Card, Cell<Card>> model) {
+    int red = model.getPlayerScore(model.getRedPlayer());
+    int blue = model.getPlayerScore(model.getBluePlayer());
+    return red > blue ? 1 : red < blue ? 0 : 0.5;
+  }
+
+  private int moverOf(SanguineModelInterface<Card, Cell<Card>> model) {
+    return model.getCurrentPlayer() == model.getRedPlayer() ? RED : BLUE;
+  }
+
+  private void apply(SanguineModelInterface<Card, Cell<Card>> model, int move) {
+    if (move == PASS) {
+      model.applyPass();
+    } else {
+      model.applyMove(Move.packedRow(move), Move.packedCol(move), Move.packedCard(move));
+    }
+  }
+
+  private int[] legalMovesOrPass(SanguineModelInterface<Card, Cell<Card>> model,
+                                 MoveGenerator moves) {
+    return moves.generate(model) == 0 ? new int[] {PASS} : moves.toArray();
+  }
+
+  private int[] legalMoves(SanguineModelInterface<Card, Cell<Card>> model) {
+    MoveGenerator generator = new MoveGenerator();
+    generator.generate(model);
+    return generator.toArray();
+  }
+
+  /**
+   * Cards of the deck file a player has not played yet. For the searching
+   * player the cards in hand are known, so they are removed too.
+   */
+  private List<Card> unseenCards(SanguineModelInterface<Card, Cell<Card>> model,
+                                 PlayerInterface<Card> owner, PlayerInterface<Card> me) {
+    if (deckCards == null) {
+      return null;
+    }
+    List<Card> unseen = new ArrayList<>(deckCards);
+    for (int row = 0; row < model.getNumRows(); row++) {
+      for (int col = 0; col < model.getNumCols(); col++) {
+        Card card = model.getCellAt(row, col).getCard();
+        if (card != null && model.getCellOwner(row, col) == owner) {
+          removeMatching(unseen, card);
+        }
+      }
+    }
+    if (owner == me) {
+      for (Card card : owner.getHand()) {
+        removeMatching(unseen, card);
+      }
+    }
+    return unseen;
+  }
+
+  private void removeMatching(List<Card> cards, Card card) {
+    long id = ZobristKeys.cardId(card);
+    for (int i = 0; i < cards.size(); i++) {
+      if (ZobristKeys.cardId(cards.get(i)) == id) {
+        cards.remove(i);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Deals a player a random guess of its hidden cards: the deck order for
+   * the searching player, and the hand and deck for the opponent.
+   */
+  private void determinize(SanguineModelInterface<Card, Cell<Card>> model,
+                           PlayerInterface<Card> player, List<Card> unseen,
+                           PlayerInterface<Card> me, Random random) {
+    if (unseen == null || !(player instanceof Player)) {
+      return;
+    }
+    List<Card> shuffled = new ArrayList<>(unseen);
+    Collections.shuffle(shuffled, random);
+    List<Card> hand = player.getHand();
+    if (player != me) {
+      if (shuffled.size() < hand.size()) {
+        return;
+      }
+      hand = new ArrayList<>(shuffled.subList(0, hand.size()));
+      shuffled = new ArrayList<>(shuffled.subList(hand.size(), shuffled.size()));
+    }
+    ((Player) player).replaceCards(hand, shuffled);
+  }
+
+  /**
+   * A node of one search tree. The move leads to this node from its parent
+   * and reward is counted for the player who made it.
+   */
+  private static final class Node {
+    private final Node parent;
+    private final int move;
+    private final int mover;
+    private final int passes;
+    private final List<Node> children = new ArrayList<>();
+    private int[] untried;
+    private int untriedCount;
+    private int visits;
+    private double reward;
+
+    private Node(Node parent, int move, int mover, int passes) {
+      this.parent = parent;
+      this.move = move;
+      this.mover = mover;
+      this.passes = passes;
+    }
+
+    private Node addChild(int move, int mover) {
+      Node child = new Node(this, move, mover, move == PASS ? passes + 1 : 0);
+      children.add(child);
+      return child;
+    }
+
+    /**
+     * Picks the child with the highest UCT value.
+     */
+    private Node select() {
+      double logVisits = Math.log(visits);
+      Node best = null;
+      double bestValue = Double.NEGATIVE_INFINITY;
+      for (Node child : children) {
+        double value = child.reward / child.visits
+            + EXPLORATION * Math.sqrt(logVisits / child.visits);
+        if (value > bestValue) {
+          bestValue = value;
+          best = child;
+        }
+      }
+      return best;
+    }
+  }
+
+  /**
+   * Visit counts of the root moves added up over every tree.
+   */
+  private static final class RootStats {
+    private final int[] moves;
+    private final long[] visits;
+
+    private RootStats(int[] moves) {
+      this.moves = moves;
+      this.visits = new long[moves.length];
+    }
+
+    private synchronized void add(Node root) {
+      for (Node child : root.children) {
+        for (int i = 0; i < moves.length; i++) {
+          if (moves[i] == child.move) {
+            visits[i] += child.visits;
+          }
+        }
+      }
+    }
+
+    /**
+     * The most visited moves, in the order they were generated: leftmost
+     * card first, then top-to-bottom, left-to-right.
+     */
+    private synchronized List<Move> mostVisited() {
+      long most = -1;
+      for (long count : visits) {
+        most = Math.max(most, count);
+      }
+      List<Move> best = new ArrayList<>();
+      for (int i = 0; i < moves.length; i++) {
+        if (visits[i] == most) {
+          best.add(Move.fromPacked(moves[i]));
+        }
+      }
+      return best;
+    }
+  }
+}
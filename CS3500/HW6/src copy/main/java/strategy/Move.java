@@ -49,6 +49,68 @@ public class Move {
     return col;
   }
 
+  /**
+   * Packs this move into a single int (see pack).
+   *
+   * @return the packed move
+   */
+  public int toPacked() {
+    return pack(cardIndex, row, col);
+  }
+
+  /**
+   * Packs a move into a single int: the card index in bits 16-19, the row in
+   * bits 8-15 and the column in bits 0-7.
+   *
+   * @param cardIndex the index of the card in the player's hand (0-15)
+   * @param row the row coordinate (0-255)
+   * @param col the column coordinate (0-255)
+   * @return the packed move
+   */
+  public static int pack(int cardIndex, int row, int col) {
+    return (cardIndex << 16) | (row << 8) | col;
+  }
+
+  /**
+   * Unpacks a move packed with pack.
+   *
+   * @param packed the packed move
+   * @return the move
+   */
+  public static Move fromPacked(int packed) {
+    return new Move(packedCard(packed), packedRow(packed), packedCol(packed));
+  }
+
+  /**
+   * Card index of a packed move.
+   *
+   * @param packed the packed move
+   * @return the card index
+   */
+  public static int packedCard(int packed) {
+    return (packed >>> 16) & 0xF;
+  }
+
+  /**
+   * Row of a packed move.
+   *
+   * @param packed the packed move
+   * @return the row
+   */
+  public static int packedRow(int packed) {
+    return (packed >>> 8) & 0xFF;
+  }
+
+  /**
+   * Column of a packed move.
+   *
+   * @param packed the packed move
+   * @return the column
+   */
+  public static int packedCol(int packed) {
+    return packed & 0xFF;
+  }
+
   @Override
   public String toString() {
     return "Move{card=" + cardIndex + ", row=" + row + ", col=" + col + "}";
@@ -0,0 +1,138 @@
+package strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import model.Card;
+import model.Cell;
+import model.PlayerInterface;
+import model.SanguineModelInterface;
+
+/**
+ * Generates the legal moves of the current player into a reusable buffer
+ * of moves packed with Move.pack, so search strategies can enumerate moves
+ * without allocating. Moves are in the same order as the nested card, row,
+ * column loops of the other strategies, until a MoveOrderer sorts them.
+ *
+ * <p>Target cells come from the model's index of playable cells, asked once
+ * per card cost, so cards no owned cell can afford cost no board work.
+ * A generator is not thread safe; use one per thread and search depth.
+ */
+public final class MoveGenerator {
+  private static final int MAX_COST = 3;
+  private int[] moves = new int[64];
+  private int count;
+  // Playable board indexes for each card cost, and how many there are
+  // (-1 until asked for during the current call)
+  private final int[][] cellsByCost = new int[MAX_COST][0];
+  private final int[] cellCounts = new int[MAX_COST];
+
+  /**
+   * Fills the buffer with the current player's legal moves.
+   *
+   * @param model the game model
+   * @return the number of moves generated
+   */
+  public int generate(SanguineModelInterface<Card, Cell<Card>> model) {
+    count = 0;
+    PlayerInterface<Card> current = model.getCurrentPlayer();
+    int cols = model.getNumCols();
+    int size = model.getNumRows() * cols;
+    for (int i = 0; i < MAX_COST; i++) {
+      cellCounts[i] = -1;
+    }
+
+    List<Card> hand = model.getCurrentPlayerHand();
+    for (int cardIdx = 0; cardIdx < hand.size(); cardIdx++) {
+      int cost = Math.max(1, hand.get(cardIdx).getCost());
+      if (cost > MAX_COST) {
+        continue;
+      }
+      int slot = cost - 1;
+      if (cellCounts[slot] < 0) {
+        if (cellsByCost[slot].length < size) {
+          cellsByCost[slot] = new int[size];
+        }
+        cellCounts[slot] = model.collectPlayableCells(current, cost, cellsByCost[slot]);
+      }
+      int[] cells = cellsByCost[slot];
+      for (int i = 0; i < cellCounts[slot]; i++) {
+        if (count == moves.length) {
+          moves = grow(moves);
+        }
+        moves[count++] = Move.pack(cardIdx, cells[i] / cols, cells[i] % cols);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Number of moves generated by the last call to generate.
+   *
+   * @return the number of moves
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Gets a generated move.
+   *
+   * @param index the index of the move, below size()
+   * @return the move packed with Move.pack
+   */
+  public int get(int index) {
+    return moves[index];
+  }
+
+  /**
+   * Copies the generated moves into a new array.
+   *
+   * @return the packed moves
+   */
+  public int[] toArray() {
+    int[] copy = new int[count];
+    System.arraycopy(moves, 0, copy, 0, count);
+    return copy;
+  }
+
+  /**
+   * Converts the generated moves into Move objects.
+   *
+   * @return the moves
+   */
+  public List<Move> toMoves() {
+    List<Move> list = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      list.add(Move.fromPacked(moves[i]));
+    }
+    return list;
+  }
+
+  /**
+   * Sorts the generated moves by a key for each, highest first. Moves with
+   * equal keys keep their order. The keys are sorted along with the moves.
+   *
+   * @param keys the key of each move, at least size() of them
+   */
+  public void sort(int[] keys) {
+    // Insertion sort: move lists are short and often nearly sorted
+    for (int i = 1; i < count; i++) {
+      int move = moves[i];
+      int key = keys[i];
+      int j = i - 1;
+      while (j >= 0 && keys[j] < key) {
+        moves[j + 1] = moves[j];
+        keys[j + 1] = keys[j];
+        j--;
+      }
+      moves[j + 1] = move;
+      keys[j + 1] = key;
+    }
+  }
+
+  private static int[] grow(int[] array) {
+    int[] bigger = new int[array.length * 2];
+    System.arraycopy(array, 0, bigger, 0, array.length);
+    return bigger;
+  }
+}
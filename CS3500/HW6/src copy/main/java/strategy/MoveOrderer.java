@@ -0,0 +1,204 @@
+package strategy;
+
+import model.Card;
+import model.Cell;
+import model.InfluenceTable;
+import model.PlayerInterface;
+import model.SanguineModelInterface;
+
+/**
+ * Orders generated moves so an alpha-beta search tries the likely best
+ * ones first and cuts off sooner. Moves are ranked by, from strongest to
+ * weakest: a move the caller wants tried first (such as the transposition
+ * table's best move), the two killer moves of the ply (the last moves to
+ * cause a cutoff that far from the root), and then the sum of the move's
+ * history score and a static estimate of the move.
+ *
+ * <p>The history score grows by depth squared every time the move (the
+ * same card index on the same cell, for the same player) causes a cutoff,
+ * so moves that refuted many lines anywhere in the tree rise. The static
+ * estimate needs no search: how much the card swings the score of its row,
+ * how many cells its influence gains and the card's value.
+ *
+ * <p>Killers and history are kept across iterations of iterative deepening
+ * and across searches; newSearch forgets the killers and halves the
+ * history. An orderer is not thread safe; use one per thread.
+ */
+public final class MoveOrderer {
+  private static final int FIRST_BONUS = 1 << 30;
+  private static final int KILLER_BONUS = 1 << 29;
+  private static final int SECOND_KILLER_BONUS = 1 << 28;
+  // History is halved once an entry passes this, staying below the killers
+  private static final int HISTORY_LIMIT = 1 << 24;
+  // Card indexes fit in the 4 bits Move.pack gives them
+  private static final int MAX_CARDS = 16;
+  private static final int SWING_WEIGHT = 8;
+  private static final int CELL_WEIGHT = 4;
+
+  private int[] keys = new int[64];
+  // Two killer moves per ply, -1 when empty
+  private int[] killers = new int[0];
+  // Side * MAX_CARDS * cells + card * cells + cell
+  private int[] history = new int[0];
+  private int cells;
+
+  /**
+   * Sorts the moves in a generator, likely best first.
+   *
+   * @param model the model the moves were just generated for
+   * @param moves the generator holding the moves
+   * @param count number of moves generate returned for the model
+   * @param ply   distance from the root of the search
+   * @param first a packed move to put first, or -1 for none
+   * @throws IllegalArgumentException if count is not the generator's size
+   */
+  public void order(SanguineModelInterface<Card, Cell<Card>> model, MoveGenerator moves,
+                    int count, int ply, int first) {
+    if (count != moves.size()) {
+      throw new IllegalArgumentException("Moves were not generated for this position");
+    }
+    if (count < 2) {
+      return;
+    }
+    if (keys.length < count) {
+      keys = new int[Math.max(count, keys.length * 2)];
+    }
+    prepareHistory(model);
+    int side = sideOf(model);
+    int killer = killer(ply, 0);
+    int secondKiller = killer(ply, 1);
+    for (int i = 0; i < count; i++) {
+      int move = moves.get(i);
+      if (move == first) {
+        keys[i] = FIRST_BONUS;
+      } else if (move == killer) {
+        keys[i] = KILLER_BONUS;
+      } else if (move == secondKiller) {
+        keys[i] = SECOND_KILLER_BONUS;
+      } else {
+        keys[i] = history[historyIndex(side, move, model.getNumCols())]
+            + estimate(model, move);
+      }
+    }
+    moves.sort(keys);
+  }
+
+  /**
+   * Records that a move caused a beta cutoff, making it a killer of the
+   * ply and raising its history score.
+   *
+   * @param model the model, with the move not yet played
+   * @param move  the packed move
+   * @param ply   distance from the root of the search
+   * @param depth remaining search depth below the move's position
+   */
+  public void cutoff(SanguineModelInterface<Card, Cell<Card>> model, int move, int ply,
+                     int depth) {
+    if (killers.length < (ply + 1) * 2) {
+      int[] bigger = new int[(ply + 1) * 2];
+      System.arraycopy(killers, 0, bigger, 0, killers.length);
+      for (int i = killers.length; i < bigger.length; i++) {
+        bigger[i] = -1;
+      }
+      killers = bigger;
+    }
+    if (killers[ply * 2] != move) {
+      killers[ply * 2 + 1] = killers[ply * 2];
+      killers[ply * 2] = move;
+    }
+
+    prepareHistory(model);
+    int index = historyIndex(sideOf(model), move, model.getNumCols());
+    history[index] += depth * depth;
+    if (history[index] > HISTORY_LIMIT) {
+      age();
+    }
+  }
+
+  /**
+   * Starts a new search: forgets the killers, which belong to the old
+   * root's plies, and halves the history so it follows the game.
+   */
+  public void newSearch() {
+    for (int i = 0; i < killers.length; i++) {
+      killers[i] = -1;
+    }
+    age();
+  }
+
+  /**
+   * Estimates how good a move is without searching it: eight times the
+   * change it makes to the mover's lead from its row, plus four per cell
+   * its influence gains (two for taking an opponent's cell, which also
+   * costs them one), plus the card's value.
+   *
+   * @param model the model, with the move not yet played
+   * @param move  the packed move
+   * @return the estimate; higher is better for the player to move
+   */
+  public int estimate(SanguineModelInterface<Card, Cell<Card>> model, int move) {
+    int row = Move.packedRow(move);
+    int col = Move.packedCol(move);
+    Card card = model.getCurrentPlayerHand().get(Move.packedCard(move));
+    PlayerInterface<Card> current = model.getCurrentPlayer();
+    PlayerInterface<Card> opponent = current == model.getRedPlayer()
+        ? model.getBluePlayer() : model.getRedPlayer();
+
+    int mine = model.getRowScore(current, row);
+    int theirs = model.getRowScore(opponent, row);
+    int swing = rowLead(mine + card.getValue(), theirs) - rowLead(mine, theirs);
+
+    int gained = 0;
+    int cols = model.getNumCols();
+    for (int target : InfluenceTable.forBoard(model.getNumRows(), cols)
+        .targets(card, row, col)) {
+      Cell<Card> cell = model.getCellAt(target / cols, target % cols);
+      if (cell.getCard() != null || target == row * cols + col) {
+        continue;
+      }
+      if (cell.isEmpty()) {
+        gained++;
+      } else if (cell.getOwner() != current) {
+        gained += cell.getNumPawns() > 1 ? 2 : 1;
+      }
+    }
+    return SWING_WEIGHT * swing + CELL_WEIGHT * gained + card.getValue();
+  }
+
+  /**
+   * Points the mover gets from a row, less the points the opponent gets.
+   */
+  private static int rowLead(int mine, int theirs) {
+    if (mine > theirs) {
+      return mine;
+    }
+    return mine < theirs ? -theirs : 0;
+  }
+
+  private void prepareHistory(SanguineModelInterface<Card, Cell<Card>> model) {
+    int size = model.getNumRows() * model.getNumCols();
+    if (size != cells) {
+      cells = size;
+      history = new int[2 * MAX_CARDS * size];
+    }
+  }
+
+  private int historyIndex(int side, int move, int cols) {
+    int cell = Move.packedRow(move) * cols + Move.packedCol(move);
+    return (side * MAX_CARDS + Move.packedCard(move)) * cells + cell;
+  }
+
+  private int killer(int ply, int slot) {
+    return ply * 2 + slot < killers.length ? killers[ply * 2 + slot] : -1;
+  }
+
+  private void age() {
+    for (int i = 0; i < history.length; i++) {
+      history[i] >>= 1;
+    }
+  }
+
+  private static int sideOf(SanguineModelInterface<Card, Cell<Card>> model) {
+    return model.getCurrentPlayer() == model.getRedPlayer() ? 0 : 1;
+  }
+}
@@ -0,0 +1,206 @@
+package strategy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import model.Card;
+import model.Cell;
+import model.PackedCells;
+import model.PlayerInterface;
+import model.SanguineModelInterface;
+import model.ZobristKeys;
+
+/**
+ * A book of opening moves, memory-mapped from a file written by
+ * OpeningBookBuilder so positions are looked up straight from the file.
+ *
+ * <p>A book position is the board, the hand of the player to move and
+ * which player that is; the opponent's hand is hidden, so it is left out.
+ * Its key is the model's position key with the opponent's hand taken out.
+ * The move is stored by the card's identifier (see ZobristKeys.cardId)
+ * rather than its index, since the same cards can be held in any order.
+ *
+ * <p>The file is a 24 byte header (magic, version, rows, columns, number
+ * of slots, a power of two, and number of entries), then an open
+ * addressing hash table of 16 byte slots (key, low 32 bits of the card
+ * identifier, row, column and two unused bytes). Empty slots have key 0.
+ * All values are big-endian.
+ *
+ * <p>An OpeningBook only reads the mapping, so it can be shared between
+ * threads.
+ */
+public final class OpeningBook {
+  static final int MAGIC = 0x5347424B;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 24;
+  static final int SLOT_SIZE = 16;
+
+  private final ByteBuffer buffer;
+  private final int rows;
+  private final int cols;
+  private final int slotMask;
+  private final int size;
+
+  private OpeningBook(ByteBuffer buffer, int rows, int cols, int slots, int size) {
+    this.buffer = buffer;
+    this.rows = rows;
+    this.cols = cols;
+    this.slotMask = slots - 1;
+    this.size = size;
+  }
+
+  /**
+   * Maps a book file.
+   *
+   * @param path the file
+   * @return the book
+   * @throws IOException if the file cannot be read or is not a book
+   */
+  public static OpeningBook open(Path path) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Not an opening book: " + path);
+      }
+      // The mapping stays valid after the channel is closed
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    buffer.order(ByteOrder.BIG_ENDIAN);
+    int slots = buffer.getInt(16);
+    if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || slots < 1
+        || Integer.bitCount(slots) != 1
+        || HEADER_SIZE + (long) slots * SLOT_SIZE != buffer.capacity()) {
+      throw new IOException("Not an opening book: " + path);
+    }
+    return new OpeningBook(buffer, buffer.getInt(8), buffer.getInt(12), slots,
+        buffer.getInt(20));
+  }
+
+  /**
+   * Writes a book file, replacing the file if it exists.
+   *
+   * @param rows   number of board rows the book is for
+   * @param cols   number of board columns the book is for
+   * @param keys   the book keys of the positions; none may be 0
+   * @param moves  the move for each position, as packed by packMove
+   * @param count  number of positions
+   * @param path   the file to write
+   * @throws IOException if the file cannot be written
+   */
+  static void write(int rows, int cols, long[] keys, long[] moves, int count, Path path)
+      throws IOException {
+    // At most half full, so probes stay short
+    int slots = Integer.highestOneBit(Math.max(1, count * 2 - 1)) << 1;
+    ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + slots * SLOT_SIZE);
+    out.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(cols).putInt(slots).putInt(count);
+    for (int i = 0; i < count; i++) {
+      int slot = slot(keys[i], slots - 1);
+      while (out.getLong(offset(slot)) != 0) {
+        slot = (slot + 1) & (slots - 1);
+      }
+      out.putLong(offset(slot), keys[i]);
+      out.putInt(offset(slot) + 8, (int) (moves[i] >>> 16));
+      out.put(offset(slot) + 12, (byte) (moves[i] >>> 8));
+      out.put(offset(slot) + 13, (byte) moves[i]);
+    }
+    out.rewind();
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      while (out.hasRemaining()) {
+        channel.write(out);
+      }
+    }
+  }
+
+  /**
+   * Packs a book move: the low 32 bits of the card identifier, the row and
+   * the column.
+   */
+  static long packMove(Card card, int row, int col) {
+    return ((ZobristKeys.cardId(card) & 0xFFFFFFFFL) << 16) | ((row & 0xFF) << 8) | (col & 0xFF);
+  }
+
+  /**
+   * Computes the book key of the position in a model: the position key
+   * without the hand of the player who is not moving.
+   *
+   * @param model the model of the game
+   * @return the key
+   */
+  public static long positionKey(SanguineModelInterface<Card, Cell<Card>> model) {
+    boolean redToMove = model.getCurrentPlayer() == model.getRedPlayer();
+    PlayerInterface<Card> opponent = redToMove ? model.getBluePlayer() : model.getRedPlayer();
+    return model.getPositionKey()
+        ^ ZobristKeys.handKey(opponent.getHand(), redToMove ? PackedCells.BLUE : PackedCells.RED);
+  }
+
+  /**
+   * Looks up the book move for the player to move.
+   *
+   * @param model the model of the game
+   * @return the move, or null if the position is not in the book or the
+   *         board is another size
+   */
+  public Move lookup(SanguineModelInterface<Card, Cell<Card>> model) {
+    if (model.getNumRows() != rows || model.getNumCols() != cols) {
+      return null;
+    }
+    long key = positionKey(model);
+    for (int slot = slot(key, slotMask); ; slot = (slot + 1) & slotMask) {
+      long stored = buffer.getLong(offset(slot));
+      if (stored == 0) {
+        return null;
+      } else if (stored == key) {
+        int cardTag = buffer.getInt(offset(slot) + 8);
+        List<Card> hand = model.getCurrentPlayerHand();
+        for (int i = 0; i < hand.size(); i++) {
+          if ((int) ZobristKeys.cardId(hand.get(i)) == cardTag) {
+            return new Move(i, buffer.get(offset(slot) + 12) & 0xFF,
+                buffer.get(offset(slot) + 13) & 0xFF);
+          }
+        }
+        return null;
+      }
+    }
+  }
+
+  /**
+   * Number of positions in the book.
+   *
+   * @return the entry count
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the number of board rows the book is for.
+   *
+   * @return the number of rows
+   */
+  public int getNumRows() {
+    return rows;
+  }
+
+  /**
+   * Gets the number of board columns the book is for.
+   *
+   * @return the number of columns
+   */
+  public int getNumCols() {
+    return cols;
+  }
+
+  private static int slot(long key, int mask) {
+    return (int) (key ^ (key >>> 32)) & mask;
+  }
+
+  private static int offset(int slot) {
+    return HEADER_SIZE + slot * SLOT_SIZE;
+  }
+}
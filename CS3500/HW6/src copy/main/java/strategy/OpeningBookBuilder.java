@@ -0,0 +1,258 @@
+package strategy;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+import model.Card;
+import model.PackedCells;
+import model.Player;
+import model.SanguineModel;
+import model.ZobristKeys;
+
+/**
+ * Builds an opening book offline for one deck and board size. Every game
+ * starts from the same board, so the first move only depends on red's
+ * hand: the builder searches the starting position for every hand red can
+ * be dealt, and with two plies also blue's reply to each of those moves
+ * for every hand blue can be dealt.
+ *
+ * <p>Positions are searched in parallel on a ForkJoinPool, each with a
+ * fresh strategy from the searcher factory. The searcher plays on a model
+ * in which the hidden cards (the opponent's hand and both decks) are a
+ * seeded random guess, so a searcher that guesses hidden cards itself,
+ * such as MonteCarloStrategy given the deck, suits it best. The number of
+ * positions is the number of hands for one ply, times the number of
+ * distinct replies for two, so building can take a long time.
+ */
+public final class OpeningBookBuilder {
+  private final List<Card> cards;
+  private final List<Card> distinctCards;
+  private final int rows;
+  private final int cols;
+  private final int handSize;
+  private final int plies;
+  private final Supplier<SanguineStrategyInterface> searcher;
+  private final int parallelism;
+  private final long seed;
+
+  /**
+   * Constructs a builder.
+   *
+   * @param deck        the cards of the deck file
+   * @param rows        number of board rows
+   * @param cols        number of board columns
+   * @param handSize    number of cards in a starting hand
+   * @param plies       1 for red's first moves, 2 to add blue's replies
+   * @param searcher    creates the strategy that picks each book move
+   * @param parallelism number of positions searched at once
+   * @param seed        seed for the guesses of hidden cards
+   * @throws IllegalArgumentException if any argument is invalid
+   */
+  public OpeningBookBuilder(List<Card> deck, int rows, int cols, int handSize, int plies,
+                            Supplier<SanguineStrategyInterface> searcher, int parallelism,
+                            long seed) {
+    if (deck == null || searcher == null) {
+      throw new IllegalArgumentException("Deck and searcher cannot be null");
+    }
+    if (rows < 1 || cols < 2 || handSize < 1 || plies < 1 || plies > 2 || parallelism < 1) {
+      throw new IllegalArgumentException("Invalid book settings");
+    }
+    // A book position only knows the cards by their identifiers
+    Map<Long, Card> distinct = new LinkedHashMap<>();
+    for (Card card : deck) {
+      distinct.putIfAbsent(ZobristKeys.cardId(card), card);
+    }
+    if (distinct.size() < handSize) {
+      throw new IllegalArgumentException("Deck must hold at least a hand of cards");
+    }
+    this.cards = List.copyOf(deck);
+    this.distinctCards = List.copyOf(distinct.values());
+    this.rows = rows;
+    this.cols = cols;
+    this.handSize = handSize;
+    this.plies = plies;
+    this.searcher = searcher;
+    this.parallelism = parallelism;
+    this.seed = seed;
+  }
+
+  /**
+   * Searches the opening positions and writes the book.
+   *
+   * @param path the book file to write
+   * @return number of positions in the book
+   * @throws IOException if the file cannot be written
+   */
+  public int build(Path path) throws IOException {
+    List<List<Card>> hands = new ArrayList<>();
+    combinations(distinctCards, 0, new ArrayList<>(), hands);
+
+    Map<Long, Long> book = new LinkedHashMap<>();
+    long[][] first = search(hands.size(), task -> position(hands.get(task), guess(task)));
+    addAll(book, first);
+
+    if (plies == 2) {
+      // Red's moves lead to far fewer boards than there are hands
+      Map<Long, Integer> boards = new LinkedHashMap<>();
+      for (int hand = 0; hand < hands.size(); hand++) {
+        if (first[hand] != null) {
+          SanguineModel model = position(hands.get(hand), guess(hand));
+          play(model, first[hand][2]);
+          long board = OpeningBook.positionKey(model)
+              ^ ZobristKeys.handKey(model.getCurrentPlayerHand(), PackedCells.BLUE);
+          boards.putIfAbsent(board, hand);
+        }
+      }
+      List<Integer> replies = new ArrayList<>(boards.values());
+      long[][] second = search(replies.size() * hands.size(), task -> {
+        int red = replies.get(task / hands.size());
+        SanguineModel model = position(hands.get(red), hands.get(task % hands.size()));
+        play(model, first[red][2]);
+        return model;
+      });
+      addAll(book, second);
+    }
+
+    long[] keys = new long[book.size()];
+    long[] moves = new long[book.size()];
+    int count = 0;
+    for (Map.Entry<Long, Long> entry : book.entrySet()) {
+      keys[count] = entry.getKey();
+      moves[count] = entry.getValue();
+      count++;
+    }
+    OpeningBook.write(rows, cols, keys, moves, count, path);
+    return count;
+  }
+
+  /**
+   * Sets up one position to search.
+   */
+  private interface Task {
+    SanguineModel position(int task);
+  }
+
+  /**
+   * Runs every task on the pool, searching the position each one sets up.
+   *
+   * @return for each task the book key, the move packed for the book and
+   *         the move packed by Move.pack, or null where the searcher found
+   *         no move
+   */
+  private long[][] search(int tasks, Task setUp) {
+    long[][] results = new long[tasks][];
+    List<RecursiveAction> actions = new ArrayList<>();
+    for (int i = 0; i < tasks; i++) {
+      int task = i;
+      actions.add(new RecursiveAction() {
+        @Override
+        protected void compute() {
+          SanguineModel model = setUp.position(task);
+          Move move = bookMove(model);
+          if (move != null) {
+            Card card = model.getCurrentPlayerHand().get(move.getCardIndex());
+            results[task] = new long[] {OpeningBook.positionKey(model),
+                OpeningBook.packMove(card, move.getRow(), move.getCol()), move.toPacked()};
+          }
+        }
+      });
+    }
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      pool.invoke(new RecursiveAction() {
+        @Override
+        protected void compute() {
+          invokeAll(actions);
+        }
+      });
+    } finally {
+      pool.shutdown();
+    }
+    return results;
+  }
+
+  private static void addAll(Map<Long, Long> book, long[][] results) {
+    for (long[] result : results) {
+      if (result != null && result[0] != 0) {
+        book.putIfAbsent(result[0], result[1]);
+      }
+    }
+  }
+
+  /**
+   * Asks a fresh searcher for the move of the player to move.
+   *
+   * @return the first legal move it returns, or null if there is none
+   */
+  private Move bookMove(SanguineModel model) {
+    List<Move> moves;
+    try (SanguineStrategyInterface strategy = searcher.get()) {
+      moves = strategy.chooseMoves(model, model.getCurrentPlayer());
+    }
+    for (Move move : moves) {
+      if (model.isLegalMove(move.getRow(), move.getCol(), move.getCardIndex())) {
+        return move;
+      }
+    }
+    return null;
+  }
+
+  private static void play(SanguineModel model, long move) {
+    int packed = (int) move;
+    model.playCardFromHand(Move.packedRow(packed), Move.packedCol(packed),
+        Move.packedCard(packed));
+  }
+
+  /**
+   * Builds the starting position for two hands, with the rest of the deck
+   * file shuffled into each player's deck.
+   */
+  private SanguineModel position(List<Card> redHand, List<Card> blueHand) {
+    Random random = new Random(seed);
+    return new SanguineModel(new Player(Color.RED, redHand, rest(redHand, random)),
+        new Player(Color.BLUE, blueHand, rest(blueHand, random)), rows, cols);
+  }
+
+  private List<Card> rest(List<Card> hand, Random random) {
+    List<Card> deck = new ArrayList<>(cards);
+    for (Card card : hand) {
+      deck.remove(card);
+    }
+    Collections.shuffle(deck, random);
+    return deck;
+  }
+
+  /**
+   * Guesses an opponent hand for a task, the same one every time.
+   */
+  private List<Card> guess(int task) {
+    List<Card> shuffled = new ArrayList<>(cards);
+    Collections.shuffle(shuffled, new Random(seed * 31 + task));
+    return new ArrayList<>(shuffled.subList(0, handSize));
+  }
+
+  /**
+   * Adds every set of handSize cards, in deck order, to hands.
+   */
+  private void combinations(List<Card> pool, int from, List<Card> hand,
+                            List<List<Card>> hands) {
+    if (hand.size() == handSize) {
+      hands.add(List.copyOf(hand));
+      return;
+    }
+    for (int i = from; i <= pool.size() - (handSize - hand.size()); i++) {
+      hand.add(pool.get(i));
+      combinations(pool, i + 1, hand, hands);
+      hand.remove(hand.size() - 1);
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package strategy;
+
+import model.Card;
+import model.Cell;
+import model.PlayerInterface;
+import model.SanguineModelInterface;
+
+/**
+ * Evaluates a position by a weighted sum of the row score differential and
+ * the pawn differential, so that positions with more pawns on the board
+ * (and so more places to play later) are preferred.
+ */
+public class PawnControlEvaluator implements PositionEvaluator {
+  private final PositionEvaluator rowScores;
+  private final int scoreWeight;
+  private final int pawnWeight;
+
+  /**
+   * Constructs a pawn control evaluator.
+   *
+   * @param scoreWeight weight of each point of row score differential
+   * @param pawnWeight  weight of each pawn of pawn differential
+   */
+  public PawnControlEvaluator(int scoreWeight, int pawnWeight) {
+    this.rowScores = new RowScoreEvaluator();
+    this.scoreWeight = scoreWeight;
+    this.pawnWeight = pawnWeight;
+  }
+
+  @Override
+  public int evaluate(SanguineModelInterface<Card, Cell<Card>> model,
+                      PlayerInterface<Card> player) {
+    int pawns = 0;
+    for (int row = 0; row < model.getNumRows(); row++) {
+      for (int col = 0; col < model.getNumCols(); col++) {
+        Cell<Card> cell = model.getCellAt(row, col);
+        if (cell.getCard() == null && cell.getOwner() != null) {
+          pawns += cell.getOwner() == player ? cell.getNumPawns() : -cell.getNumPawns();
+        }
+      }
+    }
+    return scoreWeight * rowScores.evaluate(model, player) + pawnWeight * pawns;
+  }
+}
@@ -0,0 +1,22 @@
+package strategy;
+
+import model.Card;
+import model.Cell;
+import model.PlayerInterface;
+import model.SanguineModelInterface;
+
+/**
+ * Scores a game position for use by search strategies.
+ * Higher scores are better for the given player.
+ */
+public interface PositionEvaluator {
+
+  /**
+   * Evaluates the position from the point of view of the given player.
+   *
+   * @param model  the model of the game
+   * @param player the player to evaluate for
+   * @return the score, higher is better for player
+   */
+  int evaluate(SanguineModelInterface<Card, Cell<Card>> model, PlayerInterface<Card> player);
+}
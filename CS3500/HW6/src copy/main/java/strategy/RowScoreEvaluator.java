@@ -0,0 +1,25 @@
+package strategy;
+
+import model.Card;
+import model.Cell;
+import model.PlayerInterface;
+import model.SanguineModelInterface;
+
+/**
+ * Evaluates a position by the row score differential: the sum over all rows
+ * of the player's row score minus the opponent's row score.
+ */
+public class RowScoreEvaluator implements PositionEvaluator {
+
+  @Override
+  public int evaluate(SanguineModelInterface<Card, Cell<Card>> model,
+                      PlayerInterface<Card> player) {
+    PlayerInterface<Card> opponent = player == model.getRedPlayer()
+        ? model.getBluePlayer() : model.getRedPlayer();
+    int score = 0;
+    for (int row = 0; row < model.getNumRows(); row++) {
+      score += model.getRowScore(player, row) - model.getRowScore(opponent, row);
+    }
+    return score;
+  }
+}
@@ -9,8 +9,9 @@ import model.SanguineModelInterface;
 /**
  * Interface for a strategy in the Sanguine game.
  * A strategy determines the best move for a player.
+ * Close a strategy once done with it, so any threads it holds are released.
  */
-public interface SanguineStrategyInterface {
+public interface SanguineStrategyInterface extends AutoCloseable {
 
   /**
    * Chooses the best moves for the given player in the given model.
@@ -22,4 +23,13 @@ public interface SanguineStrategyInterface {
    */
   List<Move> chooseMoves(SanguineModelInterface<Card, Cell<Card>>
                              model, PlayerInterface<Card> player);
+
+  /**
+   * Releases what the strategy holds, such as worker threads, and closes
+   * the strategies it delegates to. The strategy must not be used after
+   * it is closed. Strategies holding nothing do nothing.
+   */
+  @Override
+  default void close() {
+  }
 }
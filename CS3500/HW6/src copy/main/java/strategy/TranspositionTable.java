@@ -0,0 +1,190 @@
+package strategy;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size table of search results keyed by position key, shared by
+ * search strategies to avoid searching the same position twice.
+ *
+ * <p>Each entry is two longs: the key XOR the data, and the data. A reader
+ * only accepts an entry if the two agree with its key, so entries torn by
+ * two threads writing at once are seen as misses and no locking is needed.
+ *
+ * <p>Entries live in pairs. The first slot of a pair keeps the deepest
+ * result (replaced only by equal or deeper results, or results from a newer
+ * search); the second slot always takes the newest result.
+ *
+ * <p>Entry data packs the score (32 bits), move (20 bits), depth (6 bits),
+ * bound type (2 bits), search generation (3 bits) and a valid flag.
+ */
+public final class TranspositionTable {
+  /**
+   * The stored score is the exact score of the position.
+   */
+  public static final int EXACT = 0;
+
+  /**
+   * The stored score is a lower bound (the search failed high).
+   */
+  public static final int LOWER_BOUND = 1;
+
+  /**
+   * The stored score is an upper bound (the search failed low).
+   */
+  public static final int UPPER_BOUND = 2;
+
+  /**
+   * Largest depth that can be stored.
+   */
+  public static final int MAX_DEPTH = 63;
+
+  private static final int MOVE_SHIFT = 32;
+  private static final long MOVE_MASK = 0xFFFFFL;
+  private static final int DEPTH_SHIFT = 52;
+  private static final int BOUND_SHIFT = 58;
+  private static final int GENERATION_SHIFT = 60;
+  private static final long VALID = 1L << 63;
+
+  private final AtomicLongArray slots;
+  private final int pairMask;
+  private volatile int generation;
+
+  /**
+   * Creates a table holding at least the given number of entries,
+   * rounded up to a power of two.
+   *
+   * @param entries minimum number of entries
+   * @throws IllegalArgumentException if entries is not positive
+   */
+  public TranspositionTable(int entries) {
+    if (entries < 1 || entries > (1 << 28)) {
+      throw new IllegalArgumentException("Invalid table size");
+    }
+    int size = Math.max(2, Integer.highestOneBit(entries - 1) << 1);
+    this.slots = new AtomicLongArray(size * 2);
+    this.pairMask = size / 2 - 1;
+    this.generation = 0;
+  }
+
+  /**
+   * Number of entries the table holds.
+   *
+   * @return capacity in entries
+   */
+  public int capacity() {
+    return slots.length() / 2;
+  }
+
+  /**
+   * Starts a new search. Entries from older searches are replaced first.
+   */
+  public void newSearch() {
+    generation = (generation + 1) & 0x7;
+  }
+
+  /**
+   * Removes every entry.
+   */
+  public void clear() {
+    for (int i = 0; i < slots.length(); i++) {
+      slots.set(i, 0);
+    }
+  }
+
+  /**
+   * Looks up a position.
+   *
+   * @param key the position key
+   * @return the entry data, or 0 if the position is not in the table
+   */
+  public long probe(long key) {
+    int pair = pairIndex(key);
+    for (int slot = pair; slot < pair + 4; slot += 2) {
+      long data = slots.get(slot + 1);
+      if (data != 0 && (slots.get(slot) ^ data) == key) {
+        return data;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Stores a search result.
+   *
+   * @param key   the position key
+   * @param depth remaining depth the position was searched to
+   * @param score the score found
+   * @param bound EXACT, LOWER_BOUND or UPPER_BOUND
+   * @param move  best move found, packed with Move.pack, or -1 for none
+   */
+  public void store(long key, int depth, int score, int bound, int move) {
+    long data = VALID
+        | (score & 0xFFFFFFFFL)
+        | (((move + 1) & MOVE_MASK) << MOVE_SHIFT)
+        | ((long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT)
+        | ((long) bound << BOUND_SHIFT)
+        | ((long) generation << GENERATION_SHIFT);
+    int pair = pairIndex(key);
+    long deepData = slots.get(pair + 1);
+    boolean sameKey = (slots.get(pair) ^ deepData) == key;
+    if (deepData == 0 || sameKey || depth(deepData) <= depth
+        || generation(deepData) != generation) {
+      write(pair, key, data);
+    } else {
+      write(pair + 2, key, data);
+    }
+  }
+
+  private void write(int slot, long key, long data) {
+    slots.set(slot, key ^ data);
+    slots.set(slot + 1, data);
+  }
+
+  private int pairIndex(long key) {
+    return (int) ((key ^ (key >>> 32)) & pairMask) * 4;
+  }
+
+  /**
+   * Score stored in an entry.
+   *
+   * @param entry entry data from probe
+   * @return the score
+   */
+  public static int score(long entry) {
+    return (int) entry;
+  }
+
+  /**
+   * Depth stored in an entry.
+   *
+   * @param entry entry data from probe
+   * @return the depth
+   */
+  public static int depth(long entry) {
+    return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+  }
+
+  /**
+   * Bound type stored in an entry.
+   *
+   * @param entry entry data from probe
+   * @return EXACT, LOWER_BOUND or UPPER_BOUND
+   */
+  public static int bound(long entry) {
+    return (int) (entry >>> BOUND_SHIFT) & 0x3;
+  }
+
+  /**
+   * Best move stored in an entry.
+   *
+   * @param entry entry data from probe
+   * @return the move packed with Move.pack, or -1 for none
+   */
+  public static int move(long entry) {
+    return (int) ((entry >>> MOVE_SHIFT) & MOVE_MASK) - 1;
+  }
+
+  private static int generation(long entry) {
+    return (int) (entry >>> GENERATION_SHIFT) & 0x7;
+  }
+}
@@ -5,13 +5,26 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 import javax.swing.JPanel;
 import model.Card;
 import model.Cell;
+import model.GameSnapshot;
+import model.PlayerInterface;
 import model.SanguineModelInterface;
 
 /**
  * Panel that displays the game board.
+ *
+ * <p>The board is drawn into an off-screen buffer that is copied to the
+ * screen. Each cell is a pre-rendered glyph image cached by its contents,
+ * so a paint only redraws the cells and score labels that differ from the
+ * snapshot the buffer last showed, and refresh only asks Swing to repaint
+ * those regions.
  */
 public class SanguineBoardPanel extends JPanel {
   private final SanguineModelInterface<Card, Cell<Card>> model;
@@ -19,6 +32,21 @@ public class SanguineBoardPanel extends JPanel {
   private int selectedCol;
   private static final int CELL_SIZE = 50;
   private static final int PADDING = 20;
+  private static final int SCORE_WIDTH = 50;
+  private static final Font SCORE_FONT = new Font("Arial", Font.BOLD, 16);
+  private static final Font VALUE_FONT = new Font("Arial", Font.BOLD, 14);
+  private static final Font PAWN_FONT = new Font("Arial", Font.BOLD, 20);
+  private static final int EMPTY = 0;
+  private static final int CARD = 1;
+  private static final int PAWNS = 2;
+  private static final int MAX_GLYPHS = 1024;
+
+  private final transient Map<Long, BufferedImage> glyphs = new HashMap<>();
+  private transient BufferedImage buffer;
+  // What the buffer shows
+  private transient GameSnapshot drawn;
+  private int drawnSelectedRow = -1;
+  private int drawnSelectedCol = -1;
 
   /**
    * Constructs a new SaguineBoardPanel with the given model.
@@ -34,83 +62,218 @@ public class SanguineBoardPanel extends JPanel {
 
   @Override
   public Dimension getPreferredSize() {
-    int scoreWidth = 50;
-    int width = PADDING * 2 + model.getNumCols() * CELL_SIZE + scoreWidth * 2;
-    int height = PADDING * 2 + model.getNumRows() * CELL_SIZE;
-    return new Dimension(width, height);
+    GameSnapshot snapshot = model.getSnapshot();
+    return new Dimension(boardWidth(snapshot), boardHeight(snapshot));
+  }
+
+  private static int boardWidth(GameSnapshot snapshot) {
+    return PADDING * 2 + snapshot.getNumCols() * CELL_SIZE + SCORE_WIDTH * 2;
+  }
+
+  private static int boardHeight(GameSnapshot snapshot) {
+    return PADDING * 2 + snapshot.getNumRows() * CELL_SIZE;
   }
 
   @Override
   public void paintComponent(Graphics g) {
     super.paintComponent(g);
-    Graphics2D g2d = (Graphics2D) g;
-    int scoreWidth = 50;
-
-    // Score Cells
-    for (int row = 0; row < model.getNumRows(); row++) {
-      int y = PADDING + row * CELL_SIZE + CELL_SIZE / 2;
-
-      int redScore = model.getRowScore(model.getRedPlayer(), row);
-      g2d.setColor(Color.RED);
-      g2d.setFont(new Font("Arial", Font.BOLD, 16));
-      g2d.drawString(String.valueOf(redScore), scoreWidth, y);
-
-      int blueScore = model.getRowScore(model.getBluePlayer(), row);
-      g2d.setColor(Color.BLUE);
-      int rightX = PADDING + scoreWidth + model.getNumCols() * CELL_SIZE + 10;
-      g2d.drawString(String.valueOf(blueScore), rightX, y);
+    // Read one snapshot so the whole frame shows the same position
+    GameSnapshot snapshot = model.getSnapshot();
+    Rectangle changed = updateBuffer(snapshot);
+    g.drawImage(buffer, 0, 0, null);
+    // The snapshot may be newer than the one this repaint was asked for
+    Rectangle clip = g.getClipBounds();
+    if (changed != null && clip != null && !clip.contains(changed)) {
+      repaint(changed);
     }
+  }
+
+  /**
+   * Asks Swing to repaint only the cells and score labels that changed
+   * since the board was last painted.
+   */
+  public void refresh() {
+    GameSnapshot snapshot = model.getSnapshot();
+    if (needsFullRedraw(snapshot)) {
+      repaint();
+      return;
+    }
+    for (int row = 0; row < snapshot.getNumRows(); row++) {
+      boolean selectionRow = row == selectedRow || row == drawnSelectedRow;
+      if (snapshot.sharesRow(drawn, row) && !selectionRow) {
+        continue;
+      }
+      if (scoresChanged(snapshot, row)) {
+        repaint(0, PADDING + row * CELL_SIZE, getWidth(), CELL_SIZE + 1);
+        continue;
+      }
+      for (int col = 0; col < snapshot.getNumCols(); col++) {
+        if (cellChanged(snapshot, row, col)) {
+          repaint(cellX(col), cellY(row), CELL_SIZE + 1, CELL_SIZE + 1);
+        }
+      }
+    }
+  }
+
+  private boolean needsFullRedraw(GameSnapshot snapshot) {
+    return buffer == null || drawn == null
+        || buffer.getWidth() != boardWidth(snapshot)
+        || buffer.getHeight() != boardHeight(snapshot)
+        || drawn.getNumRows() != snapshot.getNumRows()
+        || drawn.getNumCols() != snapshot.getNumCols()
+        || drawn.getRedPlayer() != snapshot.getRedPlayer();
+  }
 
-    //Board Cells
-    for (int row = 0; row < model.getNumRows(); row++) {
-      for (int col = 0; col < model.getNumCols(); col++) {
-        drawCell(g2d, row, col);
+  /**
+   * Brings the buffer up to date with a snapshot, redrawing only what
+   * differs from what it shows.
+   *
+   * @return the area that was redrawn, or null if nothing was
+   */
+  private Rectangle updateBuffer(GameSnapshot snapshot) {
+    Rectangle changed = null;
+    boolean full = needsFullRedraw(snapshot);
+    if (full) {
+      buffer = new BufferedImage(boardWidth(snapshot), boardHeight(snapshot),
+          BufferedImage.TYPE_INT_RGB);
+    }
+    Graphics2D g2d = buffer.createGraphics();
+    try {
+      if (full) {
+        g2d.setColor(getBackground());
+        g2d.fillRect(0, 0, buffer.getWidth(), buffer.getHeight());
+      }
+      for (int row = 0; row < snapshot.getNumRows(); row++) {
+        boolean selectionRow = row == selectedRow || row == drawnSelectedRow;
+        if (!full && snapshot.sharesRow(drawn, row) && !selectionRow) {
+          continue;
+        }
+        if (full || scoresChanged(snapshot, row)) {
+          drawScores(g2d, snapshot, row);
+          changed = union(changed, new Rectangle(0, cellY(row), buffer.getWidth(), CELL_SIZE));
+        }
+        for (int col = 0; col < snapshot.getNumCols(); col++) {
+          if (full || cellChanged(snapshot, row, col)) {
+            g2d.drawImage(glyph(snapshot, row, col), cellX(col), cellY(row), null);
+            changed = union(changed,
+                new Rectangle(cellX(col), cellY(row), CELL_SIZE + 1, CELL_SIZE + 1));
+          }
+        }
       }
+    } finally {
+      g2d.dispose();
     }
+    drawn = snapshot;
+    drawnSelectedRow = selectedRow;
+    drawnSelectedCol = selectedCol;
+    return full ? new Rectangle(0, 0, buffer.getWidth(), buffer.getHeight()) : changed;
+  }
 
+  private static Rectangle union(Rectangle area, Rectangle added) {
+    return area == null ? added : area.union(added);
   }
 
-  private void drawCell(Graphics2D g2d, int row, int col) {
-    int scoreWidth = 50;
-    int x = PADDING + scoreWidth + col * CELL_SIZE;
-    int y = PADDING + row * CELL_SIZE;
+  private boolean scoresChanged(GameSnapshot snapshot, int row) {
+    return snapshot.getRowScore(snapshot.getRedPlayer(), row)
+        != drawn.getRowScore(drawn.getRedPlayer(), row)
+        || snapshot.getRowScore(snapshot.getBluePlayer(), row)
+        != drawn.getRowScore(drawn.getBluePlayer(), row);
+  }
 
+  private boolean cellChanged(GameSnapshot snapshot, int row, int col) {
+    boolean selected = row == selectedRow && col == selectedCol;
+    boolean wasSelected = row == drawnSelectedRow && col == drawnSelectedCol;
+    return selected != wasSelected
+        || !Objects.equals(snapshot.getCard(row, col), drawn.getCard(row, col))
+        || snapshot.getOwner(row, col) != drawn.getOwner(row, col)
+        || snapshot.getNumPawns(row, col) != drawn.getNumPawns(row, col);
+  }
 
+  private void drawScores(Graphics2D g2d, GameSnapshot snapshot, int row) {
+    int top = cellY(row);
+    int rightX = PADDING + SCORE_WIDTH + snapshot.getNumCols() * CELL_SIZE + 10;
+    g2d.setColor(getBackground());
+    g2d.fillRect(0, top + 1, PADDING + SCORE_WIDTH, CELL_SIZE - 1);
+    g2d.fillRect(rightX - 9, top + 1, buffer.getWidth() - rightX + 9, CELL_SIZE - 1);
 
-    // Highlight if selected
-    if (row == selectedRow && col == selectedCol) {
-      g2d.setColor(Color.CYAN);
+    int y = top + CELL_SIZE / 2;
+    g2d.setFont(SCORE_FONT);
+    g2d.setColor(Color.RED);
+    g2d.drawString(String.valueOf(snapshot.getRowScore(snapshot.getRedPlayer(), row)),
+        SCORE_WIDTH, y);
+    g2d.setColor(Color.BLUE);
+    g2d.drawString(String.valueOf(snapshot.getRowScore(snapshot.getBluePlayer(), row)),
+        rightX, y);
+  }
+
+  /**
+   * Gets the cached image of a cell, rendering it the first time its
+   * contents are seen.
+   */
+  private BufferedImage glyph(GameSnapshot snapshot, int row, int col) {
+    Card card = snapshot.getCard(row, col);
+    PlayerInterface<Card> owner = snapshot.getOwner(row, col);
+    int kind;
+    int number;
+    if (card != null) {
+      kind = CARD;
+      number = card.getValue();
+    } else if (!snapshot.isEmpty(row, col)) {
+      kind = PAWNS;
+      number = snapshot.getNumPawns(row, col);
     } else {
-      g2d.setColor(Color.WHITE);
+      kind = EMPTY;
+      number = 0;
     }
-    g2d.fillRect(x, y, CELL_SIZE, CELL_SIZE);
-    g2d.setColor(Color.BLACK);
-    g2d.drawRect(x, y, CELL_SIZE, CELL_SIZE);
-    Cell<Card> cell = model.getCellAt(row, col);
-    if (cell.getCard() != null) {
-      drawCardOnBoard(g2d, cell, x, y);
-    } else if (!cell.isEmpty()) {
-      drawPawns(g2d, cell, x, y);
+    Color color = kind == EMPTY || owner == null ? Color.BLACK : owner.getPlayerColor();
+    boolean selected = row == selectedRow && col == selectedCol;
+    long key = ((long) (color.getRGB() & 0xFFFFFF) << 40) | ((number & 0xFFFFFFFFL) << 8)
+        | (kind << 1) | (selected ? 1 : 0);
+
+    BufferedImage image = glyphs.get(key);
+    if (image == null) {
+      if (glyphs.size() >= MAX_GLYPHS) {
+        glyphs.clear();
+      }
+      image = renderGlyph(kind, number, color, selected);
+      glyphs.put(key, image);
     }
+    return image;
   }
 
-  private void drawCardOnBoard(Graphics2D g2d, Cell<Card> cell, int x, int y) {
-    Color ownerColor = cell.getOwner().getPlayerColor();
-    g2d.setColor(ownerColor);
-    g2d.fillRect(x + 2, y + 2, CELL_SIZE - 4, CELL_SIZE - 4);
+  private BufferedImage renderGlyph(int kind, int number, Color color, boolean selected) {
+    BufferedImage image = new BufferedImage(CELL_SIZE + 1, CELL_SIZE + 1,
+        BufferedImage.TYPE_INT_RGB);
+    Graphics2D g2d = image.createGraphics();
+    try {
+      // Highlight if selected
+      g2d.setColor(selected ? Color.CYAN : Color.WHITE);
+      g2d.fillRect(0, 0, CELL_SIZE, CELL_SIZE);
+      g2d.setColor(Color.BLACK);
+      g2d.drawRect(0, 0, CELL_SIZE, CELL_SIZE);
+      if (kind == CARD) {
+        g2d.setColor(color);
+        g2d.fillRect(2, 2, CELL_SIZE - 4, CELL_SIZE - 4);
+        g2d.setColor(Color.WHITE);
+        g2d.setFont(VALUE_FONT);
+        g2d.drawString(String.valueOf(number), CELL_SIZE / 2 - 5, CELL_SIZE / 2);
+      } else if (kind == PAWNS) {
+        g2d.setColor(color);
+        g2d.setFont(PAWN_FONT);
+        g2d.drawString(String.valueOf(number), CELL_SIZE / 2 - 5, CELL_SIZE / 2);
+      }
+    } finally {
+      g2d.dispose();
+    }
+    return image;
+  }
 
-    g2d.setColor(Color.WHITE);
-    g2d.setFont(new Font("Arial", Font.BOLD, 14));
-    String value = String.valueOf(cell.getCard().getValue());
-    g2d.drawString(value, x + CELL_SIZE / 2 - 5, y + CELL_SIZE / 2);
+  private static int cellX(int col) {
+    return PADDING + SCORE_WIDTH + col * CELL_SIZE;
   }
 
-  private void drawPawns(Graphics2D g2d, Cell<Card> cell, int x, int y) {
-    Color ownerColor = cell.getOwner().getPlayerColor();
-    g2d.setColor(ownerColor);
-    g2d.setFont(new Font("Arial", Font.BOLD, 20));
-    String pawns = String.valueOf(cell.getNumPawns());
-    g2d.drawString(pawns, x + CELL_SIZE / 2 - 5, y + CELL_SIZE / 2);
+  private static int cellY(int row) {
+    return PADDING + row * CELL_SIZE;
   }
 
   /**
@@ -121,10 +284,10 @@ public class SanguineBoardPanel extends JPanel {
    * @return array of row and column at mouse coordinates, null if no cell found
    */
   public int[] getCellAt(int mouseX, int mouseY) {
-    int scoreWidth = 50;
-    int col = (mouseX - PADDING - scoreWidth) / CELL_SIZE;
+    int col = (mouseX - PADDING - SCORE_WIDTH) / CELL_SIZE;
     int row = (mouseY - PADDING) / CELL_SIZE;
-    if (row >= 0 && row < model.getNumRows() && col >= 0 && col < model.getNumCols()) {
+    GameSnapshot snapshot = model.getSnapshot();
+    if (row >= 0 && row < snapshot.getNumRows() && col >= 0 && col < snapshot.getNumCols()) {
       return new int[] {row, col};
     }
     return null;
@@ -139,7 +302,7 @@ public class SanguineBoardPanel extends JPanel {
   public void setSelectedCell(int row, int col) {
     this.selectedRow = row;
     this.selectedCol = col;
-    repaint();
+    refresh();
   }
 
 
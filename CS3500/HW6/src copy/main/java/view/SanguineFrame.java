@@ -4,7 +4,9 @@ package view;
 import java.awt.BorderLayout;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseListener;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
 import model.Card;
 import model.Cell;
 import model.SanguineModelInterface;
@@ -17,6 +19,7 @@ public class SanguineFrame extends JFrame implements SanguineGuiViewInterface {
   private final SanguineModelInterface<Card, Cell<Card>> model;
   private final SanguineHandPanel handPanel;
   private final SanguineBoardPanel boardPanel;
+  private final AtomicBoolean refreshPending = new AtomicBoolean();
 
   /**
    * Sets up the frame layout with hand and board panel.
@@ -37,15 +40,24 @@ public class SanguineFrame extends JFrame implements SanguineGuiViewInterface {
 
     pack();
     setLocationRelativeTo(null);
+    // Repaint whatever a move changed, whoever made it
+    model.addModelListener(events -> refresh());
 
   }
 
   /**
-   * refreshes the GUI.
+   * refreshes the GUI. Can be called from any thread; calls made before
+   * the GUI gets to the first one are coalesced into a single update that
+   * repaints only what changed.
    */
   public void refresh() {
-    handPanel.repaint();
-    boardPanel.repaint();
+    if (refreshPending.compareAndSet(false, true)) {
+      SwingUtilities.invokeLater(() -> {
+        refreshPending.set(false);
+        handPanel.refresh();
+        boardPanel.refresh();
+      });
+    }
   }
 
   @Override
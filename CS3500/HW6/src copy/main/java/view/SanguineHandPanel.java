@@ -5,14 +5,20 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import javax.swing.JPanel;
 import model.Card;
 import model.Cell;
+import model.GameSnapshot;
 import model.SanguineModelInterface;
 
 /**
  * Panel creates hand panel.
+ * Each card is rendered once per look (selected or not, red or blue) into
+ * a cached image, and refresh skips the repaint when nothing shown changed.
  */
 public class SanguineHandPanel extends JPanel {
   private final SanguineModelInterface<Card, Cell<Card>> model;
@@ -21,6 +27,14 @@ public class SanguineHandPanel extends JPanel {
   private static final int CARD_HEIGHT = 150;
   private static final int CARD_SPACING = 10;
   private static final int PADDING = 20;
+  private static final Font TURN_FONT = new Font("Arial", Font.BOLD, 16);
+  private static final Font CARD_FONT = new Font("Arial", Font.PLAIN, 12);
+  private static final int MAX_CACHED_CARDS = 256;
+
+  // Rendered cards, indexed by (selected ? 2 : 0) + (blue ? 1 : 0)
+  private final transient Map<Card, BufferedImage[]> cardImages = new IdentityHashMap<>();
+  private transient GameSnapshot painted;
+  private int paintedCardIndex = -1;
 
   /**
    * Constructs a new SanguineHandPanel.
@@ -35,7 +49,7 @@ public class SanguineHandPanel extends JPanel {
 
   @Override
   public Dimension getPreferredSize() {
-    List<Card> hand = model.getCurrentPlayerHand();
+    List<Card> hand = model.getSnapshot().getCurrentPlayerHand();
     int width = PADDING * 2 + hand.size() * (CARD_WIDTH + CARD_SPACING);
     return new Dimension(width, CARD_HEIGHT + PADDING * 2);
 
@@ -47,47 +61,83 @@ public class SanguineHandPanel extends JPanel {
     Graphics2D g2d = (Graphics2D) g;
 
 
-    Color playerColor = model.getCurrentPlayer().getPlayerColor();
+    // Read one snapshot so the player and hand shown always match
+    GameSnapshot snapshot = model.getSnapshot();
+    Color playerColor = snapshot.getCurrentPlayer().getPlayerColor();
 
     g2d.setColor(Color.BLACK);
-    g2d.setFont(new Font("Arial", Font.BOLD, 16));
+    g2d.setFont(TURN_FONT);
 
     if (playerColor.equals(Color.RED)) {
       g2d.drawString("Red Player's turn", PADDING, 15);
     } else {
       g2d.drawString("Blue Player's turn", PADDING, 15);
     }
-    List<Card> hand = model.getCurrentPlayerHand();
+    List<Card> hand = snapshot.getCurrentPlayerHand();
     for (int i = 0; i < hand.size(); i++) {
-      drawCard(g2d, hand.get(i), i, playerColor);
+      int x = PADDING + i * (CARD_WIDTH + CARD_SPACING);
+      g2d.drawImage(cardImage(hand.get(i), i == selectedCardIndex, playerColor),
+          x, PADDING + 20, null);
     }
+    painted = snapshot;
+    paintedCardIndex = selectedCardIndex;
+  }
 
+  /**
+   * Repaints the hand if the position or the selection changed since it
+   * was last painted.
+   */
+  public void refresh() {
+    if (model.getSnapshot() != painted || selectedCardIndex != paintedCardIndex) {
+      repaint();
+    }
   }
 
-  private void drawCard(Graphics2D g2d, Card card, int index, Color playerColor) {
-    int x = PADDING + index * (CARD_WIDTH + CARD_SPACING);
-    int y = PADDING + 20;
+  private BufferedImage cardImage(Card card, boolean selected, Color playerColor) {
+    BufferedImage[] images = cardImages.get(card);
+    if (images == null) {
+      if (cardImages.size() >= MAX_CACHED_CARDS) {
+        cardImages.clear();
+      }
+      images = new BufferedImage[4];
+      cardImages.put(card, images);
+    }
+    boolean blue = playerColor.equals(Color.BLUE);
+    int look = (selected ? 2 : 0) + (blue ? 1 : 0);
+    if (images[look] == null) {
+      images[look] = new BufferedImage(CARD_WIDTH + 1, CARD_HEIGHT + 1,
+          BufferedImage.TYPE_INT_ARGB);
+      Graphics2D g2d = images[look].createGraphics();
+      try {
+        drawCard(g2d, card, selected, playerColor);
+      } finally {
+        g2d.dispose();
+      }
+    }
+    return images[look];
+  }
 
+  private void drawCard(Graphics2D g2d, Card card, boolean selected, Color playerColor) {
     // Highlight if selected
-    if (index == selectedCardIndex) {
+    if (selected) {
       g2d.setColor(Color.CYAN);
     } else {
       g2d.setColor(Color.WHITE);
     }
-    g2d.fillRect(x, y, CARD_WIDTH, CARD_HEIGHT);
+    g2d.fillRect(0, 0, CARD_WIDTH, CARD_HEIGHT);
 
     // Draw border
     g2d.setColor(Color.BLACK);
-    g2d.drawRect(x, y, CARD_WIDTH, CARD_HEIGHT);
+    g2d.drawRect(0, 0, CARD_WIDTH, CARD_HEIGHT);
 
     // Draw card info
-    g2d.setFont(new Font("Arial", Font.PLAIN, 12));
-    g2d.drawString(card.getName(), x + 5, y + 15);
-    g2d.drawString("Cost: " + card.getCost(), x + 5, y + 30);
-    g2d.drawString("Value: " + card.getValue(), x + 5, y + 45);
+    g2d.setFont(CARD_FONT);
+    g2d.drawString(card.getName(), 5, 15);
+    g2d.drawString("Cost: " + card.getCost(), 5, 30);
+    g2d.drawString("Value: " + card.getValue(), 5, 45);
 
     // Draw influence grid
-    drawInfluenceGrid(g2d, card, x + 10, y + 55, playerColor);
+    drawInfluenceGrid(g2d, card, 10, 55, playerColor);
   }
 
   private void drawInfluenceGrid(Graphics2D g2d, Card card, int startX, int startY,
@@ -135,7 +185,7 @@ public class SanguineHandPanel extends JPanel {
     if (mouseY < y || mouseY > y + CARD_HEIGHT) {
       return -1;
     }
-    List<Card> hand = model.getCurrentPlayerHand();
+    List<Card> hand = model.getSnapshot().getCurrentPlayerHand();
     for (int i = 0; i < hand.size(); i++) {
       int x = PADDING + i * (CARD_WIDTH + CARD_SPACING);
       if (mouseX >= x && mouseX <= x + CARD_WIDTH) {
@@ -152,7 +202,7 @@ public class SanguineHandPanel extends JPanel {
    */
   public void setSelectedCard(int index) {
     this.selectedCardIndex = index;
-    repaint();
+    refresh();
   }
 
   /**
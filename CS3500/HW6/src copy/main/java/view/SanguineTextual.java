@@ -1,15 +1,26 @@
 package view;
 
-import java.awt.Color;
-import model.Cell;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import model.Card;
+import model.GameSnapshot;
+import model.PlayerInterface;
 import model.SanguineModel;
 
 /**
  * SanguineTextual class implements SanguineTextualView.
  * This class is responsible for the textual view of the Sanguine game.
+ * Each row is built in a reused character buffer from one snapshot of the
+ * model and written to the output in one call, so rendering to a Writer
+ * allocates nothing once the buffer has grown to fit a row. A renderer is
+ * not thread safe.
  */
 public class SanguineTextual implements SanguineTextualView {
   private final SanguineModel model;
+  private char[] line = new char[64];
+  private CharBuffer lineView = CharBuffer.wrap(line);
+  private int length;
 
   /**
    * Constructor for SanguineTextual.
@@ -23,41 +34,102 @@ public class SanguineTextual implements SanguineTextualView {
   @Override
   public String render() {
     StringBuilder sb = new StringBuilder();
-    Cell[][] board = model.getBoard();
-    for (int i = 0; i < board.length; i++) {
-      // Calculate red score for this row
-      int redScore = 0;
-      int blueScore = 0;
-      for (Cell cell : board[i]) {
-        if (cell.getCard() != null && cell.getOwner() != null) {
-          if (cell.getOwner().getPlayerColor().equals(Color.RED)) {
-            redScore += cell.getCard().getValue();
-          } else {
-            blueScore += cell.getCard().getValue();
-          }
-        }
+    try {
+      render(sb);
+    } catch (IOException e) {
+      // A StringBuilder does not throw
+      throw new IllegalStateException(e);
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public void render(Appendable out) throws IOException {
+    // Read one snapshot so the whole board shows the same position
+    GameSnapshot snapshot = model.getSnapshot();
+    PlayerInterface<Card> red = snapshot.getRedPlayer();
+    PlayerInterface<Card> blue = snapshot.getBluePlayer();
+    for (int i = 0; i < snapshot.getNumRows(); i++) {
+      length = 0;
+      appendInt(snapshot.getRowScore(red, i));
+      appendChar(' ');
+      appendCells(snapshot, i);
+      appendChar(' ');
+      appendInt(snapshot.getRowScore(blue, i));
+      appendChar('\n');
+      flushLine(out);
+    }
+  }
+
+  @Override
+  public void renderCompact(Appendable out) throws IOException {
+    GameSnapshot snapshot = model.getSnapshot();
+    PlayerInterface<Card> red = snapshot.getRedPlayer();
+    PlayerInterface<Card> blue = snapshot.getBluePlayer();
+    length = 0;
+    appendChar(snapshot.getCurrentPlayer() == red ? 'R' : 'B');
+    appendChar(' ');
+    for (int i = 0; i < snapshot.getNumRows(); i++) {
+      if (i > 0) {
+        appendChar('/');
       }
-      sb.append(redScore).append(" ");
-      for (int j = 0; j < board[i].length; j++) {
-        Cell cell = board[i][j];
-        if (cell.isEmpty()) {
-          sb.append("_");
-        } else if (cell.getCard() != null) {
-          if (cell.getOwner().getPlayerColor().equals(Color.RED)) {
-            sb.append("R");
-          } else {
-            sb.append("B");
-          }
-        } else if (cell.getOwner() != null) {
-          sb.append(cell.getNumPawns());
-        } else {
-          sb.append("_");
-        }
+      appendInt(snapshot.getRowScore(red, i));
+      appendChar(':');
+      appendCells(snapshot, i);
+      appendChar(':');
+      appendInt(snapshot.getRowScore(blue, i));
+    }
+    appendChar('\n');
+    flushLine(out);
+  }
+
+  private void appendCells(GameSnapshot snapshot, int row) {
+    PlayerInterface<Card> red = snapshot.getRedPlayer();
+    for (int j = 0; j < snapshot.getNumCols(); j++) {
+      PlayerInterface<Card> owner = snapshot.getOwner(row, j);
+      if (snapshot.isEmpty(row, j)) {
+        appendChar('_');
+      } else if (snapshot.getCard(row, j) != null) {
+        appendChar(owner == red ? 'R' : 'B');
+      } else if (owner != null) {
+        appendChar((char) ('0' + snapshot.getNumPawns(row, j)));
+      } else {
+        appendChar('_');
       }
-      sb.append(" ").append(blueScore);
-      sb.append("\n");
     }
-    return sb.toString();
+  }
+
+  private void appendChar(char c) {
+    if (length == line.length) {
+      char[] bigger = new char[line.length * 2];
+      System.arraycopy(line, 0, bigger, 0, length);
+      line = bigger;
+      lineView = CharBuffer.wrap(line);
+    }
+    line[length++] = c;
+  }
+
+  private void appendInt(int value) {
+    if (value < 0) {
+      appendChar('-');
+      value = -value;
+    }
+    int digits = 1;
+    for (int rest = value / 10; rest > 0; rest /= 10) {
+      digits *= 10;
+    }
+    for (; digits > 0; digits /= 10) {
+      appendChar((char) ('0' + value / digits % 10));
+    }
+  }
+
+  private void flushLine(Appendable out) throws IOException {
+    if (out instanceof Writer) {
+      ((Writer) out).write(line, 0, length);
+    } else {
+      lineView.clear().limit(length);
+      out.append(lineView);
+    }
   }
 
   @Override
@@ -1,5 +1,7 @@
 package view;
 
+import java.io.IOException;
+
 /**
  * Interface for rendering a textual view of the Sanguine game.
  * The textual view displays the current state of the game board including:
@@ -22,6 +24,27 @@ public interface SanguineTextualView {
    */
   String render();
 
+  /**
+   * Writes the same text as render straight to an output, without building
+   * a String for it.
+   *
+   * @param out where to write
+   * @throws IOException if writing fails
+   */
+  void render(Appendable out) throws IOException;
+
+  /**
+   * Writes the game on a single line, for logging many positions: the
+   * player to move ('R' or 'B'), a space, then the rows separated by '/',
+   * each as red row score, ':', the cells as in render, ':', blue row
+   * score, and a final line break. For example
+   * {@code R 0:1___1:0/0:R1__1:2/0:1___1:0}.
+   *
+   * @param out where to write
+   * @throws IOException if writing fails
+   */
+  void renderCompact(Appendable out) throws IOException;
+
   /**
    * Converts the current game state to a string representation.
    * This is equivalent to calling render().
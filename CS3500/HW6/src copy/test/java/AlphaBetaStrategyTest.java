@@ -0,0 +1,181 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import model.Card;
+import model.Player;
+import model.SanguineModel;
+import org.junit.Before;
+import org.junit.Test;
+import strategy.AlphaBetaStrategy;
+import strategy.Move;
+import strategy.PawnControlEvaluator;
+import strategy.PositionEvaluator;
+import strategy.RowScoreEvaluator;
+import strategy.SanguineStrategyInterface;
+import strategy.TranspositionTable;
+
+/**
+ * Tests for the alpha-beta search strategy.
+ */
+public class AlphaBetaStrategyTest {
+  private Card spear;
+  private Card gem;
+  private Card crown;
+
+  /**
+   * Set up test cards.
+   */
+  @Before
+  public void setUp() {
+    boolean[][] reachTwoEast = CardFixtures.reachTwoEast();
+    spear = new Card("Spear", 1, 1, reachTwoEast);
+    gem = new Card("Gem", 1, 3, CardFixtures.none());
+    crown = new Card("Crown", 1, 5, CardFixtures.none());
+  }
+
+  private SanguineModel buildModel(List<Card> redHand, List<Card> blueHand, int rows, int cols) {
+    Player red = new Player(Color.RED, redHand, new ArrayList<>());
+    Player blue = new Player(Color.BLUE, blueHand, new ArrayList<>());
+    return new SanguineModel(red, blue, rows, cols);
+  }
+
+  @Test
+  public void testDepthOnePicksHighestValueCard() {
+    SanguineModel model = buildModel(Arrays.asList(spear, crown, gem),
+        Arrays.asList(gem), 3, 5);
+    SanguineStrategyInterface strategy = new AlphaBetaStrategy(1);
+
+    List<Move> moves = strategy.chooseMoves(model, model.getRedPlayer());
+
+    assertEquals(Arrays.asList(new Move(1, 0, 0), new Move(1, 1, 0), new Move(1, 2, 0)), moves);
+  }
+
+  @Test
+  public void testDeeperSearchSeesOpponentReply() {
+    // On a 1x3 board the spear removes blue's only pawn, so blue cannot answer
+    SanguineModel model = buildModel(Arrays.asList(spear, gem), Arrays.asList(crown), 1, 3);
+
+    List<Move> greedy = new AlphaBetaStrategy(1).chooseMoves(model, model.getRedPlayer());
+    List<Move> deep = new AlphaBetaStrategy(2).chooseMoves(model, model.getRedPlayer());
+
+    assertEquals(Arrays.asList(new Move(1, 0, 0)), greedy);
+    assertEquals(Arrays.asList(new Move(0, 0, 0)), deep);
+  }
+
+  @Test
+  public void testSearchLeavesModelUnchanged() {
+    SanguineModel model = buildModel(Arrays.asList(spear, gem, crown),
+        Arrays.asList(gem, crown, spear), 3, 5);
+    List<Card> handBefore = new ArrayList<>(model.getRedPlayer().getHand());
+
+    new AlphaBetaStrategy(new PawnControlEvaluator(2, 1), 4, 10_000)
+        .chooseMoves(model, model.getRedPlayer());
+
+    assertSame(model.getRedPlayer(), model.getCurrentPlayer());
+    assertEquals(handBefore, model.getRedPlayer().getHand());
+    for (int row = 0; row < 3; row++) {
+      for (int col = 1; col < 4; col++) {
+        assertTrue(model.getCellAt(row, col).isEmpty());
+      }
+      assertNull(model.getCellAt(row, 0).getCard());
+    }
+  }
+
+  @Test
+  public void testTinyNodeBudgetStillReturnsMove() {
+    SanguineModel model = buildModel(Arrays.asList(spear, gem, crown),
+        Arrays.asList(gem, crown, spear), 3, 5);
+
+    List<Move> moves = new AlphaBetaStrategy(new RowScoreEvaluator(), 6, 1)
+        .chooseMoves(model, model.getRedPlayer());
+
+    assertFalse(moves.isEmpty());
+    for (Move move : moves) {
+      assertTrue(model.isLegalMove(move.getRow(), move.getCol(), move.getCardIndex()));
+    }
+  }
+
+  @Test
+  public void testNodeBudgetCoversEveryIteration() {
+    SanguineModel model = buildModel(Arrays.asList(spear, gem, crown, spear, gem),
+        Arrays.asList(gem, crown, spear, crown, spear), 3, 5);
+    AtomicInteger evaluations = new AtomicInteger();
+    PositionEvaluator counting = (m, p) -> {
+      evaluations.incrementAndGet();
+      return new RowScoreEvaluator().evaluate(m, p);
+    };
+
+    new AlphaBetaStrategy(counting, 10, 1000).chooseMoves(model, model.getRedPlayer());
+
+    // Each position is evaluated at most once per visit
+    assertTrue(evaluations.get() <= 1000);
+  }
+
+  @Test
+  public void testParallelNodeBudgetCountsSmallTasks() {
+    SanguineModel model = buildModel(Arrays.asList(spear, gem, crown, spear, gem),
+        Arrays.asList(gem, crown, spear, crown, spear), 3, 5);
+    AtomicInteger evaluations = new AtomicInteger();
+    PositionEvaluator counting = (m, p) -> {
+      evaluations.incrementAndGet();
+      return new RowScoreEvaluator().evaluate(m, p);
+    };
+
+    new AlphaBetaStrategy(counting, 10, 1000, null, 2).chooseMoves(model, model.getRedPlayer());
+
+    // Each thread can overrun by at most one batch of 1024 nodes
+    assertTrue(evaluations.get() <= 1000 + 2 * 1024);
+  }
+
+  @Test
+  public void testNoLegalMovesReturnsEmpty() {
+    Card expensive = new Card("Expensive", 3, 9, CardFixtures.none());
+    SanguineModel model = buildModel(Arrays.asList(expensive), Arrays.asList(gem), 3, 5);
+
+    assertTrue(new AlphaBetaStrategy(3).chooseMoves(model, model.getRedPlayer()).isEmpty());
+  }
+
+  @Test
+  public void testParallelSearchMatchesSequential() {
+    SanguineModel model = buildModel(Arrays.asList(spear, gem, crown),
+        Arrays.asList(gem, crown, spear), 3, 5);
+
+    List<Move> sequential = new AlphaBetaStrategy(new PawnControlEvaluator(2, 1), 4,
+        1_000_000, null, 1).chooseMoves(model, model.getRedPlayer());
+    List<Move> parallel = new AlphaBetaStrategy(new PawnControlEvaluator(2, 1), 4,
+        1_000_000, new TranspositionTable(1 << 16), 4).chooseMoves(model, model.getRedPlayer());
+
+    assertEquals(sequential, parallel);
+    assertSame(model.getRedPlayer(), model.getCurrentPlayer());
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  public void testClosedParallelSearchReleasesThreads() {
+    SanguineModel model = buildModel(Arrays.asList(spear, gem, crown),
+        Arrays.asList(gem, crown, spear), 3, 5);
+    AlphaBetaStrategy strategy = new AlphaBetaStrategy(new RowScoreEvaluator(), 2, 1000, null, 2);
+    strategy.chooseMoves(model, model.getRedPlayer());
+    strategy.close();
+
+    strategy.chooseMoves(model, model.getRedPlayer());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidParallelism() {
+    new AlphaBetaStrategy(new RowScoreEvaluator(), 3, 1000, null, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidDepth() {
+    new AlphaBetaStrategy(0);
+  }
+}
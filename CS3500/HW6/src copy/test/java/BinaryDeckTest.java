@@ -0,0 +1,106 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import model.BinaryDeck;
+import model.Card;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the compiled binary deck format.
+ */
+public class BinaryDeckTest {
+  private Path file;
+  private List<Card> cards;
+
+  /**
+   * Compile a pool of forty cards.
+   */
+  @Before
+  public void setUp() throws IOException {
+    Random random = new Random(3);
+    cards = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      boolean[][] influence = CardFixtures.none();
+      for (int r = 0; r < 5; r++) {
+        for (int c = 0; c < 5; c++) {
+          influence[r][c] = random.nextBoolean();
+        }
+      }
+      cards.add(new Card("Card" + i + (i % 2 == 0 ? "é" : ""), i % 3 + 1, i + 1, influence));
+    }
+    file = Files.createTempFile("pool", ".sgd");
+    BinaryDeck.write(cards, file);
+  }
+
+  /**
+   * Remove the compiled file.
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Test
+  public void testCardsRoundTrip() throws IOException {
+    BinaryDeck deck = BinaryDeck.open(file);
+
+    assertEquals(40, deck.size());
+    for (int i = 0; i < cards.size(); i++) {
+      Card card = deck.getCard(i);
+      assertEquals(cards.get(i).getName(), card.getName());
+      assertEquals(cards.get(i).getCost(), card.getCost());
+      assertEquals(cards.get(i).getValue(), card.getValue());
+      assertEquals(cards.get(i).getInfluenceMask(), deck.getInfluenceMask(i));
+      assertArrayEquals(cards.get(i).getInfluenceOffsets(), card.getInfluenceOffsets());
+    }
+  }
+
+  @Test
+  public void testSampleIsDistinctAndSeeded() throws IOException {
+    BinaryDeck deck = BinaryDeck.open(file);
+    List<Card> first = deck.sample(15, new Random(11));
+    List<Card> second = deck.sample(15, new Random(11));
+
+    Set<String> names = new HashSet<>();
+    for (int i = 0; i < 15; i++) {
+      assertEquals(first.get(i).getName(), second.get(i).getName());
+      names.add(first.get(i).getName());
+    }
+    assertEquals(15, names.size());
+    assertEquals(40, deck.sample(40, new Random(1)).size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSampleTooLarge() throws IOException {
+    BinaryDeck.open(file).sample(41, new Random(1));
+  }
+
+  @Test(expected = IOException.class)
+  public void testNameOutsideFileRejected() throws IOException {
+    byte[] bytes = Files.readAllBytes(file);
+    // The name length of the second card, the last field of its record
+    ByteBuffer.wrap(bytes).putInt(16 + 16 + 12, 1 << 20);
+    Files.write(file, bytes);
+
+    BinaryDeck deck = BinaryDeck.open(file);
+    assertEquals(cards.get(0).getName(), deck.getName(0));
+    deck.getName(1);
+  }
+
+  @Test(expected = IOException.class)
+  public void testRejectsTextFile() throws IOException {
+    Files.writeString(file, "Guard 1 2\nXXXXX\nXXIXX\nXICIX\nXXIXX\nXXXXX\n");
+    BinaryDeck.open(file);
+  }
+}
@@ -0,0 +1,122 @@
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import model.Card;
+import model.Player;
+import model.SanguineModel;
+import org.junit.Before;
+import org.junit.Test;
+import strategy.CachingStrategy;
+import strategy.CompositeStrategy;
+import strategy.FillFirstStrategy;
+import strategy.MaximizeRowScoreStrategy;
+import strategy.Move;
+import strategy.SanguineStrategyInterface;
+
+/**
+ * Tests for the caching strategy decorator.
+ */
+public class CachingStrategyTest {
+  private Card gem;
+  private Card crown;
+  private int calls;
+  private SanguineStrategyInterface counting;
+
+  /**
+   * Set up cards and a strategy counting how often it is asked.
+   */
+  @Before
+  public void setUp() {
+    gem = new Card("Gem", 1, 3, CardFixtures.none());
+    crown = new Card("Crown", 1, 5, CardFixtures.none());
+    calls = 0;
+    SanguineStrategyInterface fillFirst = new FillFirstStrategy();
+    counting = (model, player) -> {
+      calls++;
+      return fillFirst.chooseMoves(model, player);
+    };
+  }
+
+  private SanguineModel game(Card... redHand) {
+    return new SanguineModel(new Player(Color.RED, Arrays.asList(redHand), new ArrayList<>()),
+        new Player(Color.BLUE, Arrays.asList(gem, crown), new ArrayList<>()), 3, 5);
+  }
+
+  @Test
+  public void testRepeatedPositionIsAHit() {
+    CachingStrategy cached = new CachingStrategy(counting, 8);
+    SanguineModel model = game(gem, crown);
+
+    List<Move> first = cached.chooseMoves(model, model.getRedPlayer());
+    first.clear();
+    SanguineModel same = game(gem, crown);
+    List<Move> second = cached.chooseMoves(same, same.getRedPlayer());
+
+    assertEquals(new FillFirstStrategy().chooseMoves(model, model.getRedPlayer()), second);
+    assertEquals(1, calls);
+    assertEquals(1, cached.getHits());
+    assertEquals(1, cached.getMisses());
+  }
+
+  @Test
+  public void testPlayerHandOrderAndBoardAreInTheKey() {
+    CachingStrategy cached = new CachingStrategy(counting, 8);
+    SanguineModel model = game(gem, crown);
+    cached.chooseMoves(model, model.getRedPlayer());
+    cached.chooseMoves(model, model.getBluePlayer());
+    // Same cards, but the indexes in the moves would differ
+    SanguineModel swapped = game(crown, gem);
+    cached.chooseMoves(swapped, swapped.getRedPlayer());
+    model.playCardFromHand(0, 0, 0);
+    cached.chooseMoves(model, model.getRedPlayer());
+
+    assertEquals(4, calls);
+    assertEquals(0, cached.getHits());
+    assertEquals(4, cached.size());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedIsEvicted() {
+    CachingStrategy cached = new CachingStrategy(counting, 2);
+    SanguineModel a = game(gem, crown);
+    SanguineModel b = game(crown, gem);
+    SanguineModel c = game(gem);
+
+    cached.chooseMoves(a, a.getRedPlayer());
+    cached.chooseMoves(b, b.getRedPlayer());
+    cached.chooseMoves(a, a.getRedPlayer());
+    cached.chooseMoves(c, c.getRedPlayer());
+    assertEquals(2, cached.size());
+
+    cached.chooseMoves(a, a.getRedPlayer());
+    assertEquals(3, calls);
+    cached.chooseMoves(b, b.getRedPlayer());
+    assertEquals(4, calls);
+    assertEquals(2, cached.getHits());
+  }
+
+  @Test
+  public void testSharedSubStrategyAskedOnce() {
+    CachingStrategy cached = new CachingStrategy(counting, 8);
+    SanguineModel model = game(gem, crown);
+    new CompositeStrategy(new MaximizeRowScoreStrategy(), cached)
+        .chooseMoves(model, model.getRedPlayer());
+    List<Move> moves = new CompositeStrategy(cached, new MaximizeRowScoreStrategy())
+        .chooseMoves(model, model.getRedPlayer());
+
+    assertEquals(1, calls);
+    assertEquals(new CompositeStrategy(new FillFirstStrategy(), new MaximizeRowScoreStrategy())
+        .chooseMoves(model, model.getRedPlayer()), moves);
+
+    cached.clear();
+    assertEquals(0, cached.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCapacityMustBePositive() {
+    new CachingStrategy(new FillFirstStrategy(), 0);
+  }
+}
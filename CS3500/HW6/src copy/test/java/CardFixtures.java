@@ -0,0 +1,80 @@
+import java.util.ArrayList;
+import java.util.List;
+import model.Card;
+
+/**
+ * Influence grids and cards shared by the tests. Every call returns new
+ * objects, so a test may change what it gets.
+ */
+final class CardFixtures {
+
+  private CardFixtures() {
+  }
+
+  /**
+   * Makes a 5x5 influence grid, with the card at its center (2, 2).
+   *
+   * @param cells the influenced cells, as row and column pairs in the grid
+   * @return the grid
+   */
+  static boolean[][] influence(int... cells) {
+    boolean[][] grid = new boolean[5][5];
+    for (int i = 0; i < cells.length; i += 2) {
+      grid[cells[i]][cells[i + 1]] = true;
+    }
+    return grid;
+  }
+
+  /**
+   * An influence grid reaching no cell.
+   *
+   * @return the grid
+   */
+  static boolean[][] none() {
+    return influence();
+  }
+
+  /**
+   * An influence grid reaching the cell to the east of the card.
+   *
+   * @return the grid
+   */
+  static boolean[][] east() {
+    return influence(2, 3);
+  }
+
+  /**
+   * An influence grid reaching the cell two to the east of the card.
+   *
+   * @return the grid
+   */
+  static boolean[][] reachTwoEast() {
+    return influence(2, 4);
+  }
+
+  /**
+   * An influence grid reaching the four cells next to the card.
+   *
+   * @return the grid
+   */
+  static boolean[][] cross() {
+    return influence(1, 2, 2, 1, 2, 3, 3, 2);
+  }
+
+  /**
+   * Cards named East0, East1 and so on, each costing one pawn and
+   * influencing the cell to its east.
+   *
+   * @param count number of cards
+   * @param value value of every card
+   * @return the cards
+   */
+  static List<Card> eastCards(int count, int value) {
+    boolean[][] east = east();
+    List<Card> cards = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      cards.add(new Card("East" + i, 1, value, east));
+    }
+    return cards;
+  }
+}
@@ -1,8 +1,11 @@
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import model.Card;
+import model.InfluenceTable;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -65,6 +68,22 @@ public class CardTest {
     assertTrue(influence[2][3]);
   }
 
+  @Test
+  public void testCompiledInfluence() {
+    assertEquals((1 << 7) | (1 << 11) | (1 << 13) | (1 << 17), testCard.getInfluenceMask());
+    assertArrayEquals(new int[] {7, 11, 13, 17}, testCard.getInfluenceOffsets());
+  }
+
+  @Test
+  public void testInfluenceTableClipsToBoard() {
+    InfluenceTable table = InfluenceTable.forBoard(3, 5);
+
+    // North and west fall off the board in the corner
+    assertArrayEquals(new int[] {1, 5}, table.targets(testCard, 0, 0));
+    assertArrayEquals(new int[] {2, 6, 8, 12}, table.targets(testCard, 1, 2));
+    assertSame(table, InfluenceTable.forBoard(3, 5));
+  }
+
   @Test
   public void testIsValidCorrectParameters() {
     assertTrue(testCard.isValid(1, 1, testInfluence));
@@ -0,0 +1,104 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import model.Card;
+import model.DeckLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for loading and caching deck files.
+ */
+public class DeckLoaderTest {
+  private static final String DECK = "Guard 1 2\nXXXXX\nXXIXX\nXICIX\nXXIXX\nXXXXX\n"
+      + "Lance 3 5\r\nXXIXX\r\nXXIXX\r\nXXCXX\r\nXXXXX\r\nXXXXX\r\n";
+
+  private Path file;
+
+  /**
+   * Write a two card deck file.
+   */
+  @Before
+  public void setUp() throws IOException {
+    file = Files.createTempFile("deck", ".deck");
+    Files.writeString(file, DECK);
+  }
+
+  /**
+   * Remove the deck file.
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Test
+  public void testParsesCards() throws IOException {
+    List<Card> cards = DeckLoader.load(file);
+
+    assertEquals(2, cards.size());
+    assertEquals("Guard", cards.get(0).getName());
+    assertEquals(1, cards.get(0).getCost());
+    assertEquals(2, cards.get(0).getValue());
+    assertTrue(cards.get(0).getInfluence()[1][2]);
+    assertTrue(cards.get(0).getInfluence()[2][1]);
+    assertFalse(cards.get(0).getInfluence()[2][2]);
+    assertEquals(4, cards.get(0).getInfluenceOffsets().length);
+    assertEquals("Lance", cards.get(1).getName());
+    assertEquals(3, cards.get(1).getCost());
+    assertEquals(5, cards.get(1).getValue());
+    assertEquals(2, cards.get(1).getInfluenceOffsets().length);
+  }
+
+  @Test
+  public void testCachesUntilFileChanges() throws IOException {
+    List<Card> first = DeckLoader.load(file);
+    assertSame(first, DeckLoader.load(file));
+
+    Files.writeString(file, DECK.substring(0, DECK.indexOf("Lance")));
+    Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+    List<Card> changed = DeckLoader.load(file);
+    assertNotSame(first, changed);
+    assertEquals(1, changed.size());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testCachedCardsCannotBeChanged() throws IOException {
+    DeckLoader.load(file).clear();
+  }
+
+  @Test(expected = IOException.class)
+  public void testTruncatedCard() throws IOException {
+    Files.writeString(file, "Guard 1 2\nXXXXX\nXXIXX\n");
+    DeckLoader.load(file);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMissingFile() throws IOException {
+    DeckLoader.load(file.resolveSibling("missing.deck"));
+  }
+
+  @Test
+  public void testShuffledOrderIsSeededPermutation() {
+    int[] order = DeckLoader.shuffledOrder(15, new Random(7));
+    assertArrayEquals(order, DeckLoader.shuffledOrder(15, new Random(7)));
+
+    int[] sorted = order.clone();
+    Arrays.sort(sorted);
+    for (int i = 0; i < 15; i++) {
+      assertEquals(i, sorted[i]);
+    }
+  }
+}
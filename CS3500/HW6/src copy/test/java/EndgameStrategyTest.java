@@ -0,0 +1,139 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import model.Card;
+import model.Cell;
+import model.Player;
+import model.PlayerInterface;
+import model.SanguineModel;
+import model.SanguineModelInterface;
+import org.junit.Test;
+import strategy.EndgameStrategy;
+import strategy.FillFirstStrategy;
+import strategy.Move;
+
+/**
+ * Tests for the exact endgame solver.
+ */
+public class EndgameStrategyTest {
+
+  private static List<Card> pool() {
+    List<Card> cards = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      boolean[][] influence = CardFixtures.east();
+      influence[1 + i % 3][2 + i % 2] = i % 4 != 0;
+      influence[3][2] = i % 3 == 2;
+      cards.add(new Card("Card" + i, 1 + i % 2, 1 + i % 5, influence));
+    }
+    return cards;
+  }
+
+  private static SanguineModel endgame(long seed, int cardsEach) {
+    List<Card> cards = pool();
+    Collections.shuffle(cards, new Random(seed));
+    return new SanguineModel(
+        new Player(Color.RED, cards.subList(0, cardsEach), new ArrayList<>()),
+        new Player(Color.BLUE, cards.subList(cardsEach, cardsEach * 2), new ArrayList<>()),
+        3, 5);
+  }
+
+  /**
+   * Scores a position by trying every line of play, without pruning or
+   * memoising.
+   */
+  private static int bruteForce(SanguineModelInterface<Card, Cell<Card>> model, int passes) {
+    PlayerInterface<Card> me = model.getCurrentPlayer();
+    if (passes >= 2) {
+      PlayerInterface<Card> other = me == model.getRedPlayer()
+          ? model.getBluePlayer() : model.getRedPlayer();
+      return model.getPlayerScore(me) - model.getPlayerScore(other);
+    }
+    model.applyPass();
+    int best = -bruteForce(model, passes + 1);
+    model.undoMove();
+    for (Move move : legalMoves(model)) {
+      model.applyMove(move.getRow(), move.getCol(), move.getCardIndex());
+      best = Math.max(best, -bruteForce(model, 0));
+      model.undoMove();
+    }
+    return best;
+  }
+
+  private static List<Move> legalMoves(SanguineModelInterface<Card, Cell<Card>> model) {
+    List<Move> moves = new ArrayList<>();
+    for (int card = 0; card < model.getCurrentPlayerHand().size(); card++) {
+      for (int row = 0; row < model.getNumRows(); row++) {
+        for (int col = 0; col < model.getNumCols(); col++) {
+          if (model.isLegalMove(row, col, card)) {
+            moves.add(new Move(card, row, col));
+          }
+        }
+      }
+    }
+    return moves;
+  }
+
+  @Test
+  public void testSolverMatchesBruteForce() {
+    for (long seed = 0; seed < 6; seed++) {
+      SanguineModel model = endgame(seed, 2);
+      SanguineModel search = model.copyModel();
+      search.applyPass();
+      int best = -bruteForce(search, 1);
+      search.undoMove();
+      List<Move> expected = new ArrayList<>();
+      for (Move move : legalMoves(search)) {
+        search.applyMove(move.getRow(), move.getCol(), move.getCardIndex());
+        int score = -bruteForce(search, 0);
+        search.undoMove();
+        if (score > best) {
+          best = score;
+          expected.clear();
+        }
+        if (score == best) {
+          expected.add(move);
+        }
+      }
+
+      EndgameStrategy strategy = new EndgameStrategy(new FillFirstStrategy());
+      assertTrue(strategy.canSolve(model));
+      assertEquals("seed " + seed, expected,
+          strategy.chooseMoves(model, model.getCurrentPlayer()));
+    }
+  }
+
+  @Test
+  public void testDelegatesBeforeEndgame() {
+    List<Card> cards = pool();
+    SanguineModel model = new SanguineModel(
+        new Player(Color.RED, cards.subList(0, 2), cards.subList(2, 3)),
+        new Player(Color.BLUE, cards.subList(4, 6), new ArrayList<>()), 3, 5);
+    List<Move> delegated = new ArrayList<>();
+    EndgameStrategy strategy = new EndgameStrategy((m, p) -> delegated);
+
+    assertSame(delegated, strategy.chooseMoves(model, model.getCurrentPlayer()));
+  }
+
+  @Test
+  public void testDelegatesAboveThreshold() {
+    SanguineModel model = endgame(1, 5);
+    List<Move> delegated = new ArrayList<>();
+    EndgameStrategy strategy = new EndgameStrategy((m, p) -> delegated);
+
+    assertSame(delegated, strategy.chooseMoves(model, model.getCurrentPlayer()));
+  }
+
+  @Test
+  public void testSearchLeavesModelUnchanged() {
+    SanguineModel model = endgame(3, 3);
+    long key = model.getPositionKey();
+    new EndgameStrategy(new FillFirstStrategy()).chooseMoves(model, model.getBluePlayer());
+    assertEquals(key, model.getPositionKey());
+  }
+}
@@ -0,0 +1,169 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import model.Card;
+import model.GameRecorder;
+import model.GameReplayer;
+import model.Player;
+import model.SanguineModel;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for recording and replaying games.
+ */
+public class GameRecordTest {
+  private List<Card> deck;
+  private List<Long> keys;
+  private byte[] record;
+
+  /**
+   * Record a whole game played with the first legal move each turn.
+   */
+  @Before
+  public void setUp() throws IOException {
+    deck = new ArrayList<>();
+    for (int i = 0; i < 15; i++) {
+      boolean[][] influence = CardFixtures.east();
+      influence[1 + i % 3][2] = i % 3 != 1;
+      deck.add(new Card("Card" + i, 1 + i % 2, 1 + i % 4, influence));
+    }
+    Random random = new Random(7);
+    List<Card> redCards = new ArrayList<>(deck);
+    List<Card> blueCards = new ArrayList<>(deck);
+    Collections.shuffle(redCards, random);
+    Collections.shuffle(blueCards, random);
+    SanguineModel model = new SanguineModel(
+        new Player(Color.RED, redCards.subList(0, 5), redCards.subList(5, 15)),
+        new Player(Color.BLUE, blueCards.subList(0, 5), blueCards.subList(5, 15)), 3, 5);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    keys = new ArrayList<>();
+    keys.add(model.getPositionKey());
+    try (GameRecorder recorder = new GameRecorder(out, model, deck, "test.deck", 7, 4)) {
+      int passes = 0;
+      while (passes < 2) {
+        if (playFirstLegalMove(model, recorder)) {
+          passes = 0;
+        } else {
+          recorder.pass();
+          passes++;
+        }
+        keys.add(model.getPositionKey());
+      }
+      recorder.endGame();
+      assertEquals(keys.size() - 1, recorder.getMoveCount());
+    }
+    record = out.toByteArray();
+  }
+
+  private boolean playFirstLegalMove(SanguineModel model, GameRecorder recorder)
+      throws IOException {
+    for (int card = 0; card < model.getCurrentPlayerHand().size(); card++) {
+      for (int row = 0; row < model.getNumRows(); row++) {
+        for (int col = 0; col < model.getNumCols(); col++) {
+          if (model.isLegalMove(row, col, card)) {
+            recorder.playCardFromHand(row, col, card);
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  @Test
+  public void testSeekReachesEveryPosition() throws IOException {
+    GameReplayer replayer = GameReplayer.read(ByteBuffer.wrap(record), deck);
+    assertEquals(keys.size() - 1, replayer.getMoveCount());
+    assertEquals(7, replayer.getSeed());
+    assertEquals("test.deck", replayer.getDeckName());
+    for (int move = replayer.getMoveCount(); move >= 0; move--) {
+      assertEquals(keys.get(move).longValue(), replayer.seek(move).getPositionKey());
+    }
+  }
+
+  @Test
+  public void testRecordIsCompact() {
+    assertTrue(keys.size() > 10);
+    // Header and checkpoints aside, moves take a few bytes each
+    assertTrue(record.length < 100 + 40 * (keys.size() / 4 + 1) + 4 * keys.size());
+  }
+
+  @Test
+  public void testOpenMappedFile() throws IOException {
+    Path file = Files.createTempFile("game", ".sgr");
+    try {
+      Files.write(file, record);
+      GameReplayer replayer = GameReplayer.open(file, deck);
+      int last = replayer.getMoveCount();
+      assertEquals(keys.get(last).longValue(), replayer.seek(last).getPositionKey());
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testCutOffRecordKeepsCompleteMoves() throws IOException {
+    GameReplayer full = GameReplayer.read(ByteBuffer.wrap(record), deck);
+    GameReplayer cut = GameReplayer.read(ByteBuffer.wrap(record, 0, record.length - 2), deck);
+    assertTrue(cut.getMoveCount() < full.getMoveCount());
+    int last = cut.getMoveCount();
+    assertEquals(keys.get(last).longValue(), cut.seek(last).getPositionKey());
+  }
+
+  @Test
+  public void testEndOfGameReplays() throws IOException {
+    GameReplayer replayer = GameReplayer.read(ByteBuffer.wrap(record), deck);
+    assertTrue(replayer.isGameOver());
+    assertTrue(replayer.seek(replayer.getMoveCount()).isGameOver());
+    assertFalse(replayer.seek(replayer.getMoveCount() - 1).isGameOver());
+
+    GameReplayer cut = GameReplayer.read(ByteBuffer.wrap(record, 0, record.length - 1), deck);
+    assertFalse(cut.isGameOver());
+    assertFalse(cut.seek(cut.getMoveCount()).isGameOver());
+  }
+
+  @Test(expected = IOException.class)
+  public void testBytesAfterEndOfGameRejected() throws IOException {
+    byte[] padded = Arrays.copyOf(record, record.length + 4);
+    GameReplayer.read(ByteBuffer.wrap(padded), deck);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNoMovesAfterEndOfGame() throws IOException {
+    SanguineModel model = new SanguineModel(
+        new Player(Color.RED, deck.subList(0, 5), deck.subList(5, 15)),
+        new Player(Color.BLUE, deck.subList(0, 5), deck.subList(5, 15)), 3, 5);
+    GameRecorder recorder = new GameRecorder(new ByteArrayOutputStream(), model, deck,
+        "test.deck", 7, 4);
+    recorder.endGame();
+    assertTrue(model.isGameOver());
+    recorder.pass();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOtherDeckRejected() throws IOException {
+    List<Card> other = new ArrayList<>(deck);
+    Collections.swap(other, 0, 1);
+    GameReplayer.read(ByteBuffer.wrap(record), other);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSeekOutOfRange() throws IOException {
+    GameReplayer replayer = GameReplayer.read(ByteBuffer.wrap(record), deck);
+    replayer.seek(replayer.getMoveCount() + 1);
+  }
+}
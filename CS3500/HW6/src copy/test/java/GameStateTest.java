@@ -0,0 +1,123 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import model.Card;
+import model.GameState;
+import model.Player;
+import model.SanguineModel;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for copy-on-write game states.
+ */
+public class GameStateTest {
+  private SanguineModel model;
+
+  /**
+   * Set up a model with cross-shaped cards and decks.
+   */
+  @Before
+  public void setUp() {
+    boolean[][] cross = CardFixtures.cross();
+    List<Card> hand = new ArrayList<>();
+    List<Card> deck = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      hand.add(new Card("Hand" + i, 1, i + 1, cross));
+      deck.add(new Card("Deck" + i, 1, 1, cross));
+    }
+    model = new SanguineModel(new Player(Color.RED, hand, deck),
+        new Player(Color.BLUE, hand, deck), 3, 5);
+  }
+
+  private void assertSamePosition(SanguineModel expected, GameState actual) {
+    for (int row = 0; row < 3; row++) {
+      for (int col = 0; col < 5; col++) {
+        assertEquals(expected.getCellAt(row, col).getNumPawns(), actual.getPawns(row, col));
+        assertSame(expected.getCellOwner(row, col), actual.getOwner(row, col));
+        assertSame(expected.getCellAt(row, col).getCard(), actual.getCard(row, col));
+      }
+      assertEquals(expected.getRowScore(expected.getRedPlayer(), row),
+          actual.getRowScore(actual.getRedPlayer(), row));
+      assertEquals(expected.getRowScore(expected.getBluePlayer(), row),
+          actual.getRowScore(actual.getBluePlayer(), row));
+    }
+    assertEquals(expected.getPlayerScore(expected.getRedPlayer()),
+        actual.getPlayerScore(actual.getRedPlayer()));
+    assertEquals(expected.getOwnedCellCount(expected.getRedPlayer()),
+        actual.getOwnedCellCount(actual.getRedPlayer()));
+    assertEquals(expected.getOwnedCellCount(expected.getBluePlayer()),
+        actual.getOwnedCellCount(actual.getBluePlayer()));
+    assertEquals(expected.getRedPlayer().getHand(), actual.getHand(actual.getRedPlayer()));
+    assertEquals(expected.getBluePlayer().getHand(), actual.getHand(actual.getBluePlayer()));
+    assertSame(expected.getCurrentPlayer(), actual.getCurrentPlayer());
+  }
+
+  @Test
+  public void testChildrenMatchModel() {
+    GameState state = GameState.of(model);
+    int[][] moves = {{1, 0, 0}, {1, 4, 2}, {0, 0, 1}, {2, 4, 0}, {1, 1, 3}, {0, 4, 0}};
+    for (int[] move : moves) {
+      model.applyMove(move[0], move[1], move[2]);
+      state = state.play(move[0], move[1], move[2]);
+      assertSamePosition(model, state);
+    }
+  }
+
+  @Test
+  public void testInfluenceOnOwnCellIgnored() {
+    boolean[][] selfAndEast = CardFixtures.influence(2, 2, 2, 3);
+    List<Card> hand = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      hand.add(new Card("Self" + i, 1, 2, selfAndEast));
+    }
+    model = new SanguineModel(new Player(Color.RED, hand, hand),
+        new Player(Color.BLUE, hand, hand), 3, 5);
+    GameState state = GameState.of(model);
+    int[][] moves = {{0, 0, 0}, {0, 4, 0}, {0, 1, 1}, {1, 4, 2}};
+    for (int[] move : moves) {
+      model.applyMove(move[0], move[1], move[2]);
+      state = state.play(move[0], move[1], move[2]);
+      assertSamePosition(model, state);
+    }
+    assertFalse(state.isLegalMove(0, 0, 0));
+  }
+
+  @Test
+  public void testParentUnchanged() {
+    GameState root = GameState.of(model);
+    GameState child = root.play(1, 0, 2);
+
+    assertNull(root.getCard(1, 0));
+    assertEquals(1, root.getPawns(1, 0));
+    assertTrue(root.getOwner(1, 1) == null);
+    assertEquals(5, root.getDeckSize(root.getRedPlayer()));
+    assertEquals(4, child.getDeckSize(child.getRedPlayer()));
+    assertEquals(3, child.getRowScore(child.getRedPlayer(), 1));
+    assertSame(root.getRedPlayer(), root.getCurrentPlayer());
+  }
+
+  @Test
+  public void testLongChainsStayCorrect() {
+    GameState state = GameState.of(model).play(1, 0, 0);
+    model.applyMove(1, 0, 0);
+    for (int i = 0; i < 70; i++) {
+      state = state.pass();
+    }
+
+    assertSamePosition(model, state);
+    assertTrue(state.isGameOver());
+    assertFalse(GameState.of(model).pass().isGameOver());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalMove() {
+    GameState.of(model).play(1, 2, 0);
+  }
+}
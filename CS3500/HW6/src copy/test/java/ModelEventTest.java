@@ -0,0 +1,147 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import model.AsyncModelListener;
+import model.Card;
+import model.ModelEvent;
+import model.PackedSanguineModel;
+import model.Player;
+import model.SanguineModel;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for model change events.
+ */
+public class ModelEventTest {
+  private Player red;
+  private Player blue;
+  private List<List<ModelEvent>> batches;
+
+  /**
+   * Set up players holding cards that influence the cell to their east.
+   */
+  @Before
+  public void setUp() {
+    List<Card> cards = CardFixtures.eastCards(8, 2);
+    red = new Player(Color.RED, cards.subList(0, 5), cards.subList(5, 8));
+    blue = new Player(Color.BLUE, cards.subList(0, 5), cards.subList(5, 8));
+    batches = Collections.synchronizedList(new ArrayList<>());
+  }
+
+  private List<ModelEvent.Type> types(List<ModelEvent> events) {
+    List<ModelEvent.Type> types = new ArrayList<>();
+    for (ModelEvent event : events) {
+      types.add(event.getType());
+    }
+    return types;
+  }
+
+  @Test
+  public void testMoveSendsOneBatch() {
+    SanguineModel model = new SanguineModel(red, blue, 3, 5);
+    model.addModelListener(batches::add);
+
+    model.playCardFromHand(1, 0, 0);
+
+    assertEquals(1, batches.size());
+    List<ModelEvent> events = batches.get(0);
+    assertEquals(List.of(ModelEvent.Type.CELLS_CHANGED, ModelEvent.Type.CARD_PLACED,
+        ModelEvent.Type.ROW_SCORE_CHANGED, ModelEvent.Type.TURN_CHANGED), types(events));
+
+    List<ModelEvent.CellChange> cells = ((ModelEvent.CellsChanged) events.get(0)).getChanges();
+    assertEquals(2, cells.size());
+    assertEquals(1, cells.get(1).getCol());
+    assertEquals(0, cells.get(1).getPawnsBefore());
+    assertEquals(1, cells.get(1).getPawnsAfter());
+    assertNull(cells.get(1).getOwnerBefore());
+    assertSame(red, cells.get(1).getOwnerAfter());
+
+    ModelEvent.CardPlaced placed = (ModelEvent.CardPlaced) events.get(1);
+    assertEquals(1, placed.getRow());
+    assertEquals(0, placed.getCol());
+    assertSame(red, placed.getPlayer());
+
+    ModelEvent.RowScoreChanged score = (ModelEvent.RowScoreChanged) events.get(2);
+    assertEquals(0, score.getBefore());
+    assertEquals(2, score.getAfter());
+    assertSame(blue, ((ModelEvent.TurnChanged) events.get(3)).getCurrent());
+  }
+
+  @Test
+  public void testSearchMovesAndRemovedListenersAreSilent() {
+    SanguineModel model = new SanguineModel(red, blue, 3, 5);
+    model.addModelListener(batches::add);
+    model.applyMove(1, 0, 0);
+    model.undoMove();
+    assertTrue(batches.isEmpty());
+
+    model.pass();
+    assertEquals(List.of(ModelEvent.Type.TURN_CHANGED), types(batches.get(0)));
+    model.setGameOver(true);
+    assertEquals(List.of(ModelEvent.Type.GAME_OVER), types(batches.get(1)));
+  }
+
+  @Test
+  public void testPackedModelSendsSameEvents() {
+    SanguineModel model = new SanguineModel(new Player(red), new Player(blue), 3, 5);
+    List<List<ModelEvent>> expected = new ArrayList<>();
+    model.addModelListener(expected::add);
+    PackedSanguineModel packed = new PackedSanguineModel(red, blue, 3, 5);
+    packed.addModelListener(batches::add);
+
+    model.playCardFromHand(1, 0, 0);
+    packed.playCardFromHand(1, 0, 0);
+    model.playCardFromHand(0, 4, 1);
+    packed.playCardFromHand(0, 4, 1);
+
+    assertEquals(2, batches.size());
+    for (int i = 0; i < 2; i++) {
+      assertEquals(types(expected.get(i)), types(batches.get(i)));
+    }
+  }
+
+  @Test
+  public void testAsyncListenerDeliversInOrder() {
+    SanguineModel model = new SanguineModel(red, blue, 3, 5);
+    AsyncModelListener async = new AsyncModelListener(batches::add, 1);
+    model.addModelListener(async);
+
+    model.playCardFromHand(1, 0, 0);
+    model.pass();
+    model.pass();
+    model.setGameOver(true);
+    async.close();
+
+    assertEquals(4, batches.size());
+    assertEquals(ModelEvent.Type.CARD_PLACED, batches.get(0).get(1).getType());
+    assertEquals(List.of(ModelEvent.Type.GAME_OVER), types(batches.get(3)));
+  }
+
+  @Test(timeout = 5000)
+  public void testClosedAsyncListenerDropsBatches() {
+    SanguineModel model = new SanguineModel(red, blue, 3, 5);
+    AsyncModelListener async = new AsyncModelListener(batches::add, 1);
+    model.addModelListener(async);
+    model.playCardFromHand(1, 0, 0);
+    async.close();
+    async.close();
+
+    // Still registered, but the game must not block on the full queue
+    model.pass();
+    model.pass();
+    model.pass();
+    assertEquals(1, batches.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullListener() {
+    new SanguineModel(red, blue, 3, 5).addModelListener(null);
+  }
+}
@@ -0,0 +1,98 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import model.Card;
+import model.Player;
+import model.SanguineModel;
+import org.junit.Before;
+import org.junit.Test;
+import strategy.MonteCarloStrategy;
+import strategy.Move;
+
+/**
+ * Tests for the Monte Carlo tree search strategy.
+ */
+public class MonteCarloStrategyTest {
+  private Card spear;
+  private Card gem;
+  private Card crown;
+
+  /**
+   * Set up test cards.
+   */
+  @Before
+  public void setUp() {
+    boolean[][] reachTwoEast = CardFixtures.reachTwoEast();
+    spear = new Card("Spear", 1, 1, reachTwoEast);
+    gem = new Card("Gem", 1, 3, CardFixtures.none());
+    crown = new Card("Crown", 1, 5, CardFixtures.none());
+  }
+
+  private SanguineModel buildModel(List<Card> redHand, List<Card> blueHand, int rows, int cols) {
+    Player red = new Player(Color.RED, redHand, new ArrayList<>());
+    Player blue = new Player(Color.BLUE, blueHand, new ArrayList<>());
+    return new SanguineModel(red, blue, rows, cols);
+  }
+
+  @Test
+  public void testFindsWinningMove() {
+    // On a 1x3 board the spear removes blue's only pawn, so blue cannot answer
+    SanguineModel model = buildModel(Arrays.asList(gem, spear), Arrays.asList(crown), 1, 3);
+
+    List<Move> moves = new MonteCarloStrategy(500).chooseMoves(model, model.getRedPlayer());
+
+    assertEquals(Arrays.asList(new Move(1, 0, 0)), moves);
+  }
+
+  @Test
+  public void testSameSeedSameMoves() {
+    List<Card> deck = Arrays.asList(spear, gem, crown, gem, spear, crown);
+    SanguineModel model = buildModel(Arrays.asList(spear, gem, crown),
+        Arrays.asList(gem, crown, spear), 3, 5);
+
+    List<Move> first = new MonteCarloStrategy(300, 0, 1, deck, 7)
+        .chooseMoves(model, model.getRedPlayer());
+    List<Move> second = new MonteCarloStrategy(300, 0, 1, deck, 7)
+        .chooseMoves(model, model.getRedPlayer());
+
+    assertEquals(first, second);
+  }
+
+  @Test
+  public void testParallelSearchLeavesModelUnchanged() {
+    List<Card> deck = Arrays.asList(spear, gem, crown, gem, spear, crown);
+    SanguineModel model = buildModel(Arrays.asList(spear, gem, crown),
+        Arrays.asList(gem, crown, spear), 3, 5);
+    List<Card> blueHand = new ArrayList<>(model.getBluePlayer().getHand());
+
+    List<Move> moves = new MonteCarloStrategy(2000, 5000, 4, deck, 1)
+        .chooseMoves(model, model.getRedPlayer());
+
+    assertFalse(moves.isEmpty());
+    for (Move move : moves) {
+      assertTrue(model.isLegalMove(move.getRow(), move.getCol(), move.getCardIndex()));
+    }
+    assertSame(model.getRedPlayer(), model.getCurrentPlayer());
+    assertEquals(blueHand, model.getBluePlayer().getHand());
+    assertEquals(3, model.getRedPlayer().getHand().size());
+  }
+
+  @Test
+  public void testNoLegalMovesReturnsEmpty() {
+    Card expensive = new Card("Expensive", 3, 9, CardFixtures.none());
+    SanguineModel model = buildModel(Arrays.asList(expensive), Arrays.asList(gem), 3, 5);
+
+    assertTrue(new MonteCarloStrategy(100).chooseMoves(model, model.getRedPlayer()).isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBudget() {
+    new MonteCarloStrategy(0);
+  }
+}
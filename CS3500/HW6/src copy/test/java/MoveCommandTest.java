@@ -0,0 +1,50 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import controller.MoveCommand;
+import org.junit.Test;
+
+/**
+ * Tests for parsing typed moves.
+ */
+public class MoveCommandTest {
+
+  @Test
+  public void testParseMove() {
+    MoveCommand command = MoveCommand.parse("  2 1\t4 ");
+    assertFalse(command.isPass());
+    assertEquals(2, command.getCardIndex());
+    assertEquals(1, command.getRow());
+    assertEquals(4, command.getCol());
+  }
+
+  @Test
+  public void testParsePass() {
+    assertTrue(MoveCommand.parse("PASS\r").isPass());
+  }
+
+  @Test
+  public void testWrongWordCountReportsFormat() {
+    for (String input : new String[] {"", "1 2", "a b c d"}) {
+      try {
+        MoveCommand.parse(input);
+      } catch (IllegalArgumentException e) {
+        assertEquals("Invalid input! Please use format: <card_index> <row> <col>",
+            e.getMessage());
+        continue;
+      }
+      throw new AssertionError("Accepted " + input);
+    }
+  }
+
+  @Test
+  public void testNonNumberReported() {
+    try {
+      MoveCommand.parse("1 x 2");
+      throw new AssertionError("Accepted a non-number");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Invalid input! Please enter numbers only.", e.getMessage());
+    }
+  }
+}
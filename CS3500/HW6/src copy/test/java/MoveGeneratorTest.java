@@ -0,0 +1,67 @@
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import model.Card;
+import model.Player;
+import model.SanguineModel;
+import org.junit.Test;
+import strategy.Move;
+import strategy.MoveGenerator;
+
+/**
+ * Tests for the packed move generator.
+ */
+public class MoveGeneratorTest {
+
+  private List<Move> legalMoves(SanguineModel model) {
+    List<Move> moves = new ArrayList<>();
+    for (int cardIdx = 0; cardIdx < model.getCurrentPlayerHand().size(); cardIdx++) {
+      for (int row = 0; row < model.getNumRows(); row++) {
+        for (int col = 0; col < model.getNumCols(); col++) {
+          if (model.isLegalMove(row, col, cardIdx)) {
+            moves.add(new Move(cardIdx, row, col));
+          }
+        }
+      }
+    }
+    return moves;
+  }
+
+  @Test
+  public void testMatchesLegalMovesThroughGame() {
+    boolean[][] cross = CardFixtures.cross();
+    List<Card> hand = Arrays.asList(new Card("Cross", 1, 1, cross),
+        new Card("Heavy", 3, 5, cross), new Card("Mid", 2, 2, cross));
+    SanguineModel model = new SanguineModel(new Player(Color.RED, hand, hand),
+        new Player(Color.BLUE, hand, hand), 3, 5);
+    MoveGenerator generator = new MoveGenerator();
+
+    for (int turn = 0; turn < 8; turn++) {
+      List<Move> expected = legalMoves(model);
+      assertEquals(expected.size(), generator.generate(model));
+      assertEquals(expected, generator.toMoves());
+      if (expected.isEmpty()) {
+        model.applyPass();
+      } else {
+        Move move = expected.get(expected.size() / 2);
+        model.applyMove(move.getRow(), move.getCol(), move.getCardIndex());
+      }
+    }
+  }
+
+  @Test
+  public void testExpensiveCardsSkipped() {
+    Card heavy = new Card("Heavy", 3, 5, CardFixtures.none());
+    Card light = new Card("Light", 1, 1, CardFixtures.none());
+    SanguineModel model = new SanguineModel(new Player(Color.RED, Arrays.asList(heavy, light),
+        new ArrayList<>()), new Player(Color.BLUE, Arrays.asList(light), new ArrayList<>()), 2, 3);
+    MoveGenerator generator = new MoveGenerator();
+
+    assertEquals(2, generator.generate(model));
+    assertEquals(Move.pack(1, 0, 0), generator.get(0));
+    assertEquals(Move.pack(1, 1, 0), generator.get(1));
+  }
+}
@@ -0,0 +1,110 @@
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import model.Card;
+import model.Player;
+import model.SanguineModel;
+import org.junit.Before;
+import org.junit.Test;
+import strategy.Move;
+import strategy.MoveGenerator;
+import strategy.MoveOrderer;
+
+/**
+ * Tests for ordering moves by killers, history and static estimate.
+ */
+public class MoveOrdererTest {
+  private Card spear;
+  private Card gem;
+  private Card crown;
+  private SanguineModel model;
+  private MoveGenerator moves;
+  private MoveOrderer orderer;
+
+  /**
+   * Set up a 3x5 game with red holding spear, gem and crown.
+   */
+  @Before
+  public void setUp() {
+    boolean[][] reachTwoEast = CardFixtures.reachTwoEast();
+    spear = new Card("Spear", 1, 1, reachTwoEast);
+    gem = new Card("Gem", 1, 3, CardFixtures.none());
+    crown = new Card("Crown", 1, 5, CardFixtures.none());
+    model = new SanguineModel(
+        new Player(Color.RED, Arrays.asList(spear, gem, crown), new ArrayList<>()),
+        new Player(Color.BLUE, Arrays.asList(spear, gem), new ArrayList<>()), 3, 5);
+    moves = new MoveGenerator();
+    orderer = new MoveOrderer();
+  }
+
+  private List<Move> ordered(int ply, int first) {
+    int count = moves.generate(model);
+    orderer.order(model, moves, count, ply, first);
+    return moves.toMoves();
+  }
+
+  @Test
+  public void testEstimateRanksByRowSwingThenCells() {
+    // Crown wins its row by 5, gem by 3, spear by 1 and gains a cell
+    assertEquals(8 * 5 + 5, orderer.estimate(model, Move.pack(2, 0, 0)));
+    assertEquals(8 * 3 + 3, orderer.estimate(model, Move.pack(1, 0, 0)));
+    assertEquals(8 + 4 + 1, orderer.estimate(model, Move.pack(0, 0, 0)));
+
+    model.playCardFromHand(0, 0, 1);
+    // Blue's spear cannot catch up in row 0, but takes row 1
+    assertEquals(1, orderer.estimate(model, Move.pack(0, 0, 4)));
+    assertEquals(8 + 1, orderer.estimate(model, Move.pack(0, 1, 4)));
+  }
+
+  @Test
+  public void testOrdersByEstimateKeepingBoardOrderForTies() {
+    assertEquals(Arrays.asList(new Move(2, 0, 0), new Move(2, 1, 0), new Move(2, 2, 0),
+        new Move(1, 0, 0), new Move(1, 1, 0), new Move(1, 2, 0),
+        new Move(0, 0, 0), new Move(0, 1, 0), new Move(0, 2, 0)), ordered(0, -1));
+  }
+
+  @Test
+  public void testFirstMoveThenKillersOfThePly() {
+    orderer.cutoff(model, Move.pack(1, 2, 0), 1, 1);
+    orderer.cutoff(model, Move.pack(0, 1, 0), 1, 1);
+
+    List<Move> atKillerPly = ordered(1, Move.pack(0, 2, 0));
+    assertEquals(Arrays.asList(new Move(0, 2, 0), new Move(0, 1, 0), new Move(1, 2, 0),
+        new Move(2, 0, 0)), atKillerPly.subList(0, 4));
+
+    // Elsewhere only the history counts, lifting the gem above its twins
+    List<Move> elsewhere = ordered(3, -1);
+    assertEquals(Arrays.asList(new Move(2, 0, 0), new Move(2, 1, 0), new Move(2, 2, 0),
+        new Move(1, 2, 0), new Move(1, 0, 0)), elsewhere.subList(0, 5));
+  }
+
+  @Test
+  public void testNewSearchForgetsKillers() {
+    orderer.cutoff(model, Move.pack(0, 1, 0), 0, 1);
+    assertEquals(new Move(0, 1, 0), ordered(0, -1).get(0));
+
+    orderer.newSearch();
+    assertEquals(new Move(2, 0, 0), ordered(0, -1).get(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOrderRejectsMovesOfAnotherPosition() {
+    moves.generate(model);
+    orderer.order(model, moves, 0, 0, -1);
+  }
+
+  @Test
+  public void testSortIsStableAndDescending() {
+    moves.generate(model);
+    int[] keys = {1, 5, 1, 3, 5, 0, 1, 1, 1};
+    moves.sort(keys);
+    assertEquals(Arrays.asList(new Move(0, 1, 0), new Move(1, 1, 0), new Move(1, 0, 0),
+        new Move(0, 0, 0), new Move(0, 2, 0), new Move(2, 0, 0), new Move(2, 1, 0),
+        new Move(2, 2, 0), new Move(1, 2, 0)), moves.toMoves());
+    assertEquals(5, keys[0]);
+    assertEquals(0, keys[8]);
+  }
+}
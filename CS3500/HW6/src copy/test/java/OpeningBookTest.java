@@ -0,0 +1,121 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import model.Card;
+import model.Player;
+import model.SanguineModel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import strategy.BookStrategy;
+import strategy.FillFirstStrategy;
+import strategy.Move;
+import strategy.OpeningBook;
+import strategy.OpeningBookBuilder;
+
+/**
+ * Tests for building and playing from an opening book.
+ */
+public class OpeningBookTest {
+  private List<Card> deck;
+  private Path file;
+  private OpeningBook book;
+  private final List<Move> delegated = new ArrayList<>();
+
+  /**
+   * Build a two ply book for a seven card deck with hands of three.
+   */
+  @Before
+  public void setUp() throws IOException {
+    deck = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      boolean[][] influence = CardFixtures.east();
+      influence[1 + i % 3][2] = i % 2 == 0;
+      deck.add(new Card("Card" + i, 1 + i % 2, 1 + i, influence));
+    }
+    file = Files.createTempFile("opening", ".book");
+    int positions = new OpeningBookBuilder(deck, 3, 5, 3, 2, FillFirstStrategy::new, 2, 1)
+        .build(file);
+    book = OpeningBook.open(file);
+    assertEquals(positions, book.size());
+  }
+
+  /**
+   * Remove the book file.
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  private SanguineModel game(int... blueCards) {
+    List<Card> blueHand = new ArrayList<>();
+    for (int card : blueCards) {
+      blueHand.add(deck.get(card));
+    }
+    return new SanguineModel(new Player(Color.RED, deck.subList(0, 3), deck.subList(3, 7)),
+        new Player(Color.BLUE, blueHand, deck), 3, 5);
+  }
+
+  @Test
+  public void testBookHasEveryFirstMove() {
+    // 35 red hands, and blue's replies on top
+    assertTrue(book.size() > 35);
+    SanguineModel model = game(4, 5, 6);
+    List<Move> moves = new BookStrategy(book, (m, p) -> delegated)
+        .chooseMoves(model, model.getCurrentPlayer());
+    assertEquals(new FillFirstStrategy().chooseMoves(model, model.getCurrentPlayer()), moves);
+  }
+
+  @Test
+  public void testBookAnswersReplyWhateverBlueHolds() {
+    BookStrategy strategy = new BookStrategy(book, (m, p) -> delegated);
+    for (int[] hand : new int[][] {{0, 1, 2}, {2, 4, 6}, {0, 3, 5}}) {
+      SanguineModel model = game(hand);
+      Move first = strategy.chooseMoves(model, model.getCurrentPlayer()).get(0);
+      model.playCardFromHand(first.getRow(), first.getCol(), first.getCardIndex());
+
+      List<Move> reply = strategy.chooseMoves(model, model.getCurrentPlayer());
+      assertNotSame(delegated, reply);
+      assertEquals(new FillFirstStrategy().chooseMoves(model, model.getCurrentPlayer()), reply);
+    }
+  }
+
+  @Test
+  public void testFallsBackOutOfBook() {
+    BookStrategy strategy = new BookStrategy(book, (m, p) -> delegated);
+    SanguineModel model = game(4, 5, 6);
+    assertSame(delegated, strategy.chooseMoves(model, model.getBluePlayer()));
+    for (int ply = 0; ply < 2; ply++) {
+      Move move = strategy.chooseMoves(model, model.getCurrentPlayer()).get(0);
+      model.playCardFromHand(move.getRow(), move.getCol(), move.getCardIndex());
+    }
+    // Only two plies deep
+    assertSame(delegated, strategy.chooseMoves(model, model.getCurrentPlayer()));
+
+    SanguineModel over = game(4, 5, 6);
+    over.pass();
+    over.pass();
+    over.setGameOver(true);
+    assertSame(delegated, strategy.chooseMoves(over, over.getCurrentPlayer()));
+
+    SanguineModel bigger = new SanguineModel(
+        new Player(Color.RED, deck.subList(0, 3), deck.subList(3, 7)),
+        new Player(Color.BLUE, deck.subList(4, 7), deck), 5, 7);
+    assertSame(delegated, strategy.chooseMoves(bigger, bigger.getCurrentPlayer()));
+  }
+
+  @Test(expected = IOException.class)
+  public void testOpenRejectsOtherFiles() throws IOException {
+    Files.writeString(file, "not a book, just some text");
+    OpeningBook.open(file);
+  }
+}
@@ -0,0 +1,212 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import model.Card;
+import model.Cell;
+import model.PackedCells;
+import model.PackedSanguineModel;
+import model.Player;
+import model.SanguineModel;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for PackedSanguineModel.
+ */
+public class PackedSanguineModelTest {
+
+  private Player redPlayer;
+  private Player bluePlayer;
+  private PackedSanguineModel model;
+  private boolean[][] emptyInfluence;
+  private boolean[][] crossInfluence;
+
+  /**
+   * Set up test fixtures.
+   */
+  @Before
+  public void setUp() {
+    redPlayer = new Player(Color.RED);
+    bluePlayer = new Player(Color.BLUE);
+    model = new PackedSanguineModel(redPlayer, bluePlayer, 3, 5);
+    emptyInfluence = CardFixtures.none();
+    crossInfluence = CardFixtures.cross();
+  }
+
+  @Test
+  public void testInitialBoardSetup() {
+    for (int i = 0; i < 3; i++) {
+      assertEquals(1, model.getCellAt(i, 0).getNumPawns());
+      assertSame(redPlayer, model.getCellAt(i, 0).getOwner());
+      assertEquals(1, model.getCellAt(i, 4).getNumPawns());
+      assertSame(bluePlayer, model.getCellAt(i, 4).getOwner());
+      for (int j = 1; j < 4; j++) {
+        assertTrue(model.getCellAt(i, j).isEmpty());
+      }
+    }
+  }
+
+  @Test
+  public void testPackedEncoding() {
+    int cell = PackedCells.pack(3, PackedCells.BLUE, 7);
+    assertEquals(3, PackedCells.pawns(cell));
+    assertEquals(PackedCells.BLUE, PackedCells.owner(cell));
+    assertEquals(7, PackedCells.slot(cell));
+    assertFalse(PackedCells.isEmpty(cell));
+    assertTrue(PackedCells.isEmpty(PackedCells.pack(0, PackedCells.NO_OWNER, 0)));
+  }
+
+  @Test
+  public void testPlaceCardThroughCellView() {
+    Card card = new Card("Test", 1, 2, crossInfluence);
+    model.placeCard(1, 0, card);
+
+    Cell<Card> placed = model.getCellAt(1, 0);
+    assertSame(card, placed.getCard());
+    assertEquals(0, placed.getNumPawns());
+    assertSame(redPlayer, placed.getOwner());
+    assertEquals(1, model.getCellAt(1, 1).getNumPawns());
+    assertSame(redPlayer, model.getCellAt(1, 1).getOwner());
+    assertEquals(2, model.getCellAt(0, 0).getNumPawns());
+    assertEquals(2, model.getRowScore(redPlayer, 1));
+    assertSame(bluePlayer, model.getCurrentPlayer());
+  }
+
+  @Test
+  public void testCellViewWritesThrough() {
+    Cell<Card>[][] board = model.getBoard();
+    board[1][2].updatePawns(2);
+    board[1][2].setOwner(bluePlayer);
+
+    assertEquals(2, PackedCells.pawns(model.getPackedCell(1, 2)));
+    assertSame(bluePlayer, model.getCellOwner(1, 2));
+
+    board[1][2].updatePawns(0);
+    assertTrue(model.getCellAt(1, 2).isEmpty());
+    assertNull(model.getCellOwner(1, 2));
+  }
+
+  @Test
+  public void testCellViewReplacesCard() {
+    model.placeCard(1, 0, new Card("Test", 1, 2, emptyInfluence));
+    Cell<Card> cell = model.getCellAt(1, 0);
+    cell.setCard(new Card("Big", 1, 5, emptyInfluence));
+    assertEquals(5, model.getRowScore(redPlayer, 1));
+    assertEquals(5, model.getPlayerScore(redPlayer));
+
+    cell.setCard(null);
+    assertNull(cell.getCard());
+    assertEquals(0, model.getPlayerScore(redPlayer));
+  }
+
+  @Test
+  public void testPlayerOutsideTheGameOwnsNothing() {
+    model.placeCard(1, 0, new Card("Test", 1, 2, emptyInfluence));
+    Player stranger = new Player(Color.GREEN);
+    assertEquals(0, model.getRowScore(stranger, 1));
+    assertEquals(0, model.getPlayerScore(stranger));
+    assertEquals(0, model.getOwnedCellCount(stranger));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCellViewRejectsOwnerOutsideTheGame() {
+    model.getCellAt(1, 2).setOwner(new Player(Color.GREEN));
+  }
+
+  @Test
+  public void testMatchesSanguineModel() {
+    SanguineModel reference = new SanguineModel(redPlayer, bluePlayer, 3, 5);
+    Card cross = new Card("Cross", 1, 3, crossInfluence);
+    int[][] moves = {{0, 0}, {0, 4}, {1, 0}, {1, 4}, {0, 1}, {1, 3}, {2, 0}, {2, 4}};
+    for (int[] move : moves) {
+      reference.placeCard(move[0], move[1], cross);
+      model.placeCard(move[0], move[1], cross);
+    }
+
+    Cell<Card>[][] copy = model.copyBoard();
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 5; j++) {
+        Cell<Card> expected = reference.getCellAt(i, j);
+        assertEquals(expected.getNumPawns(), copy[i][j].getNumPawns());
+        assertSame(expected.getOwner(), copy[i][j].getOwner());
+        assertSame(expected.getCard(), copy[i][j].getCard());
+        assertEquals(expected.isEmpty(), copy[i][j].isEmpty());
+      }
+      assertEquals(reference.getRowScore(redPlayer, i), model.getRowScore(redPlayer, i));
+      assertEquals(reference.getRowScore(bluePlayer, i), model.getRowScore(bluePlayer, i));
+    }
+    assertEquals(reference.getPlayerScore(redPlayer), model.getPlayerScore(redPlayer));
+    assertEquals(reference.getOwnedCellCount(redPlayer), model.getOwnedCellCount(redPlayer));
+    assertEquals(reference.getOwnedCellCount(bluePlayer), model.getOwnedCellCount(bluePlayer));
+    int[] expected = new int[15];
+    int[] actual = new int[15];
+    for (int cost = 1; cost <= 3; cost++) {
+      int count = reference.collectPlayableCells(bluePlayer, cost, expected);
+      assertEquals(count, model.collectPlayableCells(bluePlayer, cost, actual));
+      for (int i = 0; i < count; i++) {
+        assertEquals(expected[i], actual[i]);
+      }
+    }
+  }
+
+  @Test
+  public void testCopyConstructorIsIndependent() {
+    PackedSanguineModel copy = new PackedSanguineModel(model);
+    copy.placeCard(0, 0, new Card("Test", 1, 1, emptyInfluence));
+
+    assertEquals(1, model.getCellAt(0, 0).getNumPawns());
+    assertNull(model.getCellAt(0, 0).getCard());
+    assertSame(redPlayer, model.getCurrentPlayer());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPlaceCardOnEmptyCell() {
+    model.placeCard(1, 1, new Card("Test", 1, 1, emptyInfluence));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPlaceCardInsufficientPawns() {
+    model.placeCard(0, 0, new Card("Expensive", 3, 5, emptyInfluence));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPlaceCardOutOfBounds() {
+    model.placeCard(10, 10, new Card("Test", 1, 1, emptyInfluence));
+  }
+
+  @Test
+  public void testUndoMoveRestoresPackedBoard() {
+    List<Card> hand = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      hand.add(new Card("Cross" + i, 1, 2, crossInfluence));
+    }
+    redPlayer = new Player(Color.RED, hand, hand);
+    bluePlayer = new Player(Color.BLUE, hand, hand);
+    model = new PackedSanguineModel(redPlayer, bluePlayer, 3, 5);
+    int[] before = new int[15];
+    for (int i = 0; i < 15; i++) {
+      before[i] = model.getPackedCell(i / 5, i % 5);
+    }
+
+    model.applyMove(1, 0, 0);
+    model.applyPass();
+    model.applyMove(1, 1, 3);
+    assertEquals(4, model.getRowScore(redPlayer, 1));
+    model.undoMove();
+    model.undoMove();
+    model.undoMove();
+
+    for (int i = 0; i < 15; i++) {
+      assertEquals(before[i], model.getPackedCell(i / 5, i % 5));
+    }
+    assertEquals(hand, redPlayer.getHand());
+    assertSame(redPlayer, model.getCurrentPlayer());
+  }
+
+}
@@ -0,0 +1,84 @@
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import model.Card;
+import model.Player;
+import model.SanguineModel;
+import org.junit.Before;
+import org.junit.Test;
+import view.SanguineBoardPanel;
+
+/**
+ * Tests that the board panel's cached, incremental rendering matches a
+ * freshly painted board. The panel is painted into images, so no display
+ * is needed.
+ */
+public class SanguineBoardPanelTest {
+  private SanguineModel model;
+
+  /**
+   * Set up a 3x5 game with cards that influence the cell to their east.
+   */
+  @Before
+  public void setUp() {
+    List<Card> cards = CardFixtures.eastCards(8, 3);
+    Player red = new Player(Color.RED, cards.subList(0, 5), cards.subList(5, 8));
+    Player blue = new Player(Color.BLUE, cards.subList(0, 5), cards.subList(5, 8));
+    model = new SanguineModel(red, blue, 3, 5);
+  }
+
+  private static BufferedImage paint(SanguineBoardPanel panel) {
+    Dimension size = panel.getPreferredSize();
+    panel.setSize(size);
+    BufferedImage image = new BufferedImage(size.width, size.height,
+        BufferedImage.TYPE_INT_RGB);
+    Graphics2D g2d = image.createGraphics();
+    try {
+      panel.paintComponent(g2d);
+    } finally {
+      g2d.dispose();
+    }
+    return image;
+  }
+
+  private static void assertSamePixels(BufferedImage expected, BufferedImage actual) {
+    assertEquals(expected.getWidth(), actual.getWidth());
+    assertEquals(expected.getHeight(), actual.getHeight());
+    for (int y = 0; y < expected.getHeight(); y++) {
+      for (int x = 0; x < expected.getWidth(); x++) {
+        assertEquals("Pixel (" + x + ", " + y + ")", expected.getRGB(x, y), actual.getRGB(x, y));
+      }
+    }
+  }
+
+  @Test
+  public void testIncrementalPaintMatchesFreshPaint() {
+    SanguineBoardPanel incremental = new SanguineBoardPanel(model);
+    paint(incremental);
+
+    model.playCardFromHand(0, 0, 0);
+    paint(incremental);
+    incremental.setSelectedCell(0, 4);
+    model.playCardFromHand(0, 4, 0);
+    paint(incremental);
+    incremental.setSelectedCell(2, 0);
+    model.playCardFromHand(1, 0, 1);
+    BufferedImage updated = paint(incremental);
+
+    SanguineBoardPanel fresh = new SanguineBoardPanel(model);
+    fresh.setSelectedCell(2, 0);
+    assertSamePixels(paint(fresh), updated);
+  }
+
+  @Test
+  public void testRepaintWithoutChangesKeepsPixels() {
+    SanguineBoardPanel panel = new SanguineBoardPanel(model);
+    model.playCardFromHand(1, 0, 2);
+    BufferedImage first = paint(panel);
+    assertSamePixels(first, paint(panel));
+  }
+}
@@ -1,13 +1,18 @@
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
 import model.Card;
 import model.Cell;
+import model.GameSnapshot;
 import model.Player;
 import model.SanguineModel;
 import org.junit.Before;
@@ -107,6 +112,23 @@ public class SanguineModelTest {
     assertEquals("Test", board[0][0].getCard().getName());
   }
 
+  @Test
+  public void testGetCellAtFollowsTheBoard() {
+    Cell<Card> cell = model.getCellAt(0, 0);
+    model.placeCard(0, 0, new Card("Test", 1, 2, emptyInfluence));
+    assertEquals("Test", cell.getCard().getName());
+    assertSame(cell, model.getCellAt(0, 0));
+
+    model.getBoard()[0][1] = new Cell<>();
+    model.getBoard()[0][1].updatePawns(2);
+    assertEquals(2, model.getCellAt(0, 1).getNumPawns());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testGetCellAtIsReadOnly() {
+    model.getCellAt(0, 0).updatePawns(3);
+  }
+
   @Test
   public void testPlaceCardRemovesPawns() {
     Card card = new Card("Test", 1, 1, emptyInfluence);
@@ -235,7 +257,7 @@ public class SanguineModelTest {
     model.placeCard(0, 0, expensiveCard);
   }
 
-  @Test(expected = ArrayIndexOutOfBoundsException.class)
+  @Test(expected = IllegalArgumentException.class)
   public void testPlaceCardOutOfBounds() {
     Card card = new Card("Test", 1, 1, emptyInfluence);
     model.placeCard(10, 10, card);
@@ -247,18 +269,24 @@ public class SanguineModelTest {
   }
 
 
-  @Test(expected = ArrayIndexOutOfBoundsException.class)
+  @Test(expected = IllegalArgumentException.class)
   public void testNegativeRowIndex() {
     Card card = new Card("Test", 1, 1, emptyInfluence);
     model.placeCard(-1, 0, card);
   }
 
-  @Test(expected = ArrayIndexOutOfBoundsException.class)
+  @Test(expected = IllegalArgumentException.class)
   public void testNegativeColumnIndex() {
     Card card = new Card("Test", 1, 1, emptyInfluence);
     model.placeCard(0, -1, card);
   }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void testApplyMoveOutOfBounds() {
+    model = modelWithDecks(new Card("Test", 1, 1, emptyInfluence), 3);
+    model.applyMove(3, 0, 0);
+  }
+
   @Test
   public void testCalculateRowScoreEmptyRow() {
     Cell[] emptyRow = new Cell[5];
@@ -268,4 +296,240 @@ public class SanguineModelTest {
     assertEquals(0, model.calculateRowScore(emptyRow));
   }
 
+
+  /**
+   * Builds a model whose players hold the given number of copies of a card,
+   * with five in hand and the rest in the deck.
+   */
+  private SanguineModel modelWithDecks(Card card, int deckSize) {
+    List<Card> hand = new ArrayList<>();
+    List<Card> deck = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      hand.add(new Card("Hand" + i, 1, i + 1, card.getInfluence()));
+    }
+    for (int i = 0; i < deckSize; i++) {
+      deck.add(new Card("Deck" + i, 1, 1, card.getInfluence()));
+    }
+    redPlayer = new Player(Color.RED, hand, deck);
+    bluePlayer = new Player(Color.BLUE, hand, deck);
+    return new SanguineModel(redPlayer, bluePlayer, 3, 5);
+  }
+
+  @Test
+  public void testUndoMoveRestoresBoardAndHands() {
+    boolean[][] cross = CardFixtures.cross();
+    model = modelWithDecks(new Card("Cross", 1, 1, cross), 3);
+    Cell<Card>[][] before = model.copyBoard();
+    List<Card> handBefore = new ArrayList<>(redPlayer.getHand());
+
+    model.applyMove(1, 0, 2);
+    assertNotNull(model.getCellAt(1, 0).getCard());
+    assertSame(bluePlayer, model.getCurrentPlayer());
+    model.applyMove(0, 4, 0);
+
+    model.undoMove();
+    model.undoMove();
+
+    assertSame(redPlayer, model.getCurrentPlayer());
+    assertEquals(handBefore, redPlayer.getHand());
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 5; j++) {
+        Cell<Card> cell = model.getCellAt(i, j);
+        assertEquals(before[i][j].getNumPawns(), cell.getNumPawns());
+        assertSame(before[i][j].getOwner(), cell.getOwner());
+        assertNull(cell.getCard());
+        assertEquals(before[i][j].isEmpty(), cell.isEmpty());
+      }
+    }
+  }
+
+  @Test
+  public void testUndoMoveWithEmptyDeck() {
+    model = modelWithDecks(new Card("Plain", 1, 1, emptyInfluence), 0);
+    Card played = redPlayer.getHand().get(4);
+    model.applyMove(2, 0, 4);
+    assertEquals(4, redPlayer.getHand().size());
+
+    model.undoMove();
+    assertEquals(5, redPlayer.getHand().size());
+    assertSame(played, redPlayer.getHand().get(4));
+    assertEquals(1, model.getCellAt(2, 0).getNumPawns());
+  }
+
+  @Test
+  public void testUndoPass() {
+    model.applyPass();
+    assertSame(bluePlayer, model.getCurrentPlayer());
+    model.undoMove();
+    assertSame(redPlayer, model.getCurrentPlayer());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testUndoWithoutMove() {
+    model.undoMove();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testCommittedMovesAreNotJournaled() {
+    model = modelWithDecks(new Card("Plain", 1, 1, emptyInfluence), 3);
+    model.applyPass();
+    model.playCardFromHand(0, 4, 0);
+    model.pass();
+    model.undoMove();
+  }
+
+  @Test
+  public void testPositionKeyRestoredByUndo() {
+    model = modelWithDecks(new Card("Plain", 1, 1, emptyInfluence), 3);
+    long start = model.getPositionKey();
+
+    model.applyMove(0, 0, 1);
+    long afterMove = model.getPositionKey();
+    model.applyPass();
+
+    assertNotEquals(start, afterMove);
+    assertNotEquals(afterMove, model.getPositionKey());
+    model.undoMove();
+    assertEquals(afterMove, model.getPositionKey());
+    model.undoMove();
+    assertEquals(start, model.getPositionKey());
+  }
+
+  @Test
+  public void testPositionKeySameForTransposedMoves() {
+    model = modelWithDecks(new Card("Plain", 1, 1, emptyInfluence), 3);
+    model.applyMove(0, 0, 0);
+    model.applyMove(0, 4, 0);
+    model.applyMove(1, 0, 0);
+    long first = model.getPositionKey();
+
+    model = modelWithDecks(new Card("Plain", 1, 1, emptyInfluence), 3);
+    model.applyMove(1, 0, 1);
+    model.applyMove(0, 4, 0);
+    model.applyMove(0, 0, 0);
+
+    assertEquals(first, model.getPositionKey());
+  }
+
+  @Test
+  public void testScoresAndCountsFollowMovesAndUndo() {
+    boolean[][] east = CardFixtures.east();
+    model = modelWithDecks(new Card("East", 1, 1, east), 3);
+
+    model.applyMove(1, 0, 3);
+    assertEquals(4, model.getRowScore(redPlayer, 1));
+    assertEquals(4, model.getPlayerScore(redPlayer));
+    assertEquals(4, model.getOwnedCellCount(redPlayer));
+    assertEquals(3, model.getOwnedCellCount(bluePlayer));
+
+    model.undoMove();
+    assertEquals(0, model.getPlayerScore(redPlayer));
+    assertEquals(3, model.getOwnedCellCount(redPlayer));
+  }
+
+  @Test
+  public void testScoresFollowDirectBoardChanges() {
+    Card card = new Card("Plain", 1, 7, emptyInfluence);
+    model.getBoard()[2][0].setCard(card);
+    assertEquals(7, model.getRowScore(redPlayer, 2));
+
+    model.getBoard()[2][0].setOwner(bluePlayer);
+    assertEquals(0, model.getPlayerScore(redPlayer));
+    assertEquals(7, model.getPlayerScore(bluePlayer));
+    assertEquals(4, model.getOwnedCellCount(bluePlayer));
+  }
+
+  @Test
+  public void testCollectPlayableCellsByCost() {
+    int[] cells = new int[15];
+    model.getBoard()[1][0].updatePawns(3);
+    model.getBoard()[2][0].setCard(new Card("Plain", 1, 1, emptyInfluence));
+
+    assertEquals(2, model.collectPlayableCells(redPlayer, 1, cells));
+    assertEquals(0, cells[0]);
+    assertEquals(5, cells[1]);
+    assertEquals(1, model.collectPlayableCells(redPlayer, 3, cells));
+    assertEquals(5, cells[0]);
+
+    model.placeCard(1, 0, new Card("Plain", 3, 1, emptyInfluence));
+    assertEquals(1, model.collectPlayableCells(redPlayer, 1, cells));
+    assertEquals(0, model.collectPlayableCells(redPlayer, 3, cells));
+    assertEquals(3, model.collectPlayableCells(bluePlayer, 1, cells));
+  }
+
+  @Test
+  public void testIllegalApplyMoveKeepsHand() {
+    model = modelWithDecks(new Card("Plain", 1, 1, emptyInfluence), 3);
+    try {
+      model.applyMove(1, 2, 0);
+    } catch (IllegalArgumentException e) {
+      // expected, the cell is empty
+    }
+    assertEquals(5, redPlayer.getHand().size());
+  }
+
+  @Test
+  public void testSnapshotPublishedAfterMove() {
+    boolean[][] east = CardFixtures.east();
+    model = modelWithDecks(new Card("East", 1, 1, east), 3);
+    GameSnapshot before = model.getSnapshot();
+
+    model.playCardFromHand(1, 0, 3);
+    GameSnapshot after = model.getSnapshot();
+
+    assertNull(before.getCard(1, 0));
+    assertEquals(1, before.getNumPawns(1, 0));
+    assertTrue(before.isEmpty(1, 1));
+    assertSame(redPlayer, before.getCurrentPlayer());
+    assertEquals(5, before.getHand(redPlayer).size());
+
+    assertNotNull(after.getCard(1, 0));
+    assertSame(redPlayer, after.getOwner(1, 1));
+    assertEquals(1, after.getNumPawns(1, 1));
+    assertEquals(model.getRowScore(redPlayer, 1), after.getRowScore(redPlayer, 1));
+    assertEquals(model.getPlayerScore(redPlayer), after.getPlayerScore(redPlayer));
+    assertSame(bluePlayer, after.getCurrentPlayer());
+    assertEquals(redPlayer.getHand(), after.getHand(redPlayer));
+    assertEquals(before.getVersion() + 1, after.getVersion());
+  }
+
+  @Test
+  public void testSearchMovesDoNotPublish() {
+    model = modelWithDecks(new Card("Plain", 1, 1, emptyInfluence), 3);
+    GameSnapshot snapshot = model.getSnapshot();
+
+    model.applyMove(0, 0, 0);
+    assertSame(snapshot, model.getSnapshot());
+    model.undoMove();
+    model.pass();
+    assertNotSame(snapshot, model.getSnapshot());
+    assertSame(bluePlayer, model.getSnapshot().getCurrentPlayer());
+  }
+
+  @Test
+  public void testSnapshotAfterBoardUpdateAndCopy() {
+    Cell<Card>[][] board = model.copyBoard();
+    board[2][0].setCard(new Card("Plain", 1, 7, emptyInfluence));
+    model.updateBoard(board);
+
+    assertEquals(7, model.getSnapshot().getRowScore(redPlayer, 2));
+    SanguineModel copy = model.copyModel();
+    assertEquals(7, copy.getSnapshot().getRowScore(copy.getRedPlayer(), 2));
+    assertSame(copy.getRedPlayer(), copy.getSnapshot().getOwner(2, 0));
+  }
+
+  @Test
+  public void testSnapshotBuiltOnlyOnceAsked() {
+    model = modelWithDecks(new Card("Plain", 1, 1, emptyInfluence), 3);
+    model.playCardFromHand(0, 0, 0);
+    SanguineModel copy = model.copyModel();
+    copy.playCardFromHand(0, 4, 0);
+
+    // Nothing is published until someone reads a snapshot
+    assertEquals(0, copy.getSnapshot().getVersion());
+    assertNotNull(copy.getSnapshot().getCard(0, 4));
+    assertEquals(0, model.getSnapshot().getVersion());
+    model.pass();
+    assertEquals(1, model.getSnapshot().getVersion());
+  }
 }
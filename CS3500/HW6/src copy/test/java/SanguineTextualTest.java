@@ -0,0 +1,54 @@
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import model.Card;
+import model.Player;
+import model.SanguineModel;
+import org.junit.Before;
+import org.junit.Test;
+import view.SanguineTextual;
+
+/**
+ * Tests for the textual view.
+ */
+public class SanguineTextualTest {
+  private SanguineModel model;
+  private SanguineTextual view;
+
+  /**
+   * Set up a 3x5 game with cards that influence the cell to their east.
+   */
+  @Before
+  public void setUp() {
+    List<Card> cards = CardFixtures.eastCards(8, 12);
+    Player red = new Player(Color.RED, cards.subList(0, 5), cards.subList(5, 8));
+    Player blue = new Player(Color.BLUE, cards.subList(0, 5), cards.subList(5, 8));
+    model = new SanguineModel(red, blue, 3, 5);
+    view = new SanguineTextual(model);
+  }
+
+  @Test
+  public void testRenderStartingBoard() {
+    assertEquals("0 1___1 0\n0 1___1 0\n0 1___1 0\n", view.render());
+  }
+
+  @Test
+  public void testWriterMatchesRender() throws IOException {
+    model.playCardFromHand(1, 0, 0);
+    StringWriter out = new StringWriter();
+    view.render(out);
+    assertEquals("0 1___1 0\n12 R1__1 0\n0 1___1 0\n", out.toString());
+    assertEquals(out.toString(), view.render());
+  }
+
+  @Test
+  public void testRenderCompact() throws IOException {
+    model.playCardFromHand(1, 0, 0);
+    StringBuilder out = new StringBuilder();
+    view.renderCompact(out);
+    assertEquals("B 0:1___1:0/12:R1__1:0/0:1___1:0\n", out.toString());
+  }
+}
@@ -0,0 +1,141 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import model.Card;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import sanguine.SessionServer;
+import strategy.FillFirstStrategy;
+
+/**
+ * Tests for the session server.
+ */
+public class SessionServerTest {
+  private static final SocketAddress LOOPBACK =
+      new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+  private List<Card> deck;
+  private SessionServer server;
+  private SocketChannel channel;
+  private BufferedReader in;
+  private Writer out;
+
+  /**
+   * Make a deck of cards that influence the cell to their east.
+   */
+  @Before
+  public void setUp() {
+    deck = CardFixtures.eastCards(15, 2);
+  }
+
+  /**
+   * Close the client and server.
+   */
+  @After
+  public void tearDown() throws IOException {
+    if (channel != null) {
+      channel.close();
+    }
+    if (server != null) {
+      server.close();
+    }
+  }
+
+  private void connect(SocketAddress address) throws IOException {
+    channel = SocketChannel.open(address);
+    in = new BufferedReader(
+        new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+    out = Channels.newWriter(channel, StandardCharsets.UTF_8);
+  }
+
+  private void send(String line) throws IOException {
+    out.write(line + "\n");
+    out.flush();
+  }
+
+  @Test
+  public void testPlayUntilBothPass() throws IOException {
+    server = new SessionServer(deck, 3, 5, null, Duration.ofMinutes(1));
+    connect(server.listen(LOOPBACK));
+
+    assertEquals("BOARD R 0:1___1:0/0:1___1:0/0:1___1:0", in.readLine());
+    assertTrue(in.readLine().startsWith("HAND East"));
+    send("0 1 0");
+    assertEquals("BOARD B 0:1___1:0/2:R1__1:0/0:1___1:0", in.readLine());
+    in.readLine();
+    send("pass");
+    in.readLine();
+    in.readLine();
+    send("pass");
+    assertEquals("OVER 2 0", in.readLine());
+    assertNull(in.readLine());
+  }
+
+  @Test
+  public void testBadInputReportsError() throws IOException {
+    server = new SessionServer(deck, 3, 5, null, Duration.ofMinutes(1));
+    connect(server.listen(LOOPBACK));
+    in.readLine();
+    in.readLine();
+
+    send("0 1");
+    assertEquals("ERR Invalid input! Please use format: <card_index> <row> <col>",
+        in.readLine());
+    send("0 1 2");
+    assertEquals("ERR Illegal move", in.readLine());
+    send("0 1 0");
+    assertTrue(in.readLine().startsWith("BOARD B"));
+  }
+
+  @Test
+  public void testIdleSessionEvicted() throws IOException, InterruptedException {
+    server = new SessionServer(deck, 3, 5, null, Duration.ofMillis(100));
+    connect(server.listen(LOOPBACK));
+    in.readLine();
+    in.readLine();
+
+    assertNull(in.readLine());
+    for (int i = 0; i < 100 && server.getSessionCount() > 0; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, server.getSessionCount());
+  }
+
+  @Test
+  public void testUnixSocketWithOpponent() throws IOException {
+    Path dir = Files.createTempDirectory("sanguine");
+    Path socket = dir.resolve("server.sock");
+    try {
+      server = new SessionServer(deck, 3, 5, FillFirstStrategy::new, Duration.ofMinutes(1));
+      connect(server.listen(UnixDomainSocketAddress.of(socket)));
+      in.readLine();
+      in.readLine();
+
+      send("0 0 0");
+      // The opponent has answered, so red is to move again
+      assertTrue(in.readLine().startsWith("BOARD R 2:R1"));
+      assertTrue(in.readLine().startsWith("HAND "));
+    } finally {
+      server.close();
+      Files.deleteIfExists(socket);
+      Files.delete(dir);
+    }
+  }
+}
@@ -8,6 +8,8 @@ import java.util.ArrayList;
 import java.util.List;
 import model.Card;
 import model.Cell;
+import model.GameSnapshot;
+import model.ModelListener;
 import model.Player;
 import model.PlayerInterface;
 import model.SanguineModel;
@@ -394,6 +396,51 @@ public class StrategyTest {
     public void playCardFromHand(int row, int col, int cardIndex) {
     }
 
+    @Override
+    public int collectPlayableCells(PlayerInterface<Card> player, int cost, int[] cells) {
+      return 0;
+    }
+
+    @Override
+    public int getOwnedCellCount(PlayerInterface<Card> player) {
+      return 0;
+    }
+
+    @Override
+    public long getPositionKey() {
+      return 0;
+    }
+
+    @Override
+    public SanguineModelInterface<Card, Cell<Card>> copyModel() {
+      return null;
+    }
+
+    @Override
+    public GameSnapshot getSnapshot() {
+      return null;
+    }
+
+    @Override
+    public void addModelListener(ModelListener listener) {
+    }
+
+    @Override
+    public void removeModelListener(ModelListener listener) {
+    }
+
+    @Override
+    public void applyMove(int row, int col, int cardIndex) {
+    }
+
+    @Override
+    public void applyPass() {
+    }
+
+    @Override
+    public void undoMove() {
+    }
+
     @Override
     public void setGameOver(boolean over) {
     }
@@ -0,0 +1,95 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import model.Card;
+import org.junit.Before;
+import org.junit.Test;
+import sanguine.Tournament;
+import sanguine.TournamentResult;
+import strategy.ControllBoardStrategy;
+import strategy.FillFirstStrategy;
+import strategy.MaximizeRowScoreStrategy;
+import strategy.Move;
+
+/**
+ * Tests for the headless tournament runner.
+ */
+public class TournamentTest {
+  private List<Card> deck;
+
+  /**
+   * Set up a fifteen card deck.
+   */
+  @Before
+  public void setUp() {
+    boolean[][] cross = CardFixtures.cross();
+    deck = new ArrayList<>();
+    for (int i = 0; i < 15; i++) {
+      deck.add(new Card("Card" + i, i % 3 + 1, i % 5 + 1, cross));
+    }
+  }
+
+  private TournamentResult play(int parallelism) {
+    Tournament tournament = new Tournament(deck, 3, 5, 6, parallelism, 42);
+    tournament.addEntrant("FillFirst", FillFirstStrategy::new);
+    tournament.addEntrant("MaxRowScore", MaximizeRowScoreStrategy::new);
+    tournament.addEntrant("ControlBoard", ControllBoardStrategy::new);
+    return tournament.run();
+  }
+
+  @Test
+  public void testEveryPairPlays() {
+    TournamentResult result = play(2);
+
+    int wins = 0;
+    double elo = 0;
+    for (int i = 0; i < 3; i++) {
+      assertEquals(12, result.getGames(i));
+      assertEquals(12, result.getWins(i) + result.getDraws(i) + result.getLosses(i));
+      wins += result.getWins(i);
+      elo += result.getElo(i);
+    }
+    assertTrue(wins <= 18);
+    assertEquals(4500, elo, 1e-6);
+    assertTrue(result.getGamesPerSecond() > 0);
+  }
+
+  @Test
+  public void testResultsRepeatWithSameSeed() {
+    TournamentResult sequential = play(1);
+    TournamentResult parallel = play(4);
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals(sequential.getWins(i), parallel.getWins(i));
+      assertEquals(sequential.getDraws(i), parallel.getDraws(i));
+      assertEquals(sequential.getElo(i), parallel.getElo(i), 1e-9);
+      assertEquals(sequential.getAverageMargin(i), parallel.getAverageMargin(i), 1e-9);
+    }
+  }
+
+  @Test
+  public void testIllegalMoveForfeitsTheGame() {
+    Tournament tournament = new Tournament(deck, 3, 5, 2, 1, 42);
+    tournament.addEntrant("FillFirst", FillFirstStrategy::new);
+    // The middle of the board is never the mover's own cell at the start
+    tournament.addEntrant("Cheater",
+        () -> (model, player) -> Collections.singletonList(new Move(0, 1, 2)));
+    TournamentResult result = tournament.run();
+
+    assertEquals(2, result.getForfeits(1));
+    assertEquals(2, result.getLosses(1));
+    assertEquals(2, result.getWins(0));
+    assertEquals(0, result.getForfeits(0));
+    assertTrue(result.toString().contains("Forfeits"));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNeedsTwoEntrants() {
+    Tournament tournament = new Tournament(deck, 3, 5, 2, 1, 0);
+    tournament.addEntrant("FillFirst", FillFirstStrategy::new);
+    tournament.run();
+  }
+}
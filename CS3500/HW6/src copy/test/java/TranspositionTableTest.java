@@ -0,0 +1,84 @@
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.List;
+import model.Card;
+import model.Player;
+import model.SanguineModel;
+import org.junit.Test;
+import strategy.AlphaBetaStrategy;
+import strategy.Move;
+import strategy.PawnControlEvaluator;
+import strategy.TranspositionTable;
+
+/**
+ * Tests for the transposition table.
+ */
+public class TranspositionTableTest {
+
+  @Test
+  public void testStoreAndProbe() {
+    TranspositionTable table = new TranspositionTable(64);
+    int move = Move.pack(2, 1, 4);
+    table.store(12345L, 3, -17, TranspositionTable.LOWER_BOUND, move);
+
+    long entry = table.probe(12345L);
+    assertEquals(-17, TranspositionTable.score(entry));
+    assertEquals(3, TranspositionTable.depth(entry));
+    assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+    assertEquals(move, TranspositionTable.move(entry));
+  }
+
+  @Test
+  public void testMissingKey() {
+    TranspositionTable table = new TranspositionTable(64);
+    table.store(1L, 1, 5, TranspositionTable.EXACT, -1);
+
+    assertEquals(0, table.probe(2L));
+    assertEquals(-1, TranspositionTable.move(table.probe(1L)));
+    table.clear();
+    assertEquals(0, table.probe(1L));
+  }
+
+  @Test
+  public void testDeepEntryKeptWhenShallowCollides() {
+    TranspositionTable table = new TranspositionTable(2);
+    long deepKey = 0;
+    long shallowKey = 1L << 40;
+    long newestKey = 2L << 40;
+    table.store(deepKey, 8, 1, TranspositionTable.EXACT, -1);
+    table.store(shallowKey, 2, 2, TranspositionTable.EXACT, -1);
+    table.store(newestKey, 1, 3, TranspositionTable.EXACT, -1);
+
+    assertEquals(1, TranspositionTable.score(table.probe(deepKey)));
+    assertEquals(0, table.probe(shallowKey));
+    assertEquals(3, TranspositionTable.score(table.probe(newestKey)));
+  }
+
+  @Test
+  public void testCapacityRoundsUp() {
+    assertEquals(1024, new TranspositionTable(1000).capacity());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSize() {
+    new TranspositionTable(0);
+  }
+
+  @Test
+  public void testSearchWithTableFindsSameMoves() {
+    boolean[][] cross = CardFixtures.cross();
+    List<Card> hand = Arrays.asList(new Card("Cross", 1, 2, cross),
+        new Card("Gem", 1, 3, CardFixtures.none()), new Card("Pair", 2, 4, cross));
+    SanguineModel model = new SanguineModel(new Player(Color.RED, hand, hand),
+        new Player(Color.BLUE, hand, hand), 3, 5);
+
+    List<Move> plain = new AlphaBetaStrategy(new PawnControlEvaluator(2, 1), 4, 1_000_000)
+        .chooseMoves(model, model.getRedPlayer());
+    List<Move> cached = new AlphaBetaStrategy(new PawnControlEvaluator(2, 1), 4, 1_000_000,
+        new TranspositionTable(1 << 16)).chooseMoves(model, model.getRedPlayer());
+
+    assertEquals(plain, cached);
+  }
+}